@@ -2,6 +2,10 @@ package com.retailcorp.retailshopping;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.retailcorp.retailshopping.service.EventLoadRunner;
 
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
@@ -12,10 +16,16 @@ version = "1.0",
 description = "API documentation for My Retail Application"
 ))
 @SpringBootApplication
+@EnableScheduling
 public class RetailApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(RetailApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(RetailApplication.class, args);
+		// A command-line event load is a one-shot job: exit with its status
+		EventLoadRunner eventLoad = context.getBeanProvider(EventLoadRunner.class).getIfAvailable();
+		if (eventLoad != null && eventLoad.exitsWhenDone()) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -0,0 +1,145 @@
+package com.retailcorp.retailshopping.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.retailcorp.retailshopping.exception.PasswordHashingBusyException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Runs every encode/matches on a small fixed pool with a bounded queue, so a burst of
+// logins can use at most `threads` cores and the rest of the API keeps its CPU. When
+// the queue is full, or a hash is still waiting for a worker after timeoutMs, the caller
+// gets PasswordHashingBusyException (503) instead of waiting behind the burst. A hash
+// that has started is always waited for, so a worker's effort is never thrown away.
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    static final String BUSY_MESSAGE = "Too many sign-in requests, retry later";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    private final Timer queueTime;
+    private final Timer encodeTime;
+    private final Timer matchTime;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry,
+                                  int threads, int queueCapacity, long timeoutMs) {
+        this.delegate = delegate;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.password.queue.depth", executor.getQueue(), BlockingQueue::size)
+                .description("Password hashes waiting for a worker")
+                .register(meterRegistry);
+        queueTime = Timer.builder("auth.password.queue")
+                .description("Time a password hash waited for a worker")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        encodeTime = hashTimer(meterRegistry, "encode");
+        matchTime = hashTimer(meterRegistry, "matches");
+        rejected = Counter.builder("auth.password.rejected")
+                .description("Password hashes refused because the pool was saturated")
+                .register(meterRegistry);
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("Time spent computing a password hash")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTime, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchTime, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Timer hashTime, Callable<T> hash) {
+        long submitted = System.nanoTime();
+        // Claimed by the worker when it starts, or by the caller when it gives up waiting;
+        // FutureTask.cancel cannot tell the two apart, since a running task still cancels
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                long started = System.nanoTime();
+                queueTime.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return hash.call();
+                } finally {
+                    hashTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException(BUSY_MESSAGE);
+        }
+
+        try {
+            try {
+                return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Still queued: abandon it so a worker never spends time on it. A hash
+                // already running is finished and returned
+                if (claimed.compareAndSet(false, true)) {
+                    future.cancel(false);
+                    rejected.increment();
+                    throw new PasswordHashingBusyException(BUSY_MESSAGE);
+                }
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException(BUSY_MESSAGE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
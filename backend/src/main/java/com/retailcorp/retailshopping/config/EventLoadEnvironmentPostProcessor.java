@@ -0,0 +1,25 @@
+package com.retailcorp.retailshopping.config;
+
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+// A command-line event load (events.load.file set, see EventLoadRunner) boots the full
+// context against a live database. It must never run schema.sql, whose DROP TABLEs would
+// wipe the data it is loading into, and has no use for a web server. These override
+// every other source, SPRING_SQL_INIT_MODE=always included.
+public class EventLoadEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.containsProperty("events.load.file")) {
+            return;
+        }
+        environment.getPropertySources().addFirst(new MapPropertySource("eventLoad", Map.of(
+                "spring.sql.init.mode", "never",
+                "spring.main.web-application-type", "none")));
+    }
+}
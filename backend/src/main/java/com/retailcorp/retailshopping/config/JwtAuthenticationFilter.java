@@ -1,17 +1,23 @@
 package com.retailcorp.retailshopping.config;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import com.retailcorp.retailshopping.dto.AuthenticatedCustomer;
 import com.retailcorp.retailshopping.repository.CustomerRepository;
 import com.retailcorp.retailshopping.service.JwtTokenProvider;
+import com.retailcorp.retailshopping.service.VerifiedTokenCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -26,6 +32,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    // Customers also granted ROLE_ADMIN (the /api/admin/** endpoints); empty = nobody
+    @Value("${auth.admin-emails:}")
+    private String[] adminEmails;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -34,20 +47,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
             try {
-                if (tokenProvider.validateToken(token)) {
-                    String email = tokenProvider.getEmailFromToken(token);
-                    // Load customer (principal)
-                    var maybeCustomer = customerRepository.findByEmail(email);
-                    if (maybeCustomer.isPresent()) {
-                        var customer = maybeCustomer.get();
-                        var auth = new UsernamePasswordAuthenticationToken(
-                                customer,
-                                null,
-                                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
-                        );
-                        SecurityContextHolder.getContext().setAuthentication(auth);
-                    } else {
-                        SecurityContextHolder.clearContext();
+                // A token seen before is already verified and resolved: no HMAC, no query
+                Optional<AuthenticatedCustomer> cached = tokenCache.get(token);
+                if (cached.isPresent()) {
+                    authenticate(cached.get());
+                } else {
+                    // One signature check per request; the claims come back with it
+                    var claims = tokenProvider.parseAndValidate(token);
+                    if (claims.isPresent()) {
+                        String email = claims.get().getSubject();
+                        long generation = tokenCache.generation();
+                        // Load customer (principal)
+                        var maybeCustomer = customerRepository.findByEmail(email);
+                        if (maybeCustomer.isPresent()) {
+                            var customer = maybeCustomer.get();
+                            tokenCache.put(token, customer, claims.get().getExpiration(), generation);
+                            authenticate(AuthenticatedCustomer.of(customer));
+                        } else {
+                            SecurityContextHolder.clearContext();
+                        }
                     }
                 }
             } catch (Exception e) {
@@ -58,4 +76,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(AuthenticatedCustomer customer) {
+        List<GrantedAuthority> authorities = new ArrayList<>(2);
+        authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+        if (isAdmin(customer.email())) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+        }
+        var auth = new UsernamePasswordAuthenticationToken(customer, null, authorities);
+        SecurityContextHolder.getContext().setAuthentication(auth);
+    }
+
+    private boolean isAdmin(String email) {
+        if (adminEmails == null || email == null) {
+            return false;
+        }
+        for (String admin : adminEmails) {
+            if (admin.trim().equalsIgnoreCase(email)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
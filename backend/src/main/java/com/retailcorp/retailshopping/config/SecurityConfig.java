@@ -1,5 +1,6 @@
 package com.retailcorp.retailshopping.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -14,6 +15,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import java.util.Arrays;
 
 @Configuration
@@ -23,9 +26,27 @@ public class SecurityConfig {
     @org.springframework.beans.factory.annotation.Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    // BCrypt work factor: each +1 doubles the cost of a hash. Existing hashes keep their own.
+    @Value("${auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    // 0 = half the available cores
+    @Value("${auth.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${auth.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${auth.hashing.timeout-ms:3000}")
+    private long hashingTimeoutMs;
+
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int threads = hashingThreads > 0
+                ? hashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), meterRegistry,
+                threads, hashingQueueCapacity, hashingTimeoutMs);
     }
 
     @Bean
@@ -50,6 +71,7 @@ public class SecurityConfig {
                 ).permitAll()
 
                 // Protected endpoints
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/orders/**").authenticated()
                 .requestMatchers("/api/events/**").authenticated()
                 .requestMatchers("/api/customers/{id}", "/api/customers/{id}/events").authenticated()
@@ -68,6 +90,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000", "http://localhost:5173"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor", "ETag"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
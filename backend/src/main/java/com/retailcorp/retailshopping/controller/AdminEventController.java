@@ -0,0 +1,36 @@
+package com.retailcorp.retailshopping.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.retailcorp.retailshopping.dto.EventLoadResult;
+import com.retailcorp.retailshopping.exception.ResourceNotFoundException;
+import com.retailcorp.retailshopping.service.EventBulkLoader;
+
+import lombok.AllArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/events")
+@AllArgsConstructor
+public class AdminEventController {
+
+    private final EventBulkLoader bulkLoader;
+
+    // Bulk replay of an NDJSON (optionally .gz) event file; off unless events.load.upload-enabled
+    @PostMapping(value = "/load", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public EventLoadResult load(@RequestParam("file") MultipartFile file) throws IOException {
+        if (!bulkLoader.isUploadEnabled()) {
+            throw new ResourceNotFoundException("Event upload is disabled");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return bulkLoader.load(in, file.getOriginalFilename());
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.retailcorp.retailshopping.controller;
 
 import com.retailcorp.retailshopping.dto.*;
+import com.retailcorp.retailshopping.exception.PasswordHashingBusyException;
+import com.retailcorp.retailshopping.service.AuthRateLimiter;
 import com.retailcorp.retailshopping.service.AuthService;
 import com.retailcorp.retailshopping.service.JwtTokenProvider;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.http.ResponseEntity;
@@ -17,12 +20,18 @@ public class AuthController {
     
     private final AuthService authService;
     private final JwtTokenProvider tokenProvider;
+    private final AuthRateLimiter rateLimiter;
     
+    // Throttled attempts are turned away (429) before any lookup or hashing. getRemoteAddr() is
+    // the client, not the reverse proxy, through server.forward-headers-strategy (application.yaml)
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
+    public ResponseEntity<?> register(@RequestBody RegisterRequest request, HttpServletRequest http) {
+        rateLimiter.acquire(AuthRateLimiter.REGISTER, http.getRemoteAddr(), request.getEmail());
         try {
             AuthResponse response = authService.register(request);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            throw e; // 503 from GlobalExceptionHandler, not a client error
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
 
@@ -30,10 +39,13 @@ public class AuthController {
     }
     
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest http) {
+        rateLimiter.acquire(AuthRateLimiter.LOGIN, http.getRemoteAddr(), request.getEmail());
         try {
             AuthResponse response = authService.login(request);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(401).body(new ErrorResponse(e.getMessage()));
         }
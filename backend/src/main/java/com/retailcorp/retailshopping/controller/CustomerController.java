@@ -1,8 +1,11 @@
 package com.retailcorp.retailshopping.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,6 +17,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.retailcorp.retailshopping.dto.CustomerEventResponse;
+import com.retailcorp.retailshopping.dto.EventHistoryFilter;
 import com.retailcorp.retailshopping.dto.CustomerResponse;
 import com.retailcorp.retailshopping.dto.RegisterRequest;
 import com.retailcorp.retailshopping.service.CustomerService;
@@ -24,7 +28,7 @@ import lombok.AllArgsConstructor;
 
 @RestController
 @RequestMapping("/api/customers")
-@CrossOrigin
+@CrossOrigin(exposedHeaders = EventController.NEXT_CURSOR_HEADER)
 @AllArgsConstructor
 public class CustomerController {
 
@@ -47,8 +51,21 @@ public class CustomerController {
         return customerService.getCustomerById(id);
     }
 
+    // Same paging as /api/events/customer/{customerId}
     @GetMapping("/{id}/events")
-    public List<CustomerEventResponse> getCustomerEvents(@PathVariable Long id) {
-        return eventService.getEventsForCustomer(id);
+    public ResponseEntity<List<CustomerEventResponse>> getCustomerEvents(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        return EventController.page(eventService.getEventsForCustomer(id, EventHistoryFilter.builder()
+                .from(from)
+                .to(to)
+                .eventType(eventType)
+                .productId(productId)
+                .build(), limit, cursor));
     }
 }
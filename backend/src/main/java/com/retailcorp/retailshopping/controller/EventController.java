@@ -1,17 +1,33 @@
 package com.retailcorp.retailshopping.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.retailcorp.retailshopping.dto.CustomerEventRequest;
 import com.retailcorp.retailshopping.dto.CustomerEventResponse;
+import com.retailcorp.retailshopping.dto.EventBatchResponse;
+import com.retailcorp.retailshopping.dto.EventHistoryFilter;
+import com.retailcorp.retailshopping.dto.EventPage;
+import com.retailcorp.retailshopping.dto.EventSearchRequest;
 import com.retailcorp.retailshopping.service.EventService;
 
 import jakarta.validation.Valid;
@@ -19,19 +35,83 @@ import lombok.AllArgsConstructor;
 
 @RestController
 @RequestMapping("/api/events")
-@CrossOrigin(origins = "http://localhost:3000")
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = EventController.NEXT_CURSOR_HEADER)
 @AllArgsConstructor
 public class EventController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final EventService eventService;
 
+    // With async ingestion the event is queued and written in a later batch: 202, no body
     @PostMapping
-    public CustomerEventResponse logEvent(@Valid @RequestBody CustomerEventRequest request) {
-        return eventService.logEvent(request);
+    public ResponseEntity<CustomerEventResponse> logEvent(@Valid @RequestBody CustomerEventRequest request) {
+        if (eventService.isAsyncIngest()) {
+            eventService.enqueueEvent(request);
+            return ResponseEntity.accepted().build();
+        }
+        return ResponseEntity.ok(eventService.logEvent(request));
+    }
+
+    // One event per line (application/x-ndjson); the response reports each line's outcome
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public EventBatchResponse logEvents(InputStream body) throws IOException {
+        return eventService.ingestBatch(body);
+    }
+
+    // Ad-hoc attribute filter, e.g. {"eventData": {"page": "product_details"}}; newest first
+    @PostMapping("/search")
+    public List<CustomerEventResponse> searchEvents(@RequestBody EventSearchRequest request) {
+        return eventService.searchEvents(request);
     }
 
+    // Newest first; from is inclusive, to exclusive. The next page's cursor is in X-Next-Cursor.
     @GetMapping("/customer/{customerId}")
-    public List<CustomerEventResponse> getEventsForCustomer(@PathVariable Long customerId) {
-        return eventService.getEventsForCustomer(customerId);
+    public ResponseEntity<List<CustomerEventResponse>> getEventsForCustomer(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        return page(eventService.getEventsForCustomer(customerId, EventHistoryFilter.builder()
+                .from(from)
+                .to(to)
+                .eventType(eventType)
+                .productId(productId)
+                .build(), limit, cursor));
+    }
+
+    // Full history, oldest first, one JSON object per line; gzipped when the client accepts it
+    @GetMapping("/customer/{customerId}/export")
+    public ResponseEntity<StreamingResponseBody> exportEvents(
+            @PathVariable Long customerId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                eventService.exportEvents(customerId, compressed);
+                compressed.finish();
+            } else {
+                eventService.exportEvents(customerId, out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    static ResponseEntity<List<CustomerEventResponse>> page(EventPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 }
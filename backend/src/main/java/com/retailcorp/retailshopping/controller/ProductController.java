@@ -2,33 +2,126 @@ package com.retailcorp.retailshopping.controller;
 
 import java.util.List;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import com.retailcorp.retailshopping.dto.ProductResponse;
+import com.retailcorp.retailshopping.dto.FacetedSearchResponse;
+import com.retailcorp.retailshopping.dto.ProductPage;
+import com.retailcorp.retailshopping.dto.ProductSearchFilter;
+import com.retailcorp.retailshopping.dto.ProductSuggestion;
+import com.retailcorp.retailshopping.exception.BadRequestException;
 import com.retailcorp.retailshopping.service.ProductService;
+import com.retailcorp.retailshopping.service.ProductSuggester;
 
 import lombok.AllArgsConstructor;
 
 @RestController
 @RequestMapping("/api/products")
-@CrossOrigin(origins = "http://localhost:3000")
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = {ProductController.NEXT_CURSOR_HEADER, "ETag"})
 @AllArgsConstructor
 public class ProductController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String RELEVANCE = "relevance";
+
     private final ProductService productService;
+    private final ProductSuggester productSuggester;
 
+    // Paged responses keep the JSON array body and carry the next cursor in a header
     @GetMapping
-    public List<ProductResponse> getProducts() {
-        return productService.getAllProducts();
+    public ResponseEntity<List<?>> getProducts(@RequestParam(required = false) Long after,
+                                               @RequestParam(required = false) Integer limit,
+                                               @RequestParam(required = false) List<String> fields,
+                                               WebRequest request) {
+        // The whole catalog carries the catalog version, so a match is answered before loading it
+        boolean wholeCatalog = productService.isWholeCatalog(after, limit, fields);
+        if (wholeCatalog) {
+            String version = productService.getCatalogETag();
+            if (request.checkNotModified(version)) {
+                return notModified(version);
+            }
+        }
+        // A page is tagged from the rows it was built from, so only they can validate it
+        ProductPage page = productService.getProducts(after, limit, fields);
+        String etag = page.getEtag();
+        if (!wholeCatalog && request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache());
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getItems());
     }
 
+    // Filters narrow the JSON array; facets=true returns the hits wrapped with
+    // per-value counts for category, subcategory and brand instead.
+    // sort=relevance returns the best limit matches, typo-tolerant, in score order.
     @GetMapping("/search")
-    public List<ProductResponse> searchProducts(@RequestParam String query) {
-        return productService.searchProducts(query);
+    public ResponseEntity<?> searchProducts(@RequestParam String query,
+                                            @RequestParam(required = false) List<String> category,
+                                            @RequestParam(required = false) List<String> subcategory,
+                                            @RequestParam(required = false) List<String> brand,
+                                            @RequestParam(required = false) Double minPrice,
+                                            @RequestParam(required = false) Double maxPrice,
+                                            @RequestParam(required = false) Boolean inStock,
+                                            @RequestParam(defaultValue = "false") boolean facets,
+                                            @RequestParam(required = false) String sort,
+                                            @RequestParam(required = false) Integer limit,
+                                            WebRequest request) {
+        String etag = productService.getCatalogETag();
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        ProductSearchFilter filter = ProductSearchFilter.builder()
+                .categories(category)
+                .subcategories(subcategory)
+                .brands(brand)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(inStock)
+                .build();
+
+        Object body;
+        if (sort != null && !RELEVANCE.equals(sort)) {
+            throw new BadRequestException("Unknown sort: " + sort);
+        } else if (RELEVANCE.equals(sort)) {
+            if (facets) {
+                throw new BadRequestException("facets are not available with sort=relevance");
+            }
+            body = productService.rankProducts(query, limit, filter);
+        } else if (filter.isEmpty() && !facets) {
+            body = productService.searchProducts(query);
+        } else {
+            FacetedSearchResponse result = productService.searchProducts(query, filter);
+            body = facets ? result : result.getItems();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+
+    @GetMapping("/suggest")
+    public List<ProductSuggestion> suggest(@RequestParam String prefix,
+                                           @RequestParam(defaultValue = "10") int limit) {
+        return productSuggester.suggest(prefix, limit);
+    }
+
+    // Matching If-None-Match: answer before touching the catalog or serializing anything
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
     }
 }
 
@@ -0,0 +1,12 @@
+package com.retailcorp.retailshopping.dto;
+
+import com.retailcorp.retailshopping.entity.Customer;
+
+// Security principal for a bearer-token request: an immutable copy of the customer's
+// identity, safe to share across requests, unlike the (mutable, detached) entity
+public record AuthenticatedCustomer(Long customerId, String email) {
+
+    public static AuthenticatedCustomer of(Customer customer) {
+        return new AuthenticatedCustomer(customer.getCustomerId(), customer.getEmail());
+    }
+}
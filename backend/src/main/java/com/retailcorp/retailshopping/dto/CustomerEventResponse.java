@@ -2,6 +2,11 @@ package com.retailcorp.retailshopping.dto;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.util.RawValue;
+
 import lombok.Builder;
 import lombok.Data;
 
@@ -11,6 +16,14 @@ public class CustomerEventResponse {
     private Long eventId;
     private Long customerId;
     private LocalDateTime eventTimestamp;
+    @JsonIgnore
     private Map<String, Object> eventData;
+    @JsonIgnore
+    private String rawEventData;       // stored jsonb, written out verbatim instead of eventData
     private LocalDateTime loadTimestamp;
+
+    @JsonProperty("eventData")
+    Object eventDataJson() {
+        return rawEventData != null ? new RawValue(rawEventData) : eventData;
+    }
 }
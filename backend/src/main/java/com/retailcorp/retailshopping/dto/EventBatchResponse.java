@@ -0,0 +1,15 @@
+package com.retailcorp.retailshopping.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class EventBatchResponse {
+    private int accepted;
+    private int rejected;
+    private boolean truncated;          // lines past events.batch.max-lines were not read
+    private List<EventLineResult> results;
+}
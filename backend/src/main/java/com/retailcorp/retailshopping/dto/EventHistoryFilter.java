@@ -0,0 +1,16 @@
+package com.retailcorp.retailshopping.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Optional restrictions on a customer's event history; null fields are not applied
+@Data
+@Builder
+public class EventHistoryFilter {
+    private LocalDateTime from;     // inclusive
+    private LocalDateTime to;       // exclusive
+    private String eventType;
+    private Long productId;
+}
@@ -0,0 +1,16 @@
+package com.retailcorp.retailshopping.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventLineResult {
+    private int line;           // 1-based line of the request body
+    private String status;      // "accepted" or "rejected"
+    private Long eventId;
+    private String error;
+}
@@ -0,0 +1,12 @@
+package com.retailcorp.retailshopping.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class EventLoadResult {
+    private long rows;
+    private long elapsedMs;
+    private long rowsPerSecond;
+}
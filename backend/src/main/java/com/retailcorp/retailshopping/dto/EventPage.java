@@ -0,0 +1,13 @@
+package com.retailcorp.retailshopping.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class EventPage {
+    private List<CustomerEventResponse> items;
+    private String nextCursor;      // null on the last page
+}
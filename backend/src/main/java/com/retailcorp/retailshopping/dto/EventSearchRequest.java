@@ -0,0 +1,16 @@
+package com.retailcorp.retailshopping.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import lombok.Data;
+
+// Events whose event_data contains every key/value pair in eventData
+@Data
+public class EventSearchRequest {
+    private Map<String, Object> eventData;
+    private Long customerId;         // optional; all customers when null
+    private LocalDateTime from;      // inclusive
+    private LocalDateTime to;        // exclusive
+    private Integer limit;
+}
@@ -0,0 +1,15 @@
+package com.retailcorp.retailshopping.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class FacetedSearchResponse {
+    private List<ProductResponse> items;
+    private int total;
+    private Map<String, Map<String, Integer>> facets;   // facet -> value -> count, most frequent first
+}
@@ -0,0 +1,14 @@
+package com.retailcorp.retailshopping.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ProductPage {
+    private List<?> items;        // ProductResponse, or field maps when ?fields= is used
+    private Long nextCursor;      // null on the last page
+    private String etag;          // validator taken from the same source as the items
+}
@@ -0,0 +1,26 @@
+package com.retailcorp.retailshopping.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ProductSearchFilter {
+    private List<String> categories;      // any of, case-insensitive
+    private List<String> subcategories;
+    private List<String> brands;
+    private Double minPrice;              // inclusive
+    private Double maxPrice;              // inclusive
+    private Boolean inStock;
+
+    public boolean isEmpty() {
+        return isNullOrEmpty(categories) && isNullOrEmpty(subcategories) && isNullOrEmpty(brands)
+                && minPrice == null && maxPrice == null && inStock == null;
+    }
+
+    private static boolean isNullOrEmpty(List<String> values) {
+        return values == null || values.isEmpty();
+    }
+}
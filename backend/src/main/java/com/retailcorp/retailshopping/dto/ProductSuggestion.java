@@ -0,0 +1,12 @@
+package com.retailcorp.retailshopping.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ProductSuggestion {
+    private String text;
+    private String type;      // "product" or "brand"
+    private Long productId;   // null for brand suggestions
+}
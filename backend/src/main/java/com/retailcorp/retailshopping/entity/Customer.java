@@ -3,12 +3,15 @@ package com.retailcorp.retailshopping.entity;
 import java.time.LocalDate;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.retailcorp.retailshopping.service.CustomerEmailFilterListener;
+import com.retailcorp.retailshopping.service.CustomerTokenEvictionListener;
 
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
 @Table(name = "customers")
+@EntityListeners({CustomerTokenEvictionListener.class, CustomerEmailFilterListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,7 +19,8 @@ import lombok.*;
 public class Customer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq")
+    @SequenceGenerator(name = "customers_seq", sequenceName = "customers_customer_id_seq", allocationSize = 50)
     @Column(name = "customer_id")
     private Long customerId;
 
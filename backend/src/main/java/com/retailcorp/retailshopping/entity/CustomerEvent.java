@@ -13,24 +13,41 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
-@Table(name = "customer_events")
+@Table(name = "customer_events", indexes = {
+        @Index(name = "idx_customer_events_history",
+                columnList = "customer_id, event_timestamp DESC, event_id DESC"),
+        @Index(name = "idx_customer_events_type_history",
+                columnList = "customer_id, event_type, event_timestamp DESC, event_id DESC"),
+        @Index(name = "idx_customer_events_product",
+                columnList = "product_id, event_type, event_timestamp DESC"),
+        @Index(name = "idx_customer_events_session",
+                columnList = "session_id")})
 @Data
 public class CustomerEvent {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_events_seq")
+    @SequenceGenerator(name = "customer_events_seq", sequenceName = "customer_events_event_id_seq", allocationSize = 50)
     private Long eventId;
     private Long customerId;
+    // Partition key of customer_events
+    @Column(nullable = false)
     private LocalDateTime eventTimestamp=LocalDateTime.now();
     
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "event_data", columnDefinition = "jsonb")
     private String eventData;
 
-    
+    // Promoted from event_data at ingest (EventFieldExtractor) so filters can use an index
+    private String eventType;
+    private Long productId;
+    private String sessionId;
+
     private LocalDateTime loadTimestamp;
 }
 
@@ -10,6 +10,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Data;
 import jakarta.persistence.OneToMany;
@@ -18,8 +19,10 @@ import jakarta.persistence.CascadeType;
 @Table(name = "orders")
 @Data
 public class Order {
+    // Pooled sequence rather than IDENTITY so Hibernate can batch the inserts of one checkout
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_order_id_seq", allocationSize = 50)
     private Long orderId;
     private Long customerId;
     private LocalDateTime orderDate;
@@ -5,6 +5,8 @@ import java.time.LocalDateTime;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.Data;
 
@@ -25,5 +27,13 @@ public class Product {
     private Boolean isActive;
     private LocalDate createdDate;
     private LocalDateTime lastUpdated;
+
+    // Keeps last_updated moving on every write so the catalog snapshot can use
+    // it as a high-water mark.
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        lastUpdated = LocalDateTime.now();
+    }
 }
 
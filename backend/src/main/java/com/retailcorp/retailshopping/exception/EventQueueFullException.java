@@ -0,0 +1,7 @@
+package com.retailcorp.retailshopping.exception;
+
+public class EventQueueFullException extends RuntimeException {
+    public EventQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.retailcorp.retailshopping.repository;
+
+import java.time.LocalDateTime;
+
+// Cheap fingerprint of the products table: the newest last_updated value plus
+// the row count (so deletes are noticed as well as inserts and updates).
+public interface CatalogVersion {
+    LocalDateTime getLastUpdated();
+    long getProductCount();
+}
@@ -0,0 +1,180 @@
+package com.retailcorp.retailshopping.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import com.retailcorp.retailshopping.entity.CustomerEvent;
+
+// Plain-JDBC write paths for customer_events, shared by the repository and the
+// load benchmarks: a batched INSERT and a streamed COPY. Both take ids from the
+// event sequence in blocks, the way Hibernate's pooled optimizer does.
+public final class CustomerEventBulkWriter {
+
+    // Same block size as allocationSize on CustomerEvent: each nextval reserves the ids
+    // (value - 49 .. value). The exception is a fresh sequence's first value, 1, which has
+    // nothing reserved below it; Hibernate's pooled optimizer then hands out 1 and takes the
+    // rest from the next nextval, so ids are never below 1 and match what Hibernate assigns.
+    static final int ID_BLOCK = 50;
+
+    private static final String NEXT_ID_BLOCKS_SQL =
+            "SELECT nextval('customer_events_event_id_seq') FROM generate_series(1, ?)";
+
+    private static final String INSERT_SQL = "INSERT INTO customer_events "
+            + "(event_id, customer_id, event_timestamp, event_data, event_type, product_id, session_id, "
+            + "load_timestamp) VALUES (?, ?, ?, ?::jsonb, ?, ?, ?, ?)";
+
+    private static final String COPY_SQL = "COPY customer_events "
+            + "(event_id, customer_id, event_timestamp, event_data, event_type, product_id, session_id, "
+            + "load_timestamp) FROM STDIN WITH (FORMAT csv)";
+
+    // Bytes handed to the driver per CopyData message
+    private static final int COPY_BUFFER = 64 * 1024;
+
+    private CustomerEventBulkWriter() {
+    }
+
+    // One JDBC batch; reWriteBatchedInserts sends it as multi-row INSERTs
+    public static void insertBatch(Connection connection, List<CustomerEvent> events) throws SQLException {
+        if (events.isEmpty()) {
+            return;
+        }
+        assignIds(connection, events);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+            for (CustomerEvent event : events) {
+                insert.setLong(1, event.getEventId());
+                insert.setObject(2, event.getCustomerId());
+                insert.setTimestamp(3, timestamp(event.getEventTimestamp()));
+                insert.setString(4, event.getEventData());
+                insert.setString(5, event.getEventType());
+                insert.setObject(6, event.getProductId(), Types.BIGINT);
+                insert.setString(7, event.getSessionId());
+                insert.setTimestamp(8, timestamp(event.getLoadTimestamp()));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    // Streams the events through COPY ... FROM STDIN, holding at most chunkRows of them.
+    // Each chunk gets its ids in one query and then goes out as its own COPY.
+    public static long copy(Connection connection, Iterator<CustomerEvent> events, int chunkRows)
+            throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        List<CustomerEvent> chunk = new ArrayList<>(chunkRows);
+        long rows = 0;
+        while (events.hasNext()) {
+            chunk.add(events.next());
+            if (chunk.size() == chunkRows || !events.hasNext()) {
+                assignIds(connection, chunk);
+                rows += copyChunk(copyManager, chunk);
+                chunk.clear();
+            }
+        }
+        return rows;
+    }
+
+    private static long copyChunk(CopyManager copyManager, List<CustomerEvent> chunk) throws SQLException {
+        CopyIn copyIn = copyManager.copyIn(COPY_SQL);
+        try {
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER + 1024);
+            for (CustomerEvent event : chunk) {
+                appendCsv(buffer, event);
+                if (buffer.length() >= COPY_BUFFER) {
+                    send(copyIn, buffer);
+                }
+            }
+            send(copyIn, buffer);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void send(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    // An unquoted empty field is NULL in COPY's csv format; text values are always quoted
+    static void appendCsv(StringBuilder row, CustomerEvent event) {
+        row.append(event.getEventId()).append(',');
+        if (event.getCustomerId() != null) {
+            row.append(event.getCustomerId());
+        }
+        row.append(',');
+        if (event.getEventTimestamp() != null) {
+            row.append(event.getEventTimestamp());
+        }
+        row.append(',');
+        appendQuoted(row, event.getEventData());
+        row.append(',');
+        appendQuoted(row, event.getEventType());
+        row.append(',');
+        if (event.getProductId() != null) {
+            row.append(event.getProductId());
+        }
+        row.append(',');
+        appendQuoted(row, event.getSessionId());
+        row.append(',');
+        if (event.getLoadTimestamp() != null) {
+            row.append(event.getLoadTimestamp());
+        }
+        row.append('\n');
+    }
+
+    private static void appendQuoted(StringBuilder row, String value) {
+        if (value == null) {
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    // Asks again when a block came up short, which only the initial value does
+    private static void assignIds(Connection connection, List<CustomerEvent> events) throws SQLException {
+        try (PreparedStatement blocks = connection.prepareStatement(NEXT_ID_BLOCKS_SQL)) {
+            int i = 0;
+            while (i < events.size()) {
+                blocks.setInt(1, (events.size() - i + ID_BLOCK - 1) / ID_BLOCK);
+                try (ResultSet rs = blocks.executeQuery()) {
+                    while (rs.next()) {
+                        long last = rs.getLong(1);
+                        for (long id = Math.max(1, last - ID_BLOCK + 1); id <= last && i < events.size(); id++) {
+                            events.get(i++).setEventId(id);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value == null ? null : Timestamp.valueOf(value);
+    }
+}
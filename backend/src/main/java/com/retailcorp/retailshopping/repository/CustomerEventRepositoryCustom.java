@@ -0,0 +1,35 @@
+package com.retailcorp.retailshopping.repository;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.retailcorp.retailshopping.dto.EventHistoryFilter;
+import com.retailcorp.retailshopping.entity.CustomerEvent;
+
+public interface CustomerEventRepositoryCustom {
+
+    // Inserts the events as one JDBC batch (a multi-row INSERT with reWriteBatchedInserts),
+    // bypassing the persistence context. Assigns each event its id.
+    void insertAll(List<CustomerEvent> events);
+
+    // Bulk load through COPY FROM STDIN, pulling from the iterator chunkRows at a time.
+    // Runs in one transaction: an exception from the iterator rolls back every row.
+    long copyIn(Iterator<CustomerEvent> events, int chunkRows);
+
+    // One page of a customer's events, newest first, matching the filter and strictly after
+    // the (beforeTimestamp, beforeId) position; a null position starts at the newest event
+    List<CustomerEvent> findHistoryPage(Long customerId, EventHistoryFilter filter,
+                                        LocalDateTime beforeTimestamp, Long beforeId, int limit);
+
+    // Newest events whose event_data contains the given JSON object (jsonb @>), optionally
+    // restricted to one customer and to [from, to); null arguments are not applied
+    List<CustomerEvent> searchByEventData(String containedJson, Long customerId,
+                                          LocalDateTime from, LocalDateTime to, int limit);
+
+    // Every event of the customer, oldest first, read through a forward-only cursor
+    // fetchSize rows at a time. Rows are detached as they are read, so memory stays flat.
+    // Must be consumed, and closed, inside a transaction.
+    Stream<CustomerEvent> streamHistory(Long customerId, int fetchSize);
+}
@@ -0,0 +1,120 @@
+package com.retailcorp.retailshopping.repository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.retailcorp.retailshopping.dto.EventHistoryFilter;
+import com.retailcorp.retailshopping.entity.CustomerEvent;
+
+public class CustomerEventRepositoryImpl implements CustomerEventRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void insertAll(List<CustomerEvent> events) {
+        entityManager.unwrap(Session.class)
+                .doWork(connection -> CustomerEventBulkWriter.insertBatch(connection, events));
+    }
+
+    @Override
+    @Transactional
+    public long copyIn(Iterator<CustomerEvent> events, int chunkRows) {
+        return entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> CustomerEventBulkWriter.copy(connection, events, chunkRows));
+    }
+
+    @Override
+    public List<CustomerEvent> findHistoryPage(Long customerId, EventHistoryFilter filter,
+                                               LocalDateTime beforeTimestamp, Long beforeId, int limit) {
+        StringBuilder hql = new StringBuilder("select e from CustomerEvent e where e.customerId = :customerId");
+        Map<String, Object> params = new HashMap<>();
+        params.put("customerId", customerId);
+        // An equality on event_type keeps the range scan on idx_customer_events_type_history
+        if (filter.getEventType() != null) {
+            hql.append(" and e.eventType = :eventType");
+            params.put("eventType", filter.getEventType());
+        }
+        if (filter.getProductId() != null) {
+            hql.append(" and e.productId = :productId");
+            params.put("productId", filter.getProductId());
+        }
+        if (filter.getFrom() != null) {
+            hql.append(" and e.eventTimestamp >= :from");
+            params.put("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            hql.append(" and e.eventTimestamp < :to");
+            params.put("to", filter.getTo());
+        }
+        if (beforeTimestamp != null) {
+            // Row comparison, so Postgres seeks straight to the position in idx_customer_events_history.
+            // The plain bound on event_timestamp lets the planner prune later partitions.
+            hql.append(" and e.eventTimestamp <= :beforeTimestamp"
+                    + " and (e.eventTimestamp, e.eventId) < (:beforeTimestamp, :beforeId)");
+            params.put("beforeTimestamp", beforeTimestamp);
+            params.put("beforeId", beforeId);
+        }
+        hql.append(" order by e.eventTimestamp desc, e.eventId desc");
+
+        TypedQuery<CustomerEvent> query = entityManager.createQuery(hql.toString(), CustomerEvent.class)
+                .setMaxResults(limit);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    // Native SQL: HQL has no @> operator, and only the operator form can use idx_customer_events_data
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<CustomerEvent> searchByEventData(String containedJson, Long customerId,
+                                                 LocalDateTime from, LocalDateTime to, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT * FROM customer_events WHERE event_data @> CAST(:filter AS jsonb)");
+        Map<String, Object> params = new HashMap<>();
+        params.put("filter", containedJson);
+        if (customerId != null) {
+            sql.append(" AND customer_id = :customerId");
+            params.put("customerId", customerId);
+        }
+        if (from != null) {
+            sql.append(" AND event_timestamp >= :from");
+            params.put("from", from);
+        }
+        if (to != null) {
+            sql.append(" AND event_timestamp < :to");
+            params.put("to", to);
+        }
+        sql.append(" ORDER BY event_timestamp DESC, event_id DESC LIMIT :limit");
+        params.put("limit", limit);
+
+        Query query = entityManager.createNativeQuery(sql.toString(), CustomerEvent.class);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    @Override
+    public Stream<CustomerEvent> streamHistory(Long customerId, int fetchSize) {
+        return entityManager.createQuery(
+                        "select e from CustomerEvent e where e.customerId = :customerId "
+                                + "order by e.eventTimestamp, e.eventId", CustomerEvent.class)
+                .setParameter("customerId", customerId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+}
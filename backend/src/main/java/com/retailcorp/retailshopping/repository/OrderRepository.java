@@ -3,6 +3,8 @@ package com.retailcorp.retailshopping.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.retailcorp.retailshopping.entity.Order;
@@ -10,5 +12,11 @@ import com.retailcorp.retailshopping.entity.Order;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    List<Order> findByCustomerId(Long customerId);}
+    // Fetch-join the items so order history is loaded in one query instead of
+    // one lazy collection load per order.
+    @Query("select distinct o from Order o left join fetch o.items where o.customerId = :customerId")
+    List<Order> findByCustomerId(@Param("customerId") Long customerId);
 
+    @Query("select i.productId as productId, sum(i.quantity) as unitsSold from OrderItem i group by i.productId")
+    List<ProductSales> findUnitsSoldByProduct();
+}
@@ -1,15 +1,26 @@
 package com.retailcorp.retailshopping.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.retailcorp.retailshopping.entity.Product;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
         List<Product> findByProductNameContainingIgnoreCaseOrCategoryContainingIgnoreCaseOrBrandContainingIgnoreCase(String name, String category, String brand);
 
-}
\ No newline at end of file
+        List<Product> findByLastUpdatedAfter(LocalDateTime lastUpdated);
+
+        // Keyset page walking the primary-key index: cost depends on the page size only
+        List<Product> findByProductIdGreaterThanOrderByProductIdAsc(Long productId, Limit limit);
+
+        @Query("select max(p.lastUpdated) as lastUpdated, count(p) as productCount from Product p")
+        CatalogVersion findCatalogVersion();
+
+}
@@ -0,0 +1,22 @@
+package com.retailcorp.retailshopping.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+public interface ProductRepositoryCustom {
+
+    // Columns a client may ask for through ?fields=
+    Set<String> PROJECTABLE_FIELDS = Set.of(
+            "productId", "productName", "category", "subcategory",
+            "brand", "unitPrice", "stockQuantity", "reorderLevel");
+
+    // Keyset page selecting only the given fields (productId is always included)
+    List<Map<String, Object>> findPageProjected(Long afterProductId, int limit, List<String> fields);
+
+    // Takes each quantity off its product's stock with a conditional UPDATE, in ascending
+    // product id order so concurrent reservations lock rows in the same sequence. Returns
+    // the ids whose stock was too low; the caller rolls back to undo the other lines.
+    List<Long> reserveStock(SortedMap<Long, Integer> quantities);
+}
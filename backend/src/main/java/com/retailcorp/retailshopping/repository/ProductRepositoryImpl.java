@@ -0,0 +1,88 @@
+package com.retailcorp.retailshopping.repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    // last_updated moves too, so the catalog snapshot picks up the new stock level. It is the
+    // database's transaction start (pgjdbc sets the session zone to the JVM's), still earlier
+    // than the commit: the snapshot's refresh overlap window covers the difference.
+    private static final String RESERVE_STOCK_SQL = "UPDATE products "
+            + "SET stock_quantity = stock_quantity - ?, last_updated = now() "
+            + "WHERE product_id = ? AND stock_quantity >= ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findPageProjected(Long afterProductId, int limit, List<String> fields) {
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add("productId");
+        for (String field : fields) {
+            if (!PROJECTABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown product field: " + field);
+            }
+            columns.add(field);
+        }
+
+        // Field names come from the whitelist above, so building the select list is safe
+        String select = columns.stream()
+                .map(c -> "p." + c + " as " + c)
+                .collect(Collectors.joining(", "));
+        List<Tuple> rows = entityManager.createQuery(
+                        "select " + select + " from Product p where p.productId > :after order by p.productId",
+                        Tuple.class)
+                .setParameter("after", afterProductId)
+                .setMaxResults(limit)
+                .getResultList();
+
+        return rows.stream().map(row -> {
+            Map<String, Object> item = new LinkedHashMap<>();
+            for (TupleElement<?> element : row.getElements()) {
+                item.put(element.getAlias(), row.get(element));
+            }
+            return item;
+        }).toList();
+    }
+
+    @Override
+    @Transactional
+    public List<Long> reserveStock(SortedMap<Long, Integer> quantities) {
+        List<Long> rejected = new ArrayList<>();
+        // One JDBC batch: the driver pipelines every line in a single round trip
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement update = connection.prepareStatement(RESERVE_STOCK_SQL)) {
+                for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                    update.setInt(1, line.getValue());
+                    update.setLong(2, line.getKey());
+                    update.setInt(3, line.getValue());
+                    update.addBatch();
+                }
+                int[] counts = update.executeBatch();
+                int i = 0;
+                for (Long productId : quantities.keySet()) {
+                    if (counts[i++] == 0) {
+                        rejected.add(productId);
+                    }
+                }
+            }
+        });
+        return rejected;
+    }
+}
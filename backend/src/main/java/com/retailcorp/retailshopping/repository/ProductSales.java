@@ -0,0 +1,7 @@
+package com.retailcorp.retailshopping.repository;
+
+// Units sold per product, used as the popularity signal for suggestions.
+public interface ProductSales {
+    Long getProductId();
+    Long getUnitsSold();
+}
@@ -0,0 +1,175 @@
+package com.retailcorp.retailshopping.service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.retailcorp.retailshopping.exception.RateLimitExceededException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Token buckets for /api/auth, one per (endpoint, client IP) and one per (endpoint, email),
+// checked before any database or password work. Each limit is "N attempts per minute":
+// a bucket holds N tokens and refills one every 60s / N.
+//
+// A bucket is a single AtomicLong holding the time at which it will be full again
+// (the GCRA form of a token bucket), so a check is one read and one CAS, no locks.
+// A bucket whose refill time has passed is full and carries no state, so it can be
+// dropped at any time; the sweep does that, keeping the map near the active key count.
+@Component
+public class AuthRateLimiter {
+
+    public static final String LOGIN = "login";
+    public static final String REGISTER = "register";
+
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final boolean enabled;
+    private final int maxKeys;
+    private final Map<String, Limit> limits;
+
+    private final Counter overflow;
+
+    private LongSupplier ticker = System::nanoTime;
+
+    public AuthRateLimiter(MeterRegistry meterRegistry,
+                           @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${auth.rate-limit.max-keys:100000}") int maxKeys,
+                           @Value("${auth.rate-limit.login.per-ip:30}") int loginPerIp,
+                           @Value("${auth.rate-limit.login.per-email:10}") int loginPerEmail,
+                           @Value("${auth.rate-limit.register.per-ip:10}") int registerPerIp,
+                           @Value("${auth.rate-limit.register.per-email:5}") int registerPerEmail) {
+        this.enabled = enabled;
+        this.maxKeys = maxKeys;
+        this.limits = Map.of(
+                LOGIN, new Limit(
+                        new Buckets(meterRegistry, LOGIN, "ip", loginPerIp),
+                        new Buckets(meterRegistry, LOGIN, "email", loginPerEmail)),
+                REGISTER, new Limit(
+                        new Buckets(meterRegistry, REGISTER, "ip", registerPerIp),
+                        new Buckets(meterRegistry, REGISTER, "email", registerPerEmail)));
+
+        Gauge.builder("auth.ratelimit.keys", this, AuthRateLimiter::size)
+                .description("Client IPs and emails with a partly drained bucket")
+                .register(meterRegistry);
+        overflow = Counter.builder("auth.ratelimit.overflow")
+                .description("Checks admitted untracked because the key map was full")
+                .register(meterRegistry);
+    }
+
+    // Takes one token from the IP bucket and one from the email bucket, or throws
+    public void acquire(String endpoint, String clientIp, String email) {
+        if (!enabled) {
+            return;
+        }
+        Limit limit = limits.get(endpoint);
+        if (limit == null) {
+            throw new IllegalArgumentException("No rate limit configured for " + endpoint);
+        }
+        long now = ticker.getAsLong();
+        if (clientIp != null) {
+            check(endpoint, limit.perIp(), clientIp, now);
+        }
+        if (email != null && !email.isBlank()) {
+            check(endpoint, limit.perEmail(), email.trim().toLowerCase(Locale.ROOT), now);
+        }
+    }
+
+    private void check(String endpoint, Buckets buckets, String key, long now) {
+        if (buckets.perMinute <= 0) {
+            return;
+        }
+        long wait = take(bucket(buckets.map, key, now), buckets.interval, buckets.window, now);
+        if (wait > 0) {
+            buckets.throttled.increment();
+            throw new RateLimitExceededException("Too many " + endpoint + " attempts, retry later",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+    }
+
+    // Returns 0 when a token was taken, otherwise the nanoseconds until one is available
+    private static long take(AtomicLong fullAt, long interval, long window, long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - window;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong bucket(ConcurrentHashMap<String, AtomicLong> map, String key, long now) {
+        AtomicLong bucket = map.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (map.size() >= maxKeys) {
+            evictIdle(map, now);
+            if (map.size() >= maxKeys) {
+                // Fail open for new keys rather than lock out legitimate users; keys
+                // already tracked, including every attacking IP seen so far, stay limited
+                overflow.increment();
+                return new AtomicLong(now);
+            }
+        }
+        return map.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    @Scheduled(fixedDelayString = "${auth.rate-limit.sweep-interval-ms:30000}")
+    public void sweep() {
+        long now = ticker.getAsLong();
+        for (Limit limit : limits.values()) {
+            evictIdle(limit.perIp().map, now);
+            evictIdle(limit.perEmail().map, now);
+        }
+    }
+
+    // A full bucket is indistinguishable from a missing one
+    private static void evictIdle(ConcurrentHashMap<String, AtomicLong> map, long now) {
+        map.values().removeIf(fullAt -> fullAt.get() - now <= 0);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Limit limit : limits.values()) {
+            size += limit.perIp().map.size() + limit.perEmail().map.size();
+        }
+        return size;
+    }
+
+    // The buckets of one endpoint and key type (IP or email), with max-keys each
+    private static final class Buckets {
+        final int perMinute;
+        final long interval;
+        final long window;
+        final ConcurrentHashMap<String, AtomicLong> map = new ConcurrentHashMap<>();
+        final Counter throttled;
+
+        Buckets(MeterRegistry meterRegistry, String endpoint, String key, int perMinute) {
+            this.perMinute = perMinute;
+            this.interval = perMinute > 0 ? MINUTE_NANOS / perMinute : 0;
+            this.window = interval * perMinute;
+            this.throttled = Counter.builder("auth.ratelimit.throttled")
+                    .description("Auth attempts rejected by the rate limiter")
+                    .tag("endpoint", endpoint)
+                    .tag("key", key)
+                    .register(meterRegistry);
+        }
+    }
+
+    private record Limit(Buckets perIp, Buckets perEmail) {
+    }
+}
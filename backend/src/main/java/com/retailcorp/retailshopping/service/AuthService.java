@@ -4,6 +4,7 @@ import com.retailcorp.retailshopping.dto.*;
 import com.retailcorp.retailshopping.entity.Customer;
 import com.retailcorp.retailshopping.repository.CustomerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
@@ -20,9 +21,16 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private EmailBloomFilter emailFilter;
+
     public AuthResponse register(RegisterRequest request) {
-        if (customerRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already registered");
+        // A new email skips the exists query; only a filter "maybe" pays for it
+        if (emailFilter.mightContain(request.getEmail())) {
+            if (customerRepository.existsByEmail(request.getEmail())) {
+                throw new RuntimeException("Email already registered");
+            }
+            emailFilter.recordFalsePositive();
         }
 
         Customer customer = new Customer();
@@ -42,7 +50,17 @@ public class AuthService {
         customer.setCustomerSegment("Standard");
         customer.setLifetimeValue(0.0);
 
-        Customer savedCustomer = customerRepository.save(customer);
+        Customer savedCustomer;
+        try {
+            savedCustomer = customerRepository.save(customer);
+        } catch (DataIntegrityViolationException e) {
+            // The unique constraint is the authority: a concurrent registration, or a row
+            // this instance's filter has not seen yet
+            if (customerRepository.existsByEmail(request.getEmail())) {
+                throw new RuntimeException("Email already registered");
+            }
+            throw e;
+        }
 
         String token = tokenProvider.generateToken(savedCustomer.getEmail());
 
@@ -0,0 +1,247 @@
+package com.retailcorp.retailshopping.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.retailcorp.retailshopping.dto.FacetedSearchResponse;
+import com.retailcorp.retailshopping.dto.ProductResponse;
+import com.retailcorp.retailshopping.dto.ProductSearchFilter;
+import com.retailcorp.retailshopping.repository.CatalogVersion;
+import com.retailcorp.retailshopping.repository.ProductRepository;
+
+import lombok.RequiredArgsConstructor;
+
+// Immutable in-memory copy of the product catalog. Readers never lock; a refresh
+// builds a complete new snapshot and swaps it in atomically. The facet and relevance
+// indexes are carried over when a refresh leaves everything they index alone (stock
+// counts and prices, mostly), and otherwise rebuilt by the first reader that needs them.
+@Component
+@RequiredArgsConstructor
+public class CatalogSnapshot {
+
+    private final ProductRepository productRepository;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    @Value("${catalog.snapshot.enabled:true}")
+    private boolean enabled;
+
+    // At least the longest product-writing transaction, plus any app/DB clock skew
+    @Value("${catalog.snapshot.refresh-overlap-ms:60000}")
+    private long refreshOverlapMs;
+
+    public List<ProductResponse> getProducts() {
+        return snapshot().products();
+    }
+
+    // Strong validator for catalog responses; changes whenever the snapshot does. The content
+    // hash covers a late commit that moves neither max(last_updated) nor the row count.
+    public String getVersionTag() {
+        return snapshot().versionTag();
+    }
+
+    public Optional<ProductResponse> getProduct(Long id) {
+        return Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    // Substring match over name, category, subcategory and brand, ordered by product id
+    public List<ProductResponse> search(String query) {
+        return snapshot().search().search(query);
+    }
+
+    // Text match (or the whole catalog for a blank query) narrowed by the filter, with facet counts
+    public FacetedSearchResponse search(String query, ProductSearchFilter filter) {
+        Snapshot snap = snapshot();
+        List<ProductResponse> hits = query == null || query.isBlank() ? null : snap.search().search(query);
+        return snap.facets().get().search(hits, filter);
+    }
+
+    // Best matches first, tolerating typos; the filter only restricts which products may rank
+    public List<ProductResponse> rank(String query, int limit, ProductSearchFilter filter) {
+        Snapshot snap = snapshot();
+        long[] allowed = filter.isEmpty() ? null : snap.facets().get().matching(filter);
+        return snap.relevance().get().search(query, limit, allowed);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (enabled) {
+            reload();
+            Snapshot snap = current.get();
+            snap.facets().get();
+            snap.relevance().get();
+        }
+    }
+
+    public synchronized void reload() {
+        // Read the version first: a write racing with findAll is picked up again next cycle
+        CatalogVersion version = productRepository.findCatalogVersion();
+        Map<Long, ProductResponse> byId = new HashMap<>();
+        productRepository.findAll().forEach(p -> byId.put(p.getProductId(), ProductService.toResponse(p)));
+        List<ProductResponse> products = sorted(byId);
+        publish(products, byId, version, ProductSearchIndex.build(products),
+                new Lazy<>(() -> ProductFacetIndex.build(products)),
+                new Lazy<>(() -> ProductRelevanceIndex.build(products)));
+    }
+
+    // Polls the last_updated high-water mark and reads rows changed since shortly before it.
+    // last_updated is stamped at flush, not at commit, so a row stamped below the mark can
+    // become visible after a refresh has read past it; re-reading the overlap window every
+    // cycle picks it up. Deletes show up as a row-count mismatch and force a full reload.
+    @Scheduled(
+            initialDelayString = "${catalog.snapshot.refresh-interval-ms:30000}",
+            fixedDelayString = "${catalog.snapshot.refresh-interval-ms:30000}")
+    public synchronized void refreshIfChanged() {
+        Snapshot snap = current.get();
+        if (snap == null) {
+            return; // never used, nothing to keep fresh
+        }
+        CatalogVersion version = productRepository.findCatalogVersion();
+        if (snap.lastUpdated() == null) {
+            reload();
+            return;
+        }
+
+        // Only rows that differ from the snapshot count as changes
+        LocalDateTime since = snap.lastUpdated().minus(Duration.ofMillis(refreshOverlapMs));
+        List<ProductResponse> changed = productRepository.findByLastUpdatedAfter(since)
+                .stream()
+                .map(ProductService::toResponse)
+                .filter(p -> !p.equals(snap.byId().get(p.getProductId())))
+                .toList();
+        if (changed.isEmpty()
+                && Objects.equals(version.getLastUpdated(), snap.lastUpdated())
+                && version.getProductCount() == snap.productCount()) {
+            return;
+        }
+
+        Map<Long, ProductResponse> byId = new HashMap<>(snap.byId());
+        changed.forEach(p -> byId.put(p.getProductId(), p));
+
+        if (byId.size() != version.getProductCount()) {
+            reload();
+            return;
+        }
+        List<ProductResponse> products = sorted(byId);
+        Map<Long, ProductResponse> before = snap.byId();
+        publish(products, byId, version, snap.search().with(changed),
+                carryOver(snap.facets(), products,
+                        changed.stream().allMatch(p -> ProductFacetIndex.coversSame(before.get(p.getProductId()), p)),
+                        ProductFacetIndex::withProducts, ProductFacetIndex::build),
+                carryOver(snap.relevance(), products,
+                        changed.stream().allMatch(p -> ProductRelevanceIndex.coversSame(before.get(p.getProductId()), p)),
+                        ProductRelevanceIndex::withProducts, ProductRelevanceIndex::build));
+    }
+
+    private Snapshot snapshot() {
+        Snapshot snap = current.get();
+        if (snap == null) {
+            loadOnce();
+            snap = current.get();
+        }
+        return snap;
+    }
+
+    // Concurrent first readers queue on the lock; only the first of them loads
+    private synchronized void loadOnce() {
+        if (current.get() == null) {
+            reload();
+        }
+    }
+
+    private static List<ProductResponse> sorted(Map<Long, ProductResponse> byId) {
+        return byId.values().stream()
+                .sorted(Comparator.comparing(ProductResponse::getProductId))
+                .toList();
+    }
+
+    // The previous index, pointed at the new products, when no change touches what it
+    // indexes; otherwise a new one. An index nobody has built yet stays unbuilt.
+    private static <T> Lazy<T> carryOver(Lazy<T> previous, List<ProductResponse> products, boolean unaffected,
+                                         BiFunction<T, List<ProductResponse>, T> rebind,
+                                         Function<List<ProductResponse>, T> build) {
+        if (unaffected && previous.isBuilt()) {
+            return Lazy.of(rebind.apply(previous.get(), products));
+        }
+        return new Lazy<>(() -> build.apply(products));
+    }
+
+    // The indexes travel inside the snapshot, so readers never pair one with another's
+    // older or newer version
+    private void publish(List<ProductResponse> products, Map<Long, ProductResponse> byId, CatalogVersion version,
+                         ProductSearchIndex search, Lazy<ProductFacetIndex> facets,
+                         Lazy<ProductRelevanceIndex> relevance) {
+        current.set(new Snapshot(products, Map.copyOf(byId), search, facets, relevance,
+                version.getLastUpdated(), version.getProductCount(),
+                versionTag(version) + "-" + Integer.toHexString(products.hashCode())));
+    }
+
+    public static String versionTag(CatalogVersion version) {
+        LocalDateTime lastUpdated = version.getLastUpdated();
+        long stamp = lastUpdated == null ? 0 : lastUpdated.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + lastUpdated.getNano();
+        return Long.toHexString(version.getProductCount()) + "-" + Long.toHexString(stamp);
+    }
+
+    private record Snapshot(
+            List<ProductResponse> products,
+            Map<Long, ProductResponse> byId,
+            ProductSearchIndex search,
+            Lazy<ProductFacetIndex> facets,
+            Lazy<ProductRelevanceIndex> relevance,
+            LocalDateTime lastUpdated,
+            long productCount,
+            String versionTag) {
+    }
+
+    // Built once, by the first caller of get(); the others wait for and share that result
+    private static final class Lazy<T> {
+        private Supplier<T> build;
+        private volatile T value;
+
+        Lazy(Supplier<T> build) {
+            this.build = build;
+        }
+
+        static <T> Lazy<T> of(T value) {
+            Lazy<T> lazy = new Lazy<>(null);
+            lazy.value = value;
+            return lazy;
+        }
+
+        T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = build.get();
+                        value = result;
+                        build = null;
+                    }
+                }
+            }
+            return result;
+        }
+
+        boolean isBuilt() {
+            return value != null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.retailcorp.retailshopping.service;
+
+import org.springframework.stereotype.Component;
+
+import com.retailcorp.retailshopping.entity.Customer;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+// JPA listener on Customer: every inserted or changed email goes into the filter, whichever
+// path wrote it. A rolled-back insert only leaves a false positive behind, never a false negative.
+@Component
+@RequiredArgsConstructor
+public class CustomerEmailFilterListener {
+
+    private final EmailBloomFilter emailFilter;
+
+    @PostPersist
+    @PostUpdate
+    public void onCustomerSaved(Customer customer) {
+        emailFilter.put(customer.getEmail());
+    }
+}
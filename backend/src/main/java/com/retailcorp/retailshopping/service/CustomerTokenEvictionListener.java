@@ -0,0 +1,50 @@
+package com.retailcorp.retailshopping.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.retailcorp.retailshopping.entity.Customer;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+// JPA listener on Customer (a Spring bean, via Hibernate's SpringBeanContainer). These fire
+// at flush, so the cache is only touched once the transaction commits: evicting earlier
+// would let a concurrent miss re-cache the old row. An update drops only tokens cached
+// with another email or password hash, so checkout's lifetimeValue save keeps them.
+@Component
+@RequiredArgsConstructor
+public class CustomerTokenEvictionListener {
+
+    private final VerifiedTokenCache tokenCache;
+
+    @PostUpdate
+    public void onCustomerUpdated(Customer customer) {
+        // Copied now: the entity may change again before the commit
+        Long customerId = customer.getCustomerId();
+        String email = customer.getEmail();
+        String passwordHash = customer.getPasswordHash();
+        afterCommit(() -> tokenCache.evictChangedCredentials(customerId, email, passwordHash));
+    }
+
+    @PostRemove
+    public void onCustomerRemoved(Customer customer) {
+        Long customerId = customer.getCustomerId();
+        afterCommit(() -> tokenCache.evictCustomer(customerId));
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,188 @@
+package com.retailcorp.retailshopping.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// Bloom filter over customers.email, so registration can skip the exists query for
+// the common "new email" case. It only ever rules an email out: a "maybe" still asks
+// the database, and the unique constraint stays the authority for races and for rows
+// inserted by other instances. Until the startup load finishes, every email is a "maybe".
+@Slf4j
+@Component
+public class EmailBloomFilter {
+
+    static final String LOAD_SQL =
+            "SELECT customer_id, email FROM customers WHERE customer_id > ? ORDER BY customer_id LIMIT ?";
+
+    // Second hash for double hashing (Kirsch-Mitzenmacher): probe i is h1 + i * h2
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int loadBatchSize;
+    private final long expectedInsertions;
+
+    private final long bitSize;
+    private final int hashCount;
+    private final AtomicLongArray words;
+    private final AtomicLong bitsSet = new AtomicLong();
+
+    private volatile boolean loaded;
+
+    private final Counter absent;
+    private final Counter maybe;
+    private final Counter falsePositives;
+
+    public EmailBloomFilter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                            @Value("${auth.email-filter.enabled:true}") boolean enabled,
+                            @Value("${auth.email-filter.expected-insertions:100000}") long expectedInsertions,
+                            @Value("${auth.email-filter.fpp:0.01}") double fpp,
+                            @Value("${auth.email-filter.load-batch-size:10000}") int loadBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+        this.expectedInsertions = expectedInsertions;
+
+        // m = -n ln p / (ln 2)^2 bits and k = m/n ln 2 hashes; 100k at 1% is ~117 KiB, k = 7.
+        // Allocated up front whatever the table holds, so size it to the customer count.
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bitSize = enabled ? Math.max(64, (bits + 63) / 64 * 64) : 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        this.words = new AtomicLongArray(Math.toIntExact(bitSize / 64));
+
+        Gauge.builder("auth.email.filter.fpp", this, EmailBloomFilter::expectedFpp)
+                .description("Expected false-positive rate at the current fill")
+                .register(meterRegistry);
+        absent = Counter.builder("auth.email.filter").tag("result", "absent").register(meterRegistry);
+        maybe = Counter.builder("auth.email.filter").tag("result", "maybe").register(meterRegistry);
+        falsePositives = Counter.builder("auth.email.filter.false.positives")
+                .description("\"Maybe\" answers the exists query then ruled out")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                load();
+            } catch (DataAccessException e) {
+                log.warn("Email filter load failed, registration keeps querying: {}",
+                        e.getMostSpecificCause().getMessage());
+            }
+        }, "email-filter-load");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Walks customers by id in batches; inserts that race with the load go through put()
+    public long load() {
+        long count = 0;
+        long[] after = {0};
+        int fetched;
+        do {
+            int[] rows = {0};
+            jdbcTemplate.query(LOAD_SQL, (RowCallbackHandler) rs -> {
+                after[0] = rs.getLong(1);
+                put(rs.getString(2));
+                rows[0]++;
+            }, after[0], loadBatchSize);
+            fetched = rows[0];
+            count += fetched;
+        } while (fetched == loadBatchSize);
+        loaded = true;
+        log.info("Email filter loaded {} emails, expected false-positive rate {}", count, expectedFpp());
+        if (count > expectedInsertions) {
+            log.warn("Email filter holds {} emails but was sized for {}; raise auth.email-filter.expected-insertions",
+                    count, expectedInsertions);
+        }
+        return count;
+    }
+
+    public boolean mightContain(String email) {
+        if (!enabled || !loaded || email == null) {
+            return true;
+        }
+        long h1 = hash(email);
+        long h2 = mix(h1 ^ SEED) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                absent.increment();
+                return false;
+            }
+        }
+        maybe.increment();
+        return true;
+    }
+
+    public void put(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        long h1 = hash(email);
+        long h2 = mix(h1 ^ SEED) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = words.get(index);
+                if ((word & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(index, word, word | mask));
+            if ((word & mask) == 0) {
+                bitsSet.incrementAndGet();
+            }
+        }
+    }
+
+    // Called when a "maybe" turned out not to be registered
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // (fraction of bits set)^k
+    public double expectedFpp() {
+        return Math.pow((double) bitsSet.get() / bitSize, hashCount);
+    }
+
+    // FNV-1a over the chars, finished with the murmur3 mixer for avalanche
+    private static long hash(String s) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,139 @@
+package com.retailcorp.retailshopping.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailcorp.retailshopping.dto.EventLoadResult;
+import com.retailcorp.retailshopping.entity.CustomerEvent;
+import com.retailcorp.retailshopping.exception.BadRequestException;
+import com.retailcorp.retailshopping.repository.CustomerEventRepository;
+import com.retailcorp.retailshopping.util.EventFieldExtractor;
+
+import lombok.RequiredArgsConstructor;
+
+// Replays NDJSON event files into customer_events with COPY. One line per event:
+//   {"customerId": 42, "eventTimestamp": "2026-10-17T09:15:00", "eventData": {...}}
+// eventTimestamp defaults to the load time. Lines are parsed as COPY pulls them,
+// so a file is never held in memory; any bad line aborts the whole load.
+@Service
+@RequiredArgsConstructor
+public class EventBulkLoader {
+
+    private final CustomerEventRepository eventRepository;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Value("${events.load.chunk-rows:10000}")
+    private int chunkRows;
+
+    @Value("${events.load.upload-enabled:false}")
+    private boolean uploadEnabled;
+
+    public boolean isUploadEnabled() {
+        return uploadEnabled;
+    }
+
+    // Names ending in .gz are gunzipped on the fly
+    public EventLoadResult load(InputStream in, String name) throws IOException {
+        InputStream source = name != null && name.endsWith(".gz") ? new GZIPInputStream(in, 64 * 1024) : in;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(source, StandardCharsets.UTF_8), 64 * 1024);
+
+        long start = System.nanoTime();
+        long rows;
+        try {
+            rows = eventRepository.copyIn(new LineEvents(reader, LocalDateTime.now()), chunkRows);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return EventLoadResult.builder()
+                .rows(rows)
+                .elapsedMs(elapsedMs)
+                .rowsPerSecond(rows * 1000 / elapsedMs)
+                .build();
+    }
+
+    private CustomerEvent parse(String line, int lineNumber, LocalDateTime loadTime) {
+        try {
+            JsonNode node = mapper.readTree(line);
+            if (node == null || !node.isObject()) {
+                throw new BadRequestException("Line " + lineNumber + ": expected a JSON object");
+            }
+            JsonNode customerId = node.get("customerId");
+            if (customerId == null || !customerId.canConvertToLong()) {
+                throw new BadRequestException("Line " + lineNumber + ": customerId is required");
+            }
+            JsonNode timestamp = node.get("eventTimestamp");
+            JsonNode data = node.get("eventData");
+
+            CustomerEvent event = new CustomerEvent();
+            event.setCustomerId(customerId.asLong());
+            event.setEventTimestamp(timestamp == null || timestamp.isNull()
+                    ? loadTime
+                    : LocalDateTime.parse(timestamp.asText()));
+            event.setEventData(data == null || data.isNull() ? null : data.toString());
+            EventFieldExtractor.apply(event, data);
+            event.setLoadTimestamp(loadTime);
+            return event;
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Line " + lineNumber + ": malformed JSON: " + e.getOriginalMessage());
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Line " + lineNumber + ": invalid eventTimestamp");
+        }
+    }
+
+    // Reads ahead one non-blank line so hasNext() is exact
+    private final class LineEvents implements Iterator<CustomerEvent> {
+        private final BufferedReader reader;
+        private final LocalDateTime loadTime;
+        private String next;
+        private int lineNumber;
+
+        LineEvents(BufferedReader reader, LocalDateTime loadTime) {
+            this.reader = reader;
+            this.loadTime = loadTime;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public CustomerEvent next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            CustomerEvent event = parse(next, lineNumber, loadTime);
+            advance();
+            return event;
+        }
+
+        private void advance() {
+            try {
+                do {
+                    next = reader.readLine();
+                    lineNumber++;
+                } while (next != null && next.isBlank());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
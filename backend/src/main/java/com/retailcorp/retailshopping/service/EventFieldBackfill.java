@@ -0,0 +1,87 @@
+package com.retailcorp.retailshopping.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Fills event_type / product_id / session_id on rows written before those columns
+// existed. Walks customer_events by event_id in batches, one short UPDATE (and
+// transaction) per batch, so it can run next to live traffic and be restarted at will.
+// The SQL mirrors EventFieldExtractor: both key spellings, scalars only, numeric product ids.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventFieldBackfill {
+
+    static final String NEXT_BOUND_SQL = "SELECT max(event_id) FROM ("
+            + "SELECT event_id FROM customer_events WHERE event_id > ? ORDER BY event_id LIMIT ?) batch";
+
+    static final String UPDATE_SQL = "UPDATE customer_events SET "
+            + "event_type = " + text("event_type", "eventType") + ", "
+            + "product_id = " + id("product_id", "productId") + ", "
+            + "session_id = " + text("session_id", "sessionId") + " "
+            + "WHERE event_id > ? AND event_id <= ? AND event_data IS NOT NULL "
+            + "AND event_type IS NULL AND product_id IS NULL AND session_id IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${events.backfill.enabled:false}")
+    private boolean enabled;
+
+    @Value("${events.backfill.batch-size:5000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                backfill();
+            } catch (DataAccessException e) {
+                log.warn("Event field backfill stopped: {}", e.getMostSpecificCause().getMessage());
+            }
+        }, "event-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Returns the number of rows updated
+    public long backfill() {
+        long updated = 0;
+        long after = 0;
+        while (true) {
+            Long upTo = jdbcTemplate.queryForObject(NEXT_BOUND_SQL, Long.class, after, batchSize);
+            if (upTo == null) {
+                break;
+            }
+            updated += jdbcTemplate.update(UPDATE_SQL, after, upTo);
+            log.debug("Backfilled event fields up to event_id {}", upTo);
+            after = upTo;
+        }
+        log.info("Event field backfill finished, {} rows updated", updated);
+        return updated;
+    }
+
+    // Scalar values of at most 100 characters, as EventFieldExtractor keeps them
+    private static String text(String key, String alias) {
+        return "(SELECT v #>> '{}' FROM (SELECT " + value(key, alias) + " AS v) f "
+                + "WHERE jsonb_typeof(v) IN ('string', 'number') AND length(v #>> '{}') BETWEEN 1 AND 100)";
+    }
+
+    private static String id(String key, String alias) {
+        return "(SELECT (v #>> '{}')::bigint FROM (SELECT " + value(key, alias) + " AS v) f "
+                + "WHERE jsonb_typeof(v) IN ('string', 'number') AND (v #>> '{}') ~ '^[0-9]{1,18}$')";
+    }
+
+    private static String value(String key, String alias) {
+        return "COALESCE(event_data -> '" + key + "', event_data -> '" + alias + "')";
+    }
+}
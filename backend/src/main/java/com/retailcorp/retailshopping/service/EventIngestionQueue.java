@@ -0,0 +1,196 @@
+package com.retailcorp.retailshopping.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.retailcorp.retailshopping.entity.CustomerEvent;
+import com.retailcorp.retailshopping.exception.EventQueueFullException;
+import com.retailcorp.retailshopping.repository.CustomerEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+// Bounded hand-off between request threads and a single writer. The writer takes
+// whatever is queued, waits up to flushIntervalMs for a batch to fill, and inserts
+// it in one statement. A full queue rejects instead of blocking the caller.
+@Slf4j
+@Component
+public class EventIngestionQueue implements SmartLifecycle {
+
+    private final CustomerEventRepository eventRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long shutdownTimeoutMs;
+    private final BlockingQueue<CustomerEvent> queue;
+
+    private final DistributionSummary batchSizes;
+    private final Timer writeTimer;
+    private final Counter rejected;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public EventIngestionQueue(CustomerEventRepository eventRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${events.ingest.async:false}") boolean enabled,
+                               @Value("${events.ingest.queue-capacity:10000}") int capacity,
+                               @Value("${events.ingest.batch-size:500}") int batchSize,
+                               @Value("${events.ingest.flush-interval-ms:50}") long flushIntervalMs,
+                               @Value("${events.ingest.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        this.eventRepository = eventRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        Gauge.builder("events.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Events accepted but not yet written")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("events.ingest.batch.size")
+                .description("Events per insert")
+                .register(meterRegistry);
+        writeTimer = Timer.builder("events.ingest.batch.write").register(meterRegistry);
+        rejected = Counter.builder("events.ingest.rejected")
+                .description("Events refused because the queue was full")
+                .register(meterRegistry);
+        dropped = Counter.builder("events.ingest.dropped")
+                .description("Events lost to a failed insert")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void submit(CustomerEvent event) {
+        if (!running || !queue.offer(event)) {
+            rejected.increment();
+            throw new EventQueueFullException("Event queue is full, retry later");
+        }
+        // stop() may have finished its final drain between the check and the offer. Take the
+        // event back unless a drain already has it, in which case it is being written.
+        if (!running && queue.remove(event)) {
+            rejected.increment();
+            throw new EventQueueFullException("Event queue is full, retry later");
+        }
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // New events are refused from here on; whatever was accepted is still written
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Event writer did not finish within {} ms, {} events not written",
+                    shutdownTimeoutMs, queue.size());
+            return;
+        }
+        // Offers that raced with the flag; later ones are taken back by submit
+        flushRemaining();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Starts before and stops after the web server (graceful shutdown included), so requests
+    // still in flight are accepted and written; stops before the DataSource and JPA beans go
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    private void drain() {
+        List<CustomerEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                CustomerEvent first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flushRemaining() {
+        List<CustomerEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    // Tops the batch up until it is full or the flush interval since its first event has passed
+    private void fill(List<CustomerEvent> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            CustomerEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<CustomerEvent> batch) {
+        batchSizes.record(batch.size());
+        try {
+            writeTimer.record(() -> eventRepository.insertAll(batch));
+        } catch (RuntimeException e) {
+            dropped.increment(batch.size());
+            log.error("Failed to write {} customer events", batch.size(), e);
+        }
+    }
+}
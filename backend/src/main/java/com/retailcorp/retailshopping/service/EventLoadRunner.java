@@ -0,0 +1,61 @@
+package com.retailcorp.retailshopping.service;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.retailcorp.retailshopping.dto.EventLoadResult;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Command-line bulk load from the application jar:
+//   java -jar retail-shopping.jar --events.load.file=events.ndjson.gz
+// EventLoadEnvironmentPostProcessor turns off schema.sql and the web server for this run.
+// Loads the file, then RetailApplication.main shuts down with exit code 0, or 1 on failure.
+@Slf4j
+@Component
+@ConditionalOnProperty("events.load.file")
+@RequiredArgsConstructor
+public class EventLoadRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private final EventBulkLoader bulkLoader;
+
+    @Value("${events.load.file}")
+    private Path file;
+
+    @Value("${events.load.exit:true}")
+    private boolean exit;
+
+    private int exitCode;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try (InputStream in = Files.newInputStream(file)) {
+            EventLoadResult result = bulkLoader.load(in, file.getFileName().toString());
+            log.info("Loaded {} events from {} in {} ms ({} rows/s)",
+                    result.getRows(), file, result.getElapsedMs(), result.getRowsPerSecond());
+            exitCode = 0;
+        } catch (Exception e) {
+            log.error("Event load from {} failed", file, e);
+            exitCode = 1;
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    // Whether main should close the context and exit once the load is done
+    public boolean exitsWhenDone() {
+        return exit;
+    }
+}
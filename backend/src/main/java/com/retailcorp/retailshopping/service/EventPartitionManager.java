@@ -0,0 +1,182 @@
+package com.retailcorp.retailshopping.service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Keeps customer_events' range partitions rolling: makes sure the current period and
+// the next `premake` periods have a partition, and detaches or drops partitions that
+// ended more than `retention` periods ago. Only partitions it names itself
+// (customer_events_pYYYYMM or _pYYYYMMDD) are ever retired.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventPartitionManager {
+
+    static final String TABLE = "customer_events";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_p(\\d{6}|\\d{8})");
+
+    private static final Pattern BOUND = Pattern.compile(
+            "FOR VALUES FROM \\((MINVALUE|'(\\d{4}-\\d{2}-\\d{2})[^']*')\\) "
+                    + "TO \\((MAXVALUE|'(\\d{4}-\\d{2}-\\d{2})(?: (\\d{2}:\\d{2}(?::\\d{2})?)[^']*)?')\\)");
+
+    private static final DateTimeFormatter MONTHLY = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final DateTimeFormatter DAILY = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    @Value("${events.partitions.enabled:true}")
+    private boolean enabled;
+
+    // monthly or daily
+    @Value("${events.partitions.interval:monthly}")
+    private String interval;
+
+    @Value("${events.partitions.premake:3}")
+    private int premake;
+
+    // Periods to keep before the current one; 0 keeps everything
+    @Value("${events.partitions.retention:0}")
+    private int retention;
+
+    // detach leaves the table in place for archiving; drop deletes it
+    @Value("${events.partitions.expire-action:detach}")
+    private String expireAction;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${events.partitions.cron:0 15 0 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        if (!isPartitioned()) {
+            log.info("{} is not partitioned, skipping partition maintenance", TABLE);
+            return;
+        }
+        boolean daily = isDaily();
+        ChronoUnit unit = daily ? ChronoUnit.DAYS : ChronoUnit.MONTHS;
+        LocalDate current = daily ? LocalDate.now(clock) : LocalDate.now(clock).withDayOfMonth(1);
+        List<Range> existing = existingPartitions();
+
+        for (int i = 0; i <= premake; i++) {
+            LocalDate from = current.plus(i, unit);
+            Range range = new Range(partitionName(from, daily), from, from.plus(1, unit));
+            // Never overlap an existing partition: one made under the other interval
+            // setting, or the legacy table of the partitioning migration
+            if (existing.stream().noneMatch(r -> r.overlaps(range))) {
+                create(range);
+                existing.add(range);
+            }
+        }
+
+        if (retention > 0) {
+            LocalDate cutoff = current.minus(retention, unit);
+            existing.stream()
+                    .filter(r -> PARTITION_NAME.matcher(r.name()).matches())
+                    .filter(r -> !r.to().isAfter(cutoff))
+                    .forEach(this::expire);
+        }
+    }
+
+    private boolean isDaily() {
+        String value = interval.toLowerCase(Locale.ROOT);
+        if (!value.equals("daily") && !value.equals("monthly")) {
+            throw new IllegalStateException("events.partitions.interval must be daily or monthly, not " + interval);
+        }
+        return value.equals("daily");
+    }
+
+    // ddl-auto schemas (tests) create a plain table; there is nothing to manage then
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_partitioned_table WHERE partrelid = to_regclass(?)",
+                Integer.class, TABLE);
+        return count != null && count > 0;
+    }
+
+    // Bounds come from the catalog rather than the names, so partitions this class did not
+    // create (the legacy table of db/customer-events-partitioning.sql) are never overlapped
+    private List<Range> existingPartitions() {
+        List<Range> ranges = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?)",
+                (RowCallbackHandler) rs -> {
+                    Range range = toRange(rs.getString(1), rs.getString(2));
+                    if (range != null) {
+                        ranges.add(range);
+                    }
+                }, TABLE);
+        return ranges;
+    }
+
+    // Parses "FOR VALUES FROM ('2026-10-01 00:00:00') TO (...)"; null for the default partition
+    private static Range toRange(String name, String bound) {
+        Matcher m = BOUND.matcher(bound == null ? "" : bound);
+        if (!m.matches()) {
+            return null;
+        }
+        LocalDate from = m.group(1).equals("MINVALUE") ? LocalDate.MIN : LocalDate.parse(m.group(2));
+        LocalDate to = m.group(3).equals("MAXVALUE") ? LocalDate.MAX : LocalDate.parse(m.group(4));
+        // A bound that is not at midnight still covers part of that day
+        if (m.group(5) != null && !m.group(5).matches("00:00(:00)?")) {
+            to = to.plusDays(1);
+        }
+        return new Range(name, from, to);
+    }
+
+    private void create(Range range) {
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + range.name() + " PARTITION OF " + TABLE
+                    + " FOR VALUES FROM ('" + range.from() + "') TO ('" + range.to() + "')");
+            log.info("Created partition {} [{}, {})", range.name(), range.from(), range.to());
+        } catch (DataAccessException e) {
+            // Typically rows for this range already sit in the default partition
+            log.warn("Could not create partition {}: {}", range.name(), e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private void expire(Range range) {
+        boolean drop = "drop".equalsIgnoreCase(expireAction);
+        try {
+            jdbcTemplate.execute(drop
+                    ? "DROP TABLE " + range.name()
+                    : "ALTER TABLE " + TABLE + " DETACH PARTITION " + range.name());
+            log.info("{} expired partition {}", drop ? "Dropped" : "Detached", range.name());
+        } catch (DataAccessException e) {
+            log.warn("Could not expire partition {}: {}", range.name(), e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private static String partitionName(LocalDate from, boolean daily) {
+        return TABLE + "_p" + (daily ? DAILY : MONTHLY).format(from);
+    }
+
+    // A partition's [from, to) bounds, widened to whole days
+    private record Range(String name, LocalDate from, LocalDate to) {
+        boolean overlaps(Range other) {
+            return from.isBefore(other.to) && other.from.isBefore(to);
+        }
+    }
+}
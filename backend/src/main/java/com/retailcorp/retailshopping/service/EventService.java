@@ -1,17 +1,42 @@
 package com.retailcorp.retailshopping.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.retailcorp.retailshopping.dto.CustomerEventRequest;
 import com.retailcorp.retailshopping.dto.CustomerEventResponse;
+import com.retailcorp.retailshopping.dto.EventBatchResponse;
+import com.retailcorp.retailshopping.dto.EventHistoryFilter;
+import com.retailcorp.retailshopping.dto.EventLineResult;
+import com.retailcorp.retailshopping.dto.EventPage;
+import com.retailcorp.retailshopping.dto.EventSearchRequest;
 import com.retailcorp.retailshopping.entity.CustomerEvent;
+import com.retailcorp.retailshopping.exception.BadRequestException;
 import com.retailcorp.retailshopping.repository.CustomerEventRepository;
+import com.retailcorp.retailshopping.util.BoundedLineReader;
+import com.retailcorp.retailshopping.util.EventFieldExtractor;
 
 import lombok.RequiredArgsConstructor;
 
@@ -19,29 +44,290 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class EventService {
 
+    private static final String ACCEPTED = "accepted";
+    private static final String REJECTED = "rejected";
+
     private final CustomerEventRepository eventRepository;
+    private final EventIngestionQueue ingestionQueue;
     private final ObjectMapper mapper = new ObjectMapper();
 
+    // Copy stored event_data into responses as-is rather than parsing it into a map
+    @Value("${events.read.raw-json:true}")
+    private boolean rawJson;
+
+    @Value("${events.history.page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${events.history.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${events.search.page-size:100}")
+    private int defaultSearchSize;
+
+    @Value("${events.search.max-page-size:1000}")
+    private int maxSearchSize;
+
+    @Value("${events.search.max-keys:8}")
+    private int maxSearchKeys;
+
+    @Value("${events.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    @Value("${events.batch.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${events.batch.max-lines:10000}")
+    private int maxLines;
+
+    @Value("${events.batch.max-line-bytes:65536}")
+    private int maxLineBytes;
+
     public CustomerEventResponse logEvent(CustomerEventRequest req) {
         CustomerEvent event = toEntity(req);
         CustomerEvent saved = eventRepository.save(event);
         return toResponse(saved);
     }
 
-    public List<CustomerEventResponse> getEventsForCustomer(Long customerId) {
-        return eventRepository.findByCustomerIdOrderByEventTimestampDesc(customerId).stream()
+    public boolean isAsyncIngest() {
+        return ingestionQueue.isEnabled();
+    }
+
+    // Validates and serializes on the caller's thread; the insert happens later in a batch
+    public void enqueueEvent(CustomerEventRequest req) {
+        if (req.getCustomerId() == null) {
+            throw new BadRequestException("customerId is required");
+        }
+        ingestionQueue.submit(toEntity(req));
+    }
+
+    // Reads newline-delimited events one line at a time and inserts the valid ones in
+    // chunks, so the body is never bound as a whole. A bad line is reported, not fatal;
+    // so is one longer than max-line-bytes, which is skipped without being buffered.
+    public EventBatchResponse ingestBatch(InputStream body) throws IOException {
+        List<EventLineResult> results = new ArrayList<>();
+        List<CustomerEvent> chunk = new ArrayList<>(chunkSize);
+        List<EventLineResult> pending = new ArrayList<>(chunkSize);
+        int records = 0;
+        boolean truncated = false;
+
+        BoundedLineReader reader = new BoundedLineReader(body, maxLineBytes);
+        int lineNumber = 0;
+        while (reader.next()) {
+            lineNumber++;
+            String line = reader.text();
+            if (line != null && line.isBlank()) {
+                continue;
+            }
+            if (++records > maxLines) {
+                truncated = true;
+                break;
+            }
+            EventLineResult result = EventLineResult.builder().line(lineNumber).build();
+            results.add(result);
+            if (line == null) {
+                reject(result, "Line exceeds " + maxLineBytes + " bytes");
+                continue;
+            }
+            try {
+                chunk.add(toEntity(parseLine(line)));
+                pending.add(result);
+            } catch (BadRequestException e) {
+                reject(result, e.getMessage());
+                continue;
+            }
+            if (chunk.size() == chunkSize) {
+                flush(chunk, pending);
+            }
+        }
+        flush(chunk, pending);
+
+        int accepted = (int) results.stream().filter(r -> ACCEPTED.equals(r.getStatus())).count();
+        return EventBatchResponse.builder()
+                .accepted(accepted)
+                .rejected(results.size() - accepted)
+                .truncated(truncated)
+                .results(results)
+                .build();
+    }
+
+    // Newest first, keyset-paged: the cursor is the (eventTimestamp, eventId) of the
+    // last event returned, so each page costs the same however long the history is
+    public EventPage getEventsForCustomer(Long customerId, EventHistoryFilter filter,
+                                          Integer limit, String cursor) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BadRequestException("limit must be between 1 and " + maxPageSize);
+        }
+        if (filter.getFrom() != null && filter.getTo() != null && !filter.getFrom().isBefore(filter.getTo())) {
+            throw new BadRequestException("from must be before to");
+        }
+        LocalDateTime beforeTimestamp = null;
+        Long beforeId = null;
+        if (cursor != null) {
+            String[] position = decodeCursor(cursor);
+            beforeTimestamp = LocalDateTime.parse(position[0]);
+            beforeId = Long.valueOf(position[1]);
+        }
+
+        List<CustomerEvent> rows = eventRepository.findHistoryPage(
+                customerId, filter, beforeTimestamp, beforeId, pageSize + 1);
+        boolean more = rows.size() > pageSize;
+        List<CustomerEvent> events = more ? rows.subList(0, pageSize) : rows;
+        return EventPage.builder()
+                .items(events.stream().map(this::toResponse).toList())
+                .nextCursor(more ? encodeCursor(events.get(pageSize - 1)) : null)
+                .build();
+    }
+
+    // The filter becomes one jsonb @> containment predicate, answered by the GIN index on
+    // event_data. Only flat key/value filters are accepted so every search stays index-backed.
+    public List<CustomerEventResponse> searchEvents(EventSearchRequest req) {
+        Map<String, Object> filter = req.getEventData();
+        if (filter == null || filter.isEmpty()) {
+            throw new BadRequestException("eventData filter is required");
+        }
+        if (filter.size() > maxSearchKeys) {
+            throw new BadRequestException("At most " + maxSearchKeys + " eventData keys can be filtered on");
+        }
+        filter.forEach((key, value) -> {
+            if (key.isBlank()) {
+                throw new BadRequestException("eventData filter keys must not be blank");
+            }
+            if (!(value instanceof String) && !(value instanceof Number) && !(value instanceof Boolean)) {
+                throw new BadRequestException("Filter value for '" + key + "' must be a string, number or boolean");
+            }
+        });
+        int limit = req.getLimit() == null ? defaultSearchSize : req.getLimit();
+        if (limit < 1 || limit > maxSearchSize) {
+            throw new BadRequestException("limit must be between 1 and " + maxSearchSize);
+        }
+        if (req.getFrom() != null && req.getTo() != null && !req.getFrom().isBefore(req.getTo())) {
+            throw new BadRequestException("from must be before to");
+        }
+
+        return eventRepository.searchByEventData(mapToJson(filter), req.getCustomerId(),
+                        req.getFrom(), req.getTo(), limit)
+                .stream()
                 .map(this::toResponse)
                 .toList();
     }
 
+    // Writes the whole history as NDJSON while rows arrive from the cursor; nothing is
+    // collected, and event_data is copied through verbatim
+    @Transactional(readOnly = true)
+    public long exportEvents(Long customerId, OutputStream out) throws IOException {
+        long rows = 0;
+        try (Stream<CustomerEvent> events = eventRepository.streamHistory(customerId, exportFetchSize);
+             JsonGenerator json = mapper.getFactory().createGenerator(out)) {
+            json.setRootValueSeparator(null);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            for (Iterator<CustomerEvent> it = events.iterator(); it.hasNext(); rows++) {
+                writeNdjson(json, it.next());
+            }
+        }
+        return rows;
+    }
+
+    private static void writeNdjson(JsonGenerator json, CustomerEvent e) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("eventId", e.getEventId());
+        if (e.getCustomerId() != null) {
+            json.writeNumberField("customerId", e.getCustomerId());
+        }
+        writeTimestamp(json, "eventTimestamp", e.getEventTimestamp());
+        json.writeFieldName("eventData");
+        String data = e.getEventData();
+        if (data == null || data.isBlank()) {
+            json.writeRawValue("{}");
+        } else {
+            json.writeRawValue(data);
+        }
+        writeTimestamp(json, "loadTimestamp", e.getLoadTimestamp());
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeTimestamp(JsonGenerator json, String field, LocalDateTime value) throws IOException {
+        if (value != null) {
+            json.writeStringField(field, DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        }
+    }
+
+    private static String encodeCursor(CustomerEvent last) {
+        String position = last.getEventTimestamp() + "," + last.getEventId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",");
+            if (position.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private CustomerEventRequest parseLine(String line) {
+        CustomerEventRequest req;
+        try (JsonParser parser = mapper.getFactory().createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new BadRequestException("Expected a JSON object");
+            }
+            req = mapper.readValue(parser, CustomerEventRequest.class);
+            if (parser.nextToken() != null) {
+                throw new BadRequestException("Unexpected content after the JSON object");
+            }
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Malformed JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new BadRequestException("Malformed JSON: " + e.getMessage());
+        }
+        if (req.getCustomerId() == null) {
+            throw new BadRequestException("customerId is required");
+        }
+        return req;
+    }
+
+    // One multi-row insert per chunk; if it fails, every line in the chunk is rejected
+    private void flush(List<CustomerEvent> chunk, List<EventLineResult> pending) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            eventRepository.insertAll(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                pending.get(i).setStatus(ACCEPTED);
+                pending.get(i).setEventId(chunk.get(i).getEventId());
+            }
+        } catch (DataAccessException e) {
+            pending.forEach(r -> reject(r, "Failed to store event"));
+        }
+        chunk.clear();
+        pending.clear();
+    }
+
+    private static void reject(EventLineResult result, String error) {
+        result.setStatus(REJECTED);
+        result.setError(error);
+    }
+
     private CustomerEventResponse toResponse(CustomerEvent e) {
-        return CustomerEventResponse.builder()
+        CustomerEventResponse.CustomerEventResponseBuilder response = CustomerEventResponse.builder()
                 .eventId(e.getEventId())
                 .customerId(e.getCustomerId())
                 .eventTimestamp(e.getEventTimestamp())
-                .eventData(jsonToMap(e.getEventData()))
-                .loadTimestamp(e.getLoadTimestamp())
-                .build();
+                .loadTimestamp(e.getLoadTimestamp());
+        // jsonb only ever holds valid JSON, so it can be trusted verbatim
+        String json = e.getEventData();
+        if (rawJson && json != null && !json.isBlank()) {
+            return response.rawEventData(json).build();
+        }
+        return response.eventData(jsonToMap(json)).build();
     }
 
     private CustomerEvent toEntity(CustomerEventRequest req) {
@@ -49,6 +335,7 @@ public class EventService {
         event.setCustomerId(req.getCustomerId());
         event.setEventTimestamp(LocalDateTime.now());
         event.setEventData(mapToJson(req.getEventData()));
+        EventFieldExtractor.apply(event, req.getEventData());
         event.setLoadTimestamp(LocalDateTime.now());
         return event;
     }
@@ -2,14 +2,17 @@ package com.retailcorp.retailshopping.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.retailcorp.retailshopping.dto.OrderItemRequest;
 import com.retailcorp.retailshopping.dto.OrderItemResponse;
 import com.retailcorp.retailshopping.dto.OrderRequest;
 import com.retailcorp.retailshopping.dto.OrderResponse;
+import com.retailcorp.retailshopping.dto.ProductResponse;
 import com.retailcorp.retailshopping.entity.Customer;
 import com.retailcorp.retailshopping.entity.CustomerEvent;
 import com.retailcorp.retailshopping.entity.Order;
@@ -31,7 +34,8 @@ public class OrderService {
     private final CustomerRepository customerRepository;
     private final CustomerEventRepository eventRepository;
 
-    // Checkout method
+    // Checkout method; stock reservation, order and lifetime value commit or roll back together
+    @Transactional
     public OrderResponse placeOrder(OrderRequest request) {
 
         if (request.getItems() == null || request.getItems().isEmpty()) {
@@ -47,6 +51,12 @@ public class OrderService {
         order.setOrderDate(LocalDateTime.now());
         order.setOrderStatus("Processing");
 
+        // Resolve every product in the cart with one query
+        Map<Long, ProductResponse> products = productService.getProductsByIds(
+                order.getItems().stream()
+                        .map(OrderItem::getProductId)
+                        .collect(Collectors.toSet()));
+
         // Calculate item totals
         order.getItems().forEach(item -> {
             item.setOrder(order);
@@ -55,7 +65,12 @@ public class OrderService {
                 throw new InvalidOrderException("Item quantity must be greater than zero.");
             }
 
-            Double unitPrice = productService.getProductById(item.getProductId()).getUnitPrice();
+            ProductResponse product = products.get(item.getProductId());
+            if (product == null) {
+                throw new InvalidOrderException("Product not found with ID: " + item.getProductId());
+            }
+
+            Double unitPrice = product.getUnitPrice();
             if (unitPrice == null) {
                 throw new InvalidOrderException("Product price missing for product ID: " + item.getProductId());
             }
@@ -70,6 +85,10 @@ public class OrderService {
 
         order.setTotalAmount(totalAmount);
 
+        // Lines for the same product are reserved as one
+        productService.reserveStock(order.getItems().stream()
+                .collect(Collectors.toMap(OrderItem::getProductId, OrderItem::getQuantity, Integer::sum)));
+
         // Save order
         Order savedOrder = orderRepository.save(order);
 
@@ -87,14 +106,22 @@ public class OrderService {
         );
         eventRepository.save(event);
 
-        return toResponse(savedOrder);
+        return toResponse(savedOrder, products);
     }
 
     // Get all orders for a customer
     public List<OrderResponse> findByCustomerId(Long customerId) {
-        return orderRepository.findByCustomerId(customerId)
-                .stream()
-                .map(this::toResponse)
+        List<Order> orders = orderRepository.findByCustomerId(customerId);
+
+        // Resolve product names for every order with one query
+        Map<Long, ProductResponse> products = productService.getProductsByIds(
+                orders.stream()
+                        .flatMap(order -> order.getItems().stream())
+                        .map(OrderItem::getProductId)
+                        .collect(Collectors.toSet()));
+
+        return orders.stream()
+                .map(order -> toResponse(order, products))
                 .collect(Collectors.toList());
     }
 
@@ -118,7 +145,7 @@ public class OrderService {
     }
 
     // Convert Entity -> DTO
-    private OrderResponse toResponse(Order order) {
+    private OrderResponse toResponse(Order order, Map<Long, ProductResponse> products) {
         return OrderResponse.builder()
                 .orderId(order.getOrderId())
                 .customerId(order.getCustomerId())
@@ -128,15 +155,16 @@ public class OrderService {
                 .paymentMethod(order.getPaymentMethod())
                 .shippingAddress(order.getShippingAddress())
                 .items(order.getItems().stream()
-                        .map(this::toOrderItemResponse)
+                        .map(item -> toOrderItemResponse(item, products))
                         .collect(Collectors.toList()))
                 .build();
     }
 
-    private OrderItemResponse toOrderItemResponse(OrderItem item) {
+    private OrderItemResponse toOrderItemResponse(OrderItem item, Map<Long, ProductResponse> products) {
+        ProductResponse product = products.get(item.getProductId());
         return OrderItemResponse.builder()
                 .productId(item.getProductId())
-                .productName(productService.getProductById(item.getProductId()).getProductName())
+                .productName(product != null ? product.getProductName() : null)
                 .quantity(item.getQuantity())
                 .unitPrice(item.getUnitPrice())
                 .discountPercent(item.getDiscountPercent())
@@ -0,0 +1,338 @@
+package com.retailcorp.retailshopping.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import com.retailcorp.retailshopping.dto.FacetedSearchResponse;
+import com.retailcorp.retailshopping.dto.ProductResponse;
+import com.retailcorp.retailshopping.dto.ProductSearchFilter;
+import com.retailcorp.retailshopping.service.ProductSearchIndex.IntList;
+
+// Immutable facet index over a product list. Products are numbered by their
+// position in id order; every distinct category, subcategory and brand keeps a
+// bitmap of positions, stored as a sorted position array while sparse and as
+// 64-bit words once dense. Prices are kept sorted so a range is two binary
+// searches. Filters become word-wise ANDs and facet counts become popcounts.
+public final class ProductFacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String SUBCATEGORY = "subcategory";
+    public static final String BRAND = "brand";
+
+    private static final List<Dimension> DIMENSIONS = List.of(
+            new Dimension(CATEGORY, ProductResponse::getCategory, ProductSearchFilter::getCategories),
+            new Dimension(SUBCATEGORY, ProductResponse::getSubcategory, ProductSearchFilter::getSubcategories),
+            new Dimension(BRAND, ProductResponse::getBrand, ProductSearchFilter::getBrands));
+
+    public static final ProductFacetIndex EMPTY = build(List.of());
+
+    private final List<ProductResponse> products;
+    private final long[] ids;
+    private final List<Facet> facets;
+    private final long[] inStock;
+    private final double[] prices;      // ascending
+    private final int[] pricePositions; // position of the product at the same index in prices
+
+    private ProductFacetIndex(List<ProductResponse> products, long[] ids, List<Facet> facets, long[] inStock,
+                              double[] prices, int[] pricePositions) {
+        this.products = products;
+        this.ids = ids;
+        this.facets = facets;
+        this.inStock = inStock;
+        this.prices = prices;
+        this.pricePositions = pricePositions;
+    }
+
+    public static ProductFacetIndex build(Collection<ProductResponse> source) {
+        List<ProductResponse> products = source.stream()
+                .sorted(Comparator.comparing(ProductResponse::getProductId))
+                .toList();
+        int size = products.size();
+        long[] ids = new long[size];
+        long[] inStock = words(size);
+        List<Map<String, IntList>> values = DIMENSIONS.stream().<Map<String, IntList>>map(d -> new HashMap<>()).toList();
+        List<Map<String, String>> labels = DIMENSIONS.stream().<Map<String, String>>map(d -> new HashMap<>()).toList();
+
+        for (int pos = 0; pos < size; pos++) {
+            ProductResponse p = products.get(pos);
+            ids[pos] = p.getProductId();
+            if (inStock(p)) {
+                set(inStock, pos);
+            }
+            for (int d = 0; d < DIMENSIONS.size(); d++) {
+                String value = DIMENSIONS.get(d).value().apply(p);
+                if (value == null || value.isBlank()) {
+                    continue;
+                }
+                // Values differing only in case are one facet, labelled as first seen
+                String key = normalize(value);
+                labels.get(d).putIfAbsent(key, value);
+                values.get(d).computeIfAbsent(key, k -> new IntList()).add(pos);
+            }
+        }
+
+        List<Facet> facets = new ArrayList<>(DIMENSIONS.size());
+        for (int d = 0; d < DIMENSIONS.size(); d++) {
+            Map<String, Bitmap> bitmaps = new HashMap<>();
+            values.get(d).forEach((key, positions) -> bitmaps.put(key, Bitmap.of(positions.toArray(), size)));
+            facets.add(new Facet(DIMENSIONS.get(d), bitmaps, labels.get(d), inStock.length));
+        }
+
+        int[] pricePositions = IntStream.range(0, size)
+                .filter(pos -> products.get(pos).getUnitPrice() != null)
+                .boxed()
+                .sorted(Comparator.comparingDouble(pos -> products.get(pos).getUnitPrice()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        double[] prices = new double[pricePositions.length];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = products.get(pricePositions[i]).getUnitPrice();
+        }
+        return new ProductFacetIndex(products, ids, facets, inStock, prices, pricePositions);
+    }
+
+    // This index serving current, which must hold the indexed ids in id order, each
+    // unchanged in every value the index covers (see coversSame)
+    ProductFacetIndex withProducts(List<ProductResponse> current) {
+        if (current.size() != products.size()) {
+            throw new IllegalArgumentException("Expected " + products.size() + " products, got " + current.size());
+        }
+        return new ProductFacetIndex(current, ids, facets, inStock, prices, pricePositions);
+    }
+
+    // Whether after indexes exactly as before did, so withProducts can stand in for a build
+    static boolean coversSame(ProductResponse before, ProductResponse after) {
+        if (before == null) {
+            return false;
+        }
+        for (Dimension dimension : DIMENSIONS) {
+            if (!Objects.equals(dimension.value().apply(before), dimension.value().apply(after))) {
+                return false;
+            }
+        }
+        return Objects.equals(before.getUnitPrice(), after.getUnitPrice())
+                && inStock(before) == inStock(after);
+    }
+
+    private static boolean inStock(ProductResponse p) {
+        return p.getStockQuantity() != null && p.getStockQuantity() > 0;
+    }
+
+    // Filters hits (null meaning the whole catalog) and counts each facet over the
+    // matches of every other filter, so a selected value never hides its siblings
+    public FacetedSearchResponse search(Collection<ProductResponse> hits, ProductSearchFilter filter) {
+        long[] base = narrow(hits == null ? all(ids.length) : positionsOf(hits), filter);
+        List<long[]> selected = facets.stream().map(f -> f.select(f.dimension().selection().apply(filter))).toList();
+        long[] matches = base.clone();
+        selected.forEach(s -> and(matches, s));
+
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        for (int d = 0; d < facets.size(); d++) {
+            long[] mask = base.clone();
+            for (int other = 0; other < facets.size(); other++) {
+                if (other != d) {
+                    and(mask, selected.get(other));
+                }
+            }
+            counts.put(facets.get(d).dimension().name(), facets.get(d).count(mask));
+        }
+
+        List<ProductResponse> items = new ArrayList<>();
+        for (int w = 0; w < matches.length; w++) {
+            for (long word = matches[w]; word != 0; word &= word - 1) {
+                items.add(products.get(w * 64 + Long.numberOfTrailingZeros(word)));
+            }
+        }
+        return FacetedSearchResponse.builder()
+                .items(items)
+                .total(items.size())
+                .facets(counts)
+                .build();
+    }
+
+    // Positions (in product id order) passing every part of the filter
+    long[] matching(ProductSearchFilter filter) {
+        long[] matches = narrow(all(ids.length), filter);
+        facets.forEach(f -> and(matches, f.select(f.dimension().selection().apply(filter))));
+        return matches;
+    }
+
+    // Applies the stock and price parts of the filter
+    private long[] narrow(long[] base, ProductSearchFilter filter) {
+        if (filter.getInStock() != null) {
+            if (filter.getInStock()) {
+                and(base, inStock);
+            } else {
+                andNot(base, inStock);
+            }
+        }
+        if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+            and(base, priceRange(filter.getMinPrice(), filter.getMaxPrice()));
+        }
+        return base;
+    }
+
+    private long[] positionsOf(Collection<ProductResponse> hits) {
+        long[] words = words(ids.length);
+        for (ProductResponse hit : hits) {
+            int pos = Arrays.binarySearch(ids, hit.getProductId());
+            if (pos >= 0) {
+                set(words, pos);
+            }
+        }
+        return words;
+    }
+
+    private long[] priceRange(Double min, Double max) {
+        int from = min == null ? 0 : firstIndex(min, false);
+        int to = max == null ? prices.length : firstIndex(max, true);
+        long[] words = words(ids.length);
+        for (int i = from; i < to; i++) {
+            set(words, pricePositions[i]);
+        }
+        return words;
+    }
+
+    // First index whose price is >= bound, or > bound when inclusive is set
+    private int firstIndex(double bound, boolean inclusive) {
+        int lo = 0;
+        int hi = prices.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prices[mid] < bound || (inclusive && prices[mid] == bound)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long[] words(int size) {
+        return new long[(size + 63) >>> 6];
+    }
+
+    private static long[] all(int size) {
+        long[] words = words(size);
+        Arrays.fill(words, -1L);
+        if (size % 64 != 0) {
+            words[words.length - 1] = (1L << (size % 64)) - 1;
+        }
+        return words;
+    }
+
+    private static void set(long[] words, int pos) {
+        words[pos >>> 6] |= 1L << pos;
+    }
+
+    private static void and(long[] target, long[] other) {
+        if (other == null) {
+            return;
+        }
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= other[i];
+        }
+    }
+
+    private static void andNot(long[] target, long[] other) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= ~other[i];
+        }
+    }
+
+    private record Dimension(
+            String name,
+            Function<ProductResponse, String> value,
+            Function<ProductSearchFilter, List<String>> selection) {
+    }
+
+    private record Facet(Dimension dimension, Map<String, Bitmap> bitmaps, Map<String, String> labels, int wordCount) {
+
+        // Union of the requested values; null when the dimension is not filtered
+        long[] select(List<String> values) {
+            if (values == null || values.isEmpty()) {
+                return null;
+            }
+            long[] union = new long[wordCount];
+            for (String value : values) {
+                Bitmap bitmap = bitmaps.get(normalize(value));
+                if (bitmap != null) {
+                    bitmap.orInto(union);
+                }
+            }
+            return union;
+        }
+
+        Map<String, Integer> count(long[] mask) {
+            List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+            bitmaps.forEach((key, bitmap) -> {
+                int count = bitmap.andCardinality(mask);
+                if (count > 0) {
+                    counts.add(Map.entry(labels.get(key), count));
+                }
+            });
+            counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Integer> ordered = new LinkedHashMap<>();
+            counts.forEach(e -> ordered.put(e.getKey(), e.getValue()));
+            return ordered;
+        }
+    }
+
+    // Either a sorted position array or a word array, whichever is smaller
+    private record Bitmap(int[] positions, long[] words) {
+
+        static Bitmap of(int[] positions, int size) {
+            if ((long) positions.length * Integer.SIZE < size) {
+                return new Bitmap(positions, null);
+            }
+            long[] words = ProductFacetIndex.words(size);
+            for (int pos : positions) {
+                set(words, pos);
+            }
+            return new Bitmap(null, words);
+        }
+
+        void orInto(long[] target) {
+            if (words == null) {
+                for (int pos : positions) {
+                    set(target, pos);
+                }
+            } else {
+                for (int i = 0; i < words.length; i++) {
+                    target[i] |= words[i];
+                }
+            }
+        }
+
+        int andCardinality(long[] mask) {
+            int count = 0;
+            if (words == null) {
+                for (int pos : positions) {
+                    if ((mask[pos >>> 6] & (1L << pos)) != 0) {
+                        count++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < words.length; i++) {
+                    count += Long.bitCount(words[i] & mask[i]);
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,533 @@
+package com.retailcorp.retailshopping.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import com.retailcorp.retailshopping.dto.ProductResponse;
+import com.retailcorp.retailshopping.service.ProductSearchIndex.IntList;
+
+// Immutable BM25F index over product name, brand, category and subcategory.
+// Each posting stores its final impact (idf times the boosted, length-normalised
+// and saturated term frequency), so a query only sums floats along posting lists.
+// Misspelt terms are found through a symmetric-delete index over the vocabulary
+// and confirmed with a bounded edit distance. Queries merge the posting lists
+// document-at-a-time with MaxScore pruning and keep the best k in a bounded heap
+// rather than sorting every hit.
+public final class ProductRelevanceIndex {
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+
+    // Each edit halves what a misspelt term contributes
+    static final float TYPO_PENALTY = 0.5f;
+
+    private static final List<Field> FIELDS = List.of(
+            new Field(ProductResponse::getProductName, 3.0f),
+            new Field(ProductResponse::getBrand, 2.0f),
+            new Field(ProductResponse::getCategory, 1.0f),
+            new Field(ProductResponse::getSubcategory, 1.0f));
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    public static final ProductRelevanceIndex EMPTY = build(List.of());
+
+    private final List<ProductResponse> products;
+    private final Map<String, Integer> termIds;
+    private final String[] terms;
+    private final int[][] postings;     // term -> positions, ascending
+    private final float[][] impacts;    // term -> impact of the posting at the same index
+    private final float[] maxImpacts;   // term -> largest impact, the term's score upper bound
+    private final Map<String, int[]> deletes;
+
+    private ProductRelevanceIndex(List<ProductResponse> products, Map<String, Integer> termIds, String[] terms,
+                                  int[][] postings, float[][] impacts, float[] maxImpacts,
+                                  Map<String, int[]> deletes) {
+        this.products = products;
+        this.termIds = termIds;
+        this.terms = terms;
+        this.postings = postings;
+        this.impacts = impacts;
+        this.maxImpacts = maxImpacts;
+        this.deletes = deletes;
+    }
+
+    public static ProductRelevanceIndex build(Collection<ProductResponse> source) {
+        List<ProductResponse> products = source.stream()
+                .sorted(Comparator.comparing(ProductResponse::getProductId))
+                .toList();
+        int size = products.size();
+
+        // First pass: vocabulary, document frequencies and average field lengths
+        Map<String, Integer> termIds = new HashMap<>();
+        List<String> terms = new ArrayList<>();
+        IntList documentFrequency = new IntList();
+        double[] lengthSums = new double[FIELDS.size()];
+        for (ProductResponse p : products) {
+            Set<String> seen = new HashSet<>();
+            for (int f = 0; f < FIELDS.size(); f++) {
+                List<String> tokens = tokenize(FIELDS.get(f).value().apply(p));
+                lengthSums[f] += tokens.size();
+                for (String token : tokens) {
+                    if (seen.add(token)) {
+                        int id = termIds.computeIfAbsent(token, t -> {
+                            terms.add(t);
+                            documentFrequency.add(0);
+                            return terms.size() - 1;
+                        });
+                        documentFrequency.set(id, documentFrequency.get(id) + 1);
+                    }
+                }
+            }
+        }
+        float[] averageLengths = new float[FIELDS.size()];
+        for (int f = 0; f < FIELDS.size(); f++) {
+            averageLengths[f] = size == 0 || lengthSums[f] == 0 ? 1f : (float) (lengthSums[f] / size);
+        }
+
+        // Second pass: one impact per (term, document), appended in position order
+        IntList[] docs = new IntList[terms.size()];
+        FloatList[] scores = new FloatList[terms.size()];
+        for (int pos = 0; pos < size; pos++) {
+            Map<Integer, Float> weighted = new HashMap<>();
+            for (int f = 0; f < FIELDS.size(); f++) {
+                List<String> tokens = tokenize(FIELDS.get(f).value().apply(products.get(pos)));
+                float norm = 1 - B + B * tokens.size() / averageLengths[f];
+                float boost = FIELDS.get(f).boost();
+                for (String token : tokens) {
+                    weighted.merge(termIds.get(token), boost / norm, Float::sum);
+                }
+            }
+            for (Map.Entry<Integer, Float> entry : weighted.entrySet()) {
+                int id = entry.getKey();
+                int df = documentFrequency.get(id);
+                float idf = (float) Math.log(1 + (size - df + 0.5) / (df + 0.5));
+                float tf = entry.getValue();
+                if (docs[id] == null) {
+                    docs[id] = new IntList();
+                    scores[id] = new FloatList();
+                }
+                docs[id].add(pos);
+                scores[id].add(idf * tf * (K1 + 1) / (tf + K1));
+            }
+        }
+
+        int[][] postings = new int[terms.size()][];
+        float[][] impacts = new float[terms.size()][];
+        float[] maxImpacts = new float[terms.size()];
+        Map<String, IntList> building = new HashMap<>();
+        for (int id = 0; id < terms.size(); id++) {
+            postings[id] = docs[id].toArray();
+            impacts[id] = scores[id].toArray();
+            for (float impact : impacts[id]) {
+                maxImpacts[id] = Math.max(maxImpacts[id], impact);
+            }
+            String term = terms.get(id);
+            for (String variant : deletes(term, maxEdits(term.length()))) {
+                building.computeIfAbsent(variant, v -> new IntList()).add(id);
+            }
+        }
+        Map<String, int[]> deletes = new HashMap<>(building.size());
+        building.forEach((variant, ids) -> deletes.put(variant, ids.toArray()));
+
+        return new ProductRelevanceIndex(products, termIds, terms.toArray(String[]::new), postings, impacts, maxImpacts,
+                deletes);
+    }
+
+    // This index serving current, which must hold the indexed ids in id order, each
+    // unchanged in every field the index covers (see coversSame)
+    ProductRelevanceIndex withProducts(List<ProductResponse> current) {
+        if (current.size() != products.size()) {
+            throw new IllegalArgumentException("Expected " + products.size() + " products, got " + current.size());
+        }
+        return new ProductRelevanceIndex(current, termIds, terms, postings, impacts, maxImpacts, deletes);
+    }
+
+    // Whether after indexes exactly as before did, so withProducts can stand in for a build
+    static boolean coversSame(ProductResponse before, ProductResponse after) {
+        if (before == null) {
+            return false;
+        }
+        for (Field field : FIELDS) {
+            if (!Objects.equals(field.value().apply(before), field.value().apply(after))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Top matches by score, ties in product id order. allowed optionally restricts the
+    // result to a set of positions, as produced by ProductFacetIndex over the same products.
+    public List<ProductResponse> search(String query, int limit, long[] allowed) {
+        List<String> queryTerms = List.copyOf(new LinkedHashSet<>(tokenize(query)));
+        if (queryTerms.isEmpty() || limit < 1 || products.isEmpty()) {
+            return List.of();
+        }
+
+        List<QueryTerm> matched = new ArrayList<>();
+        for (String queryTerm : queryTerms) {
+            List<Cursor> cursors = new ArrayList<>();
+            for (Variant variant : expand(queryTerm)) {
+                float weight = (float) Math.pow(TYPO_PENALTY, variant.distance());
+                cursors.add(new Cursor(postings[variant.term()], impacts[variant.term()], weight,
+                        weight * maxImpacts[variant.term()]));
+            }
+            if (!cursors.isEmpty()) {
+                matched.add(new QueryTerm(cursors.toArray(Cursor[]::new)));
+            }
+        }
+        if (matched.isEmpty()) {
+            return List.of();
+        }
+
+        // MaxScore: with terms ordered by upper bound, the weakest ones whose bounds together
+        // cannot beat the current k-th score are only probed for documents found through the
+        // others. Documents arrive in ascending order, so a tie never displaces an entry.
+        QueryTerm[] terms = matched.stream()
+                .sorted(Comparator.comparingDouble(QueryTerm::bound))
+                .toArray(QueryTerm[]::new);
+        float[] boundSums = new float[terms.length + 1];
+        for (int i = 0; i < terms.length; i++) {
+            boundSums[i + 1] = boundSums[i] + terms[i].bound();
+        }
+
+        TopK top = new TopK(Math.min(limit, products.size()));
+        int essential = 0;
+        while (true) {
+            while (top.isFull() && essential < terms.length && boundSums[essential + 1] <= top.threshold()) {
+                essential++;
+            }
+            if (essential == terms.length) {
+                break;
+            }
+            int doc = Integer.MAX_VALUE;
+            for (int i = essential; i < terms.length; i++) {
+                doc = Math.min(doc, terms[i].current());
+            }
+            if (doc == Integer.MAX_VALUE) {
+                break;
+            }
+
+            float score = 0f;
+            for (int i = essential; i < terms.length; i++) {
+                score += terms[i].consume(doc);
+            }
+            if (allowed != null && (allowed[doc >>> 6] & (1L << doc)) == 0) {
+                continue;
+            }
+            boolean competitive = true;
+            for (int i = essential - 1; i >= 0 && competitive; i--) {
+                if (score + boundSums[i + 1] <= top.threshold()) {
+                    competitive = false;
+                } else {
+                    score += terms[i].advanceAndConsume(doc);
+                }
+            }
+            if (competitive) {
+                top.offer(doc, score);
+            }
+        }
+        return top.drain().stream().map(products::get).toList();
+    }
+
+    private List<Variant> expand(String term) {
+        List<Variant> variants = new ArrayList<>();
+        Integer exact = termIds.get(term);
+        if (exact != null) {
+            variants.add(new Variant(exact, 0));
+        }
+        int maxEdits = maxEdits(term.length());
+        if (maxEdits == 0) {
+            return variants;
+        }
+        Set<Integer> seen = new HashSet<>();
+        if (exact != null) {
+            seen.add(exact);
+        }
+        for (String variant : deletes(term, maxEdits)) {
+            int[] candidates = deletes.get(variant);
+            if (candidates == null) {
+                continue;
+            }
+            for (int id : candidates) {
+                if (seen.add(id)) {
+                    int distance = distance(term, terms[id], maxEdits);
+                    if (distance <= maxEdits) {
+                        variants.add(new Variant(id, distance));
+                    }
+                }
+            }
+        }
+        variants.sort(Comparator.comparingInt(Variant::distance));
+        return variants;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Short words must match exactly; longer ones tolerate one or two typos
+    static int maxEdits(int length) {
+        return length < 4 ? 0 : length < 8 ? 1 : 2;
+    }
+
+    // The word itself plus every string reachable by deleting up to maxEdits characters
+    static Set<String> deletes(String word, int maxEdits) {
+        Set<String> all = new HashSet<>();
+        all.add(word);
+        Set<String> level = Set.of(word);
+        for (int d = 0; d < maxEdits; d++) {
+            Set<String> next = new HashSet<>();
+            for (String s : level) {
+                for (int i = 0; i < s.length() && s.length() > 1; i++) {
+                    next.add(s.substring(0, i) + s.substring(i + 1));
+                }
+            }
+            all.addAll(next);
+            level = next;
+        }
+        return all;
+    }
+
+    // Optimal string alignment distance; gives up with max + 1 once every cell of a row exceeds max
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    private record Field(Function<ProductResponse, String> value, float boost) {
+    }
+
+    private record Variant(int term, int distance) {
+    }
+
+    // Position in one posting list; weight discounts typo variants
+    private static final class Cursor {
+        final int[] docs;
+        final float[] impacts;
+        final float weight;
+        final float bound;
+        int index;
+
+        Cursor(int[] docs, float[] impacts, float weight, float bound) {
+            this.docs = docs;
+            this.impacts = impacts;
+            this.weight = weight;
+            this.bound = bound;
+        }
+
+        int current() {
+            return index < docs.length ? docs[index] : Integer.MAX_VALUE;
+        }
+
+        void advanceTo(int doc) {
+            if (current() < doc) {
+                int found = Arrays.binarySearch(docs, index, docs.length, doc);
+                index = found >= 0 ? found : -found - 1;
+            }
+        }
+    }
+
+    // A query word's variants; a document scores once per word, at its best variant,
+    // so a typo cannot add to an exact match
+    private record QueryTerm(Cursor[] cursors, float bound) {
+
+        QueryTerm(Cursor[] cursors) {
+            this(cursors, maxBound(cursors));
+        }
+
+        private static float maxBound(Cursor[] cursors) {
+            float bound = 0f;
+            for (Cursor cursor : cursors) {
+                bound = Math.max(bound, cursor.bound);
+            }
+            return bound;
+        }
+
+        int current() {
+            int doc = Integer.MAX_VALUE;
+            for (Cursor cursor : cursors) {
+                doc = Math.min(doc, cursor.current());
+            }
+            return doc;
+        }
+
+        // Scores doc and moves past it; every cursor is already at or beyond doc
+        float consume(int doc) {
+            float best = 0f;
+            for (Cursor cursor : cursors) {
+                if (cursor.current() == doc) {
+                    best = Math.max(best, cursor.weight * cursor.impacts[cursor.index]);
+                    cursor.index++;
+                }
+            }
+            return best;
+        }
+
+        float advanceAndConsume(int doc) {
+            for (Cursor cursor : cursors) {
+                cursor.advanceTo(doc);
+            }
+            return consume(doc);
+        }
+    }
+
+    // Min-heap of the k best documents seen so far; the root is the weakest of them
+    private static final class TopK {
+        final int[] docs;
+        final float[] scores;
+        int size;
+
+        TopK(int capacity) {
+            docs = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        boolean isFull() {
+            return size == docs.length;
+        }
+
+        // Score a new document must beat; ties lose because documents arrive in ascending order
+        float threshold() {
+            return isFull() ? scores[0] : Float.NEGATIVE_INFINITY;
+        }
+
+        void offer(int doc, float score) {
+            if (size < docs.length) {
+                docs[size] = doc;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (better(doc, score, docs[0], scores[0])) {
+                docs[0] = doc;
+                scores[0] = score;
+                siftDown();
+            }
+        }
+
+        // Best first
+        List<Integer> drain() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> better(docs[a], scores[a], docs[b], scores[b]) ? -1 : 1);
+            List<Integer> ranked = new ArrayList<>(size);
+            for (Integer i : order) {
+                ranked.add(docs[i]);
+            }
+            return ranked;
+        }
+
+        private static boolean better(int doc, float score, int otherDoc, float otherScore) {
+            return score > otherScore || (score == otherScore && doc < otherDoc);
+        }
+
+        private boolean better(int i, int j) {
+            return better(docs[i], scores[i], docs[j], scores[j]);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!better(parent, index)) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown() {
+            int index = 0;
+            while (true) {
+                int weakest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && better(weakest, left)) {
+                    weakest = left;
+                }
+                if (right < size && better(weakest, right)) {
+                    weakest = right;
+                }
+                if (weakest == index) {
+                    return;
+                }
+                swap(index, weakest);
+                index = weakest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int doc = docs[i];
+            docs[i] = docs[j];
+            docs[j] = doc;
+            float score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+        }
+    }
+
+    private static final class FloatList {
+        private float[] values = new float[4];
+        private int size;
+
+        void add(float value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        float[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
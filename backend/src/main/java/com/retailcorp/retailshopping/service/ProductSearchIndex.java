@@ -0,0 +1,325 @@
+package com.retailcorp.retailshopping.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import com.retailcorp.retailshopping.dto.ProductResponse;
+
+// Immutable trigram inverted index over product name, category, subcategory and brand.
+// Each trigram maps to a sorted int array of product ids (product_id is SERIAL).
+// A substring query intersects the posting lists of its trigrams and then
+// confirms each candidate against the indexed text. Updates are copy-on-write: both
+// maps are split into shards, and with() copies only the shards its products touch,
+// so a one-product change costs a few dozen small shards rather than the whole catalog.
+public final class ProductSearchIndex {
+
+    static final int GRAM = 3;
+
+    private static final int[] EMPTY_IDS = new int[0];
+
+    private static final char SEPARATOR = '\n';
+
+    public static final ProductSearchIndex EMPTY = new ProductSearchIndex(Shards.empty(), Shards.empty());
+
+    private final Shards<String, int[]> postings;
+    private final Shards<Integer, Doc> docs;
+
+    private ProductSearchIndex(Shards<String, int[]> postings, Shards<Integer, Doc> docs) {
+        this.postings = postings;
+        this.docs = docs;
+    }
+
+    public static ProductSearchIndex build(Collection<ProductResponse> products) {
+        Map<String, IntList> building = new HashMap<>();
+        Shards.Editor<Integer, Doc> docs = Shards.<Integer, Doc>empty().edit();
+
+        products.stream()
+                .sorted(Comparator.comparing(ProductResponse::getProductId))
+                .forEach(p -> {
+                    int id = Math.toIntExact(p.getProductId());
+                    Doc doc = toDoc(p);
+                    docs.put(id, doc);
+                    for (String gram : grams(doc)) {
+                        building.computeIfAbsent(gram, g -> new IntList()).add(id);
+                    }
+                });
+
+        Shards.Editor<String, int[]> postings = Shards.<String, int[]>empty().edit();
+        building.forEach((gram, ids) -> postings.put(gram, ids.toArray()));
+        return new ProductSearchIndex(postings.done(), docs.done());
+    }
+
+    // This index with the given products added or replaced; this one is left untouched
+    public ProductSearchIndex with(Collection<ProductResponse> products) {
+        Shards.Editor<String, int[]> nextPostings = postings.edit();
+        Shards.Editor<Integer, Doc> nextDocs = docs.edit();
+        for (ProductResponse p : products) {
+            int id = Math.toIntExact(p.getProductId());
+            Doc doc = toDoc(p);
+            Doc previous = nextDocs.put(id, doc);
+            Set<String> oldGrams = previous == null ? Set.of() : grams(previous);
+            Set<String> newGrams = grams(doc);
+
+            for (String gram : oldGrams) {
+                if (!newGrams.contains(gram)) {
+                    nextPostings.compute(gram, (g, ids) -> ids == null ? null : withoutId(ids, id));
+                }
+            }
+            for (String gram : newGrams) {
+                if (!oldGrams.contains(gram)) {
+                    nextPostings.compute(gram, (g, ids) -> withId(ids == null ? EMPTY_IDS : ids, id));
+                }
+            }
+        }
+        return new ProductSearchIndex(nextPostings.done(), nextDocs.done());
+    }
+
+    public List<ProductResponse> search(String query) {
+        String q = query == null ? "" : query.toLowerCase(Locale.ROOT);
+
+        // Too short to form a trigram: scan the (in-memory) documents instead
+        if (q.length() < GRAM) {
+            return docs.values()
+                    .filter(doc -> doc.text().contains(q))
+                    .map(Doc::product)
+                    .sorted(Comparator.comparing(ProductResponse::getProductId))
+                    .toList();
+        }
+
+        List<int[]> lists = new ArrayList<>();
+        for (String gram : grams(q)) {
+            int[] ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(ids -> ids.length));
+
+        int[] candidates = lists.get(0);
+        int size = candidates.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            int[] next = new int[size];
+            size = intersect(candidates, size, lists.get(i), next);
+            candidates = next;
+        }
+
+        // Trigrams can all be present without being adjacent, so confirm the substring
+        List<ProductResponse> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Doc doc = docs.get(candidates[i]);
+            if (doc != null && doc.text().contains(q)) {
+                results.add(doc.product());
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    private static Doc toDoc(ProductResponse p) {
+        String[] fields = {p.getProductName(), p.getCategory(), p.getSubcategory(), p.getBrand()};
+        StringBuilder text = new StringBuilder();
+        for (String field : fields) {
+            if (field != null) {
+                // Separator keeps a match from spanning two fields
+                text.append(field.toLowerCase(Locale.ROOT)).append(SEPARATOR);
+            }
+        }
+        return new Doc(p, text.toString());
+    }
+
+    // Grams are derived from the stored text rather than kept per document,
+    // which would cost more memory than the posting lists themselves
+    private static Set<String> grams(Doc doc) {
+        Set<String> grams = new HashSet<>();
+        for (String field : doc.text().split(String.valueOf(SEPARATOR))) {
+            grams.addAll(grams(field));
+        }
+        return grams;
+    }
+
+    static Set<String> grams(String s) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= s.length(); i++) {
+            grams.add(s.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    // Merge intersection, switching to binary search when one side is much shorter
+    private static int intersect(int[] a, int aLen, int[] b, int[] out) {
+        int n = 0;
+        if ((long) aLen * 16 < b.length) {
+            for (int i = 0; i < aLen; i++) {
+                if (Arrays.binarySearch(b, a[i]) >= 0) {
+                    out[n++] = a[i];
+                }
+            }
+            return n;
+        }
+        int i = 0;
+        int j = 0;
+        while (i < aLen && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n;
+    }
+
+    private static int[] withId(int[] ids, int id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos >= 0) {
+            return ids;
+        }
+        int insert = -pos - 1;
+        int[] copy = new int[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, insert);
+        copy[insert] = id;
+        System.arraycopy(ids, insert, copy, insert + 1, ids.length - insert);
+        return copy;
+    }
+
+    private static int[] withoutId(int[] ids, int id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null; // drops the key from the map
+        }
+        int[] copy = new int[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, pos);
+        System.arraycopy(ids, pos + 1, copy, pos, ids.length - pos - 1);
+        return copy;
+    }
+
+    private record Doc(ProductResponse product, String text) {
+    }
+
+    // A map split into a fixed number of HashMap shards by key hash. An edit copies a shard
+    // the first time it writes to it; the result shares every other shard with the source.
+    private static final class Shards<K, V> {
+        private static final int COUNT = 1024;
+
+        private final Map<K, V>[] maps;
+        private final int size;
+
+        private Shards(Map<K, V>[] maps, int size) {
+            this.maps = maps;
+            this.size = size;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <K, V> Shards<K, V> empty() {
+            Map<K, V>[] maps = new Map[COUNT];
+            Arrays.fill(maps, Map.of());
+            return new Shards<>(maps, 0);
+        }
+
+        V get(Object key) {
+            return maps[index(key)].get(key);
+        }
+
+        int size() {
+            return size;
+        }
+
+        Stream<V> values() {
+            return Arrays.stream(maps).flatMap(map -> map.values().stream());
+        }
+
+        Editor<K, V> edit() {
+            return new Editor<>(maps.clone(), size);
+        }
+
+        private static int index(Object key) {
+            int h = key.hashCode();
+            return (h ^ (h >>> 16)) & (COUNT - 1);
+        }
+
+        static final class Editor<K, V> {
+            private final Map<K, V>[] maps;
+            private final boolean[] copied = new boolean[COUNT];
+            private int size;
+
+            private Editor(Map<K, V>[] maps, int size) {
+                this.maps = maps;
+                this.size = size;
+            }
+
+            V put(K key, V value) {
+                V previous = writable(key).put(key, value);
+                if (previous == null) {
+                    size++;
+                }
+                return previous;
+            }
+
+            // A null result removes the key, as with Map.compute
+            void compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+                Map<K, V> map = writable(key);
+                boolean present = map.containsKey(key);
+                boolean after = map.compute(key, remapping) != null;
+                size += (after ? 1 : 0) - (present ? 1 : 0);
+            }
+
+            Shards<K, V> done() {
+                return new Shards<>(maps, size);
+            }
+
+            private Map<K, V> writable(K key) {
+                int i = index(key);
+                if (!copied[i]) {
+                    maps[i] = new HashMap<>(maps[i]);
+                    copied[i] = true;
+                }
+                return maps[i];
+            }
+        }
+    }
+
+    static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        void set(int index, int value) {
+            values[index] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
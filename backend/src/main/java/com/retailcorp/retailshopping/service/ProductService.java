@@ -1,13 +1,31 @@
 package com.retailcorp.retailshopping.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.retailcorp.retailshopping.dto.FacetedSearchResponse;
+import com.retailcorp.retailshopping.dto.ProductPage;
 import com.retailcorp.retailshopping.dto.ProductResponse;
+import com.retailcorp.retailshopping.dto.ProductSearchFilter;
 import com.retailcorp.retailshopping.entity.Product;
+import com.retailcorp.retailshopping.exception.BadRequestException;
+import com.retailcorp.retailshopping.exception.InsufficientStockException;
 import com.retailcorp.retailshopping.repository.ProductRepository;
+import com.retailcorp.retailshopping.repository.ProductRepositoryCustom;
 
 @Service
 public class ProductService {
@@ -15,28 +33,201 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    // When disabled every read goes straight to the database
+    @Value("${catalog.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
+
+    // Lets GET /api/products without paging parameters return the whole catalog
+    @Value("${catalog.products.allow-unpaged:true}")
+    private boolean allowUnpaged;
+
+    @Value("${catalog.products.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${catalog.products.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${catalog.search.top-k:20}")
+    private int defaultTopK;
+
     public List<ProductResponse> getAllProducts() {
+        if (snapshotEnabled) {
+            return catalogSnapshot.getProducts();
+        }
         return productRepository.findAll()
                 .stream()
-                .map(this::toResponse)
+                .map(ProductService::toResponse)
+                .toList();
+    }
+
+    // Version of the catalog used as the ETag for product listings and searches.
+    // The snapshot keeps it in memory; the database mode asks for max(last_updated) and count.
+    public String getCatalogETag() {
+        if (snapshotEnabled) {
+            return catalogSnapshot.getVersionTag();
+        }
+        return CatalogSnapshot.versionTag(productRepository.findCatalogVersion());
+    }
+
+    // True when getProducts answers with the whole catalog, tagged with getCatalogETag()
+    public boolean isWholeCatalog(Long after, Integer limit, List<String> fields) {
+        return after == null && limit == null && (fields == null || fields.isEmpty()) && allowUnpaged;
+    }
+
+    // Keyset pagination on product_id; fields restricts the selected columns. A page is read
+    // from the database, so its ETag is taken from its own rows rather than the snapshot.
+    public ProductPage getProducts(Long after, Integer limit, List<String> fields) {
+        boolean projected = fields != null && !fields.isEmpty();
+        if (isWholeCatalog(after, limit, fields)) {
+            // Version first: a tag older than the body only costs the client one full response
+            String etag = getCatalogETag();
+            return ProductPage.builder().items(getAllProducts()).etag(etag).build();
+        }
+
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BadRequestException("limit must be between 1 and " + maxPageSize);
+        }
+        long cursor = after == null ? 0L : after;
+
+        // Read one extra row to learn whether another page exists
+        if (projected) {
+            List<String> columns = fields.stream().map(String::trim).filter(f -> !f.isEmpty()).toList();
+            Set<String> allowed = ProductRepositoryCustom.PROJECTABLE_FIELDS;
+            columns.stream().filter(f -> !allowed.contains(f)).findFirst().ifPresent(f -> {
+                throw new BadRequestException("Unknown product field: " + f);
+            });
+            List<Map<String, Object>> rows = productRepository.findPageProjected(cursor, pageSize + 1, columns);
+            boolean more = rows.size() > pageSize;
+            List<Map<String, Object>> items = more ? rows.subList(0, pageSize) : rows;
+            return ProductPage.builder()
+                    .items(items)
+                    .nextCursor(more ? ((Number) items.get(pageSize - 1).get("productId")).longValue() : null)
+                    .etag(pageTag(items))
+                    .build();
+        }
+
+        List<ProductResponse> rows = productRepository
+                .findByProductIdGreaterThanOrderByProductIdAsc(cursor, Limit.of(pageSize + 1))
+                .stream()
+                .map(ProductService::toResponse)
                 .toList();
+        boolean more = rows.size() > pageSize;
+        List<ProductResponse> items = more ? rows.subList(0, pageSize) : rows;
+        return ProductPage.builder()
+                .items(items)
+                .nextCursor(more ? items.get(pageSize - 1).getProductId() : null)
+                .etag(pageTag(items))
+                .build();
+    }
+
+    // Changes whenever any row on the page does; the cursor follows from the rows
+    private static String pageTag(List<?> items) {
+        return "p" + Integer.toHexString(items.size()) + "-" + Integer.toHexString(items.hashCode());
     }
 
     public List<ProductResponse> searchProducts(String query) {
+        if (snapshotEnabled) {
+            return catalogSnapshot.search(query);
+        }
         return productRepository
                 .findByProductNameContainingIgnoreCaseOrCategoryContainingIgnoreCaseOrBrandContainingIgnoreCase(query, query, query)
                 .stream()
-                .map(this::toResponse)
+                .map(ProductService::toResponse)
                 .toList();
     }
 
+    // Filtered search with category, subcategory and brand counts. Without the snapshot the
+    // text match still runs in the database and the facets are computed over its rows.
+    public FacetedSearchResponse searchProducts(String query, ProductSearchFilter filter) {
+        validate(filter);
+        if (snapshotEnabled) {
+            return catalogSnapshot.search(query, filter);
+        }
+        List<ProductResponse> hits = query == null || query.isBlank() ? getAllProducts() : searchProducts(query);
+        return ProductFacetIndex.build(hits).search(null, filter);
+    }
+
+    // Relevance-ranked, typo-tolerant search returning the best limit products. Without the
+    // snapshot only the rows the database query matches can be ranked, so typos are not tolerated.
+    public List<ProductResponse> rankProducts(String query, Integer limit, ProductSearchFilter filter) {
+        validate(filter);
+        int k = limit == null ? defaultTopK : limit;
+        if (k < 1 || k > maxPageSize) {
+            throw new BadRequestException("limit must be between 1 and " + maxPageSize);
+        }
+        if (snapshotEnabled) {
+            return catalogSnapshot.rank(query, k, filter);
+        }
+        List<ProductResponse> hits = searchProducts(query);
+        long[] allowed = filter.isEmpty() ? null : ProductFacetIndex.build(hits).matching(filter);
+        return ProductRelevanceIndex.build(hits).search(query, k, allowed);
+    }
+
+    private static void validate(ProductSearchFilter filter) {
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null && filter.getMinPrice() > filter.getMaxPrice()) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+    }
+
     public ProductResponse getProductById(Long id) {
+        if (snapshotEnabled) {
+            Optional<ProductResponse> cached = catalogSnapshot.getProduct(id);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with ID: " + id));
         return toResponse(product);
     }
 
-    public ProductResponse toResponse(Product product) {
+    // Resolves several products with a single IN query. Ids that do not exist are
+    // simply absent from the returned map; callers decide how to report them.
+    public Map<Long, ProductResponse> getProductsByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        if (!snapshotEnabled) {
+            return findProductsByIds(ids);
+        }
+
+        // Serve what the snapshot has; anything newer than the last refresh comes from the database
+        Map<Long, ProductResponse> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            catalogSnapshot.getProduct(id).ifPresentOrElse(p -> result.put(id, p), () -> missing.add(id));
+        }
+        if (!missing.isEmpty()) {
+            result.putAll(findProductsByIds(missing));
+        }
+        return result;
+    }
+
+    // All-or-nothing stock decrement for one order. Every line is a set-based conditional
+    // update rather than a read-modify-write, so hot products are never locked across a round trip.
+    @Transactional
+    public void reserveStock(Map<Long, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            return;
+        }
+        List<Long> rejected = productRepository.reserveStock(new TreeMap<>(quantities));
+        if (!rejected.isEmpty()) {
+            throw new InsufficientStockException("Insufficient stock for product ID: " + rejected.get(0));
+        }
+    }
+
+    private Map<Long, ProductResponse> findProductsByIds(Collection<Long> ids) {
+        return productRepository.findAllById(ids)
+                .stream()
+                .map(ProductService::toResponse)
+                .collect(Collectors.toMap(ProductResponse::getProductId, Function.identity()));
+    }
+
+    public static ProductResponse toResponse(Product product) {
     return ProductResponse.builder()
             .productId(product.getProductId())
             .productName(product.getProductName())
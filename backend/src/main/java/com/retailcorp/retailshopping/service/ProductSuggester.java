@@ -0,0 +1,106 @@
+package com.retailcorp.retailshopping.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.retailcorp.retailshopping.dto.ProductResponse;
+import com.retailcorp.retailshopping.dto.ProductSuggestion;
+import com.retailcorp.retailshopping.repository.OrderRepository;
+import com.retailcorp.retailshopping.repository.ProductSales;
+import com.retailcorp.retailshopping.service.ProductSuggestionTrie.Candidate;
+
+import lombok.RequiredArgsConstructor;
+
+// Prefix autocomplete over product names and brands. The trie is rebuilt on a
+// schedule (never on a request thread) and swapped in atomically.
+@Component
+@RequiredArgsConstructor
+public class ProductSuggester {
+
+    private final ProductService productService;
+    private final OrderRepository orderRepository;
+
+    private final AtomicReference<ProductSuggestionTrie> trie = new AtomicReference<>(ProductSuggestionTrie.EMPTY);
+
+    @Value("${catalog.suggest.top-k:10}")
+    private int topK;
+
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        return trie.get().suggest(prefix.stripLeading(), limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${catalog.suggest.rebuild-interval-ms:300000}",
+            fixedDelayString = "${catalog.suggest.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        Map<Long, Long> unitsSold = orderRepository.findUnitsSoldByProduct().stream()
+                .collect(Collectors.toMap(ProductSales::getProductId, ProductSales::getUnitsSold));
+
+        List<Candidate> candidates = new ArrayList<>();
+        Map<String, BrandTotals> brands = new LinkedHashMap<>();
+        for (ProductResponse p : productService.getAllProducts()) {
+            long sold = unitsSold.getOrDefault(p.getProductId(), 0L);
+            long stock = p.getStockQuantity() == null ? 0 : p.getStockQuantity();
+            if (p.getProductName() != null) {
+                candidates.add(new Candidate(
+                        ProductSuggestion.builder()
+                                .text(p.getProductName())
+                                .type("product")
+                                .productId(p.getProductId())
+                                .build(),
+                        wordSuffixes(p.getProductName()), sold, stock));
+            }
+            if (p.getBrand() != null && !p.getBrand().isBlank()) {
+                brands.computeIfAbsent(p.getBrand().toLowerCase(Locale.ROOT), b -> new BrandTotals(p.getBrand()))
+                        .add(sold, stock);
+            }
+        }
+        brands.values().forEach(b -> candidates.add(new Candidate(
+                ProductSuggestion.builder().text(b.name).type("brand").build(),
+                wordSuffixes(b.name), b.unitsSold, b.stock)));
+
+        trie.set(ProductSuggestionTrie.build(candidates, topK));
+    }
+
+    // "Laptop Pro 15" is reachable from "lap", "pro" and "15"
+    static List<String> wordSuffixes(String text) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < text.length(); i++) {
+            boolean wordStart = i == 0 || Character.isWhitespace(text.charAt(i - 1));
+            if (wordStart && !Character.isWhitespace(text.charAt(i))) {
+                keys.add(text.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    private static final class BrandTotals {
+        final String name;
+        long unitsSold;
+        long stock;
+
+        BrandTotals(String name) {
+            this.name = name;
+        }
+
+        void add(long sold, long stockQuantity) {
+            unitsSold += sold;
+            stock += stockQuantity;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.retailcorp.retailshopping.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.retailcorp.retailshopping.dto.ProductSuggestion;
+
+// Immutable radix trie over lower-cased suggestion keys. Every node stores the
+// top-k completions of its subtree, so a lookup walks at most prefix.length()
+// characters and returns a precomputed list without allocating.
+public final class ProductSuggestionTrie {
+
+    public static final ProductSuggestionTrie EMPTY = new ProductSuggestionTrie(
+            new Node("", new char[0], new Node[0], List.of()));
+
+    // In-stock first, then best sellers, then deepest stock
+    static final Comparator<Candidate> RANKING = Comparator
+            .comparing((Candidate c) -> c.stock() > 0).reversed()
+            .thenComparing(Comparator.comparingLong(Candidate::unitsSold).reversed())
+            .thenComparing(Comparator.comparingLong(Candidate::stock).reversed())
+            .thenComparing(c -> c.suggestion().getText());
+
+    private final Node root;
+
+    private ProductSuggestionTrie(Node root) {
+        this.root = root;
+    }
+
+    // A ranked suggestion reachable from each of its keys
+    public record Candidate(ProductSuggestion suggestion, Collection<String> keys, long unitsSold, long stock) {
+    }
+
+    public static ProductSuggestionTrie build(Collection<Candidate> candidates, int topK) {
+        MutableNode root = new MutableNode();
+        for (Candidate candidate : candidates) {
+            for (String key : candidate.keys()) {
+                if (key == null || key.isBlank()) {
+                    continue;
+                }
+                MutableNode node = root;
+                for (char ch : key.toLowerCase(Locale.ROOT).toCharArray()) {
+                    node = node.children.computeIfAbsent(ch, c -> new MutableNode());
+                }
+                node.terminals.add(candidate);
+            }
+        }
+        return new ProductSuggestionTrie(freeze("", root, topK, false));
+    }
+
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        Node node = root;
+        int i = 0;
+        int length = prefix.length();
+        while (i < length) {
+            Node child = node.child(Character.toLowerCase(prefix.charAt(i)));
+            if (child == null) {
+                return List.of();
+            }
+            String label = child.label;
+            int j = 0;
+            while (j < label.length() && i < length) {
+                if (label.charAt(j) != Character.toLowerCase(prefix.charAt(i))) {
+                    return List.of();
+                }
+                i++;
+                j++;
+            }
+            node = child;
+        }
+        List<ProductSuggestion> top = node.top;
+        return limit >= top.size() ? top : top.subList(0, Math.max(limit, 0));
+    }
+
+    // Computes each subtree's top-k and collapses single-child chains into one edge
+    private static Node freeze(String label, MutableNode node, int topK, boolean collapse) {
+        StringBuilder edge = new StringBuilder(label);
+        while (collapse && node.terminals.isEmpty() && node.children.size() == 1) {
+            Map.Entry<Character, MutableNode> only = node.children.firstEntry();
+            edge.append(only.getKey());
+            node = only.getValue();
+        }
+
+        char[] firstChars = new char[node.children.size()];
+        Node[] children = new Node[node.children.size()];
+        List<Candidate> pool = new ArrayList<>(node.terminals);
+        int n = 0;
+        for (Map.Entry<Character, MutableNode> entry : node.children.entrySet()) {
+            Node child = freeze(String.valueOf(entry.getKey()), entry.getValue(), topK, true);
+            firstChars[n] = entry.getKey();
+            children[n++] = child;
+            pool.addAll(child.ranked);
+        }
+
+        // A candidate indexed under several keys may reach this node more than once
+        Set<Candidate> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Candidate> ranked = pool.stream()
+                .sorted(RANKING)
+                .filter(seen::add)
+                .limit(topK)
+                .toList();
+        return new Node(edge.toString(), firstChars, children, ranked);
+    }
+
+    private static final class MutableNode {
+        final TreeMap<Character, MutableNode> children = new TreeMap<>();
+        final List<Candidate> terminals = new ArrayList<>();
+    }
+
+    private static final class Node {
+        final String label;
+        final char[] firstChars;
+        final Node[] children;
+        final List<Candidate> ranked;
+        final List<ProductSuggestion> top;
+
+        Node(String label, char[] firstChars, Node[] children, List<Candidate> ranked) {
+            this.label = label;
+            this.firstChars = firstChars;
+            this.children = children;
+            this.ranked = ranked;
+            this.top = ranked.stream().map(Candidate::suggestion).toList();
+        }
+
+        Node child(char ch) {
+            int pos = Arrays.binarySearch(firstChars, ch);
+            return pos < 0 ? null : children[pos];
+        }
+    }
+}
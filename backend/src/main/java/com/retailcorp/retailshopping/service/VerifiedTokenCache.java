@@ -0,0 +1,240 @@
+package com.retailcorp.retailshopping.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.retailcorp.retailshopping.dto.AuthenticatedCustomer;
+import com.retailcorp.retailshopping.entity.Customer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Tokens that already passed signature and expiry checks, mapped to the customer they
+// resolved to, so repeat requests with the same bearer token skip both the HMAC and the
+// customer lookup. Keys are SHA-256 digests, never the tokens themselves. An entry lives
+// until the token's exp; past maxSize the least recently used ones are evicted.
+//
+// Lookups are a ConcurrentHashMap read, no locks. Each customer's keys are indexed, so
+// evicting one customer touches only their own entries.
+@Component
+public class VerifiedTokenCache {
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<String>> keysByCustomer = new ConcurrentHashMap<>();
+
+    // Bumped by every eviction; a put whose customer lookup began before the bump may hold
+    // the row the eviction was for, so it is dropped (and verified again next time)
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock trimLock = new ReentrantLock();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    private Clock clock = Clock.systemUTC();
+    private LongSupplier ticker = System::nanoTime;
+
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${auth.token-cache.enabled:true}") boolean enabled,
+                              @Value("${auth.token-cache.max-size:10000}") int maxSize) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+
+        Gauge.builder("auth.token.cache.size", this, VerifiedTokenCache::size)
+                .description("Verified tokens held")
+                .register(meterRegistry);
+        hits = Counter.builder("auth.token.cache").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("auth.token.cache").tag("result", "miss").register(meterRegistry);
+        evictions = Counter.builder("auth.token.cache.evictions")
+                .description("Entries dropped to stay within max-size")
+                .register(meterRegistry);
+    }
+
+    public Optional<AuthenticatedCustomer> get(String token) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expiresAt > clock.millis()) {
+                entry.lastUsed = ticker.getAsLong();
+                hits.increment();
+                return Optional.of(entry.principal);
+            }
+            remove(key, entry);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    // Read before loading the customer for a miss, and hand to put()
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String token, Customer customer, Date expiration, long generation) {
+        if (!enabled || expiration == null || expiration.getTime() <= clock.millis()) {
+            return;
+        }
+        String key = digest(token);
+        Entry entry = new Entry(AuthenticatedCustomer.of(customer), customer.getPasswordHash(),
+                expiration.getTime(), ticker.getAsLong());
+        keysByCustomer.compute(entry.principal.customerId(), (id, keys) -> {
+            Set<String> indexed = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            indexed.add(key);
+            return indexed;
+        });
+        Entry previous = entries.put(key, entry);
+        if (previous != null && !previous.principal.customerId().equals(entry.principal.customerId())) {
+            unindex(previous.principal.customerId(), key);
+        }
+        // Checked after publishing: an eviction that bumped earlier is caught here, a later
+        // one finds this key in the index
+        if (this.generation.get() != generation) {
+            remove(key, entry);
+            return;
+        }
+        if (entries.size() > maxSize) {
+            trim();
+        }
+    }
+
+    // Invalidation hook: call when a customer is deleted, so tokens issued to them are
+    // verified (and the customer reloaded) again. Triggered after commit by
+    // CustomerTokenEvictionListener.
+    public void evictCustomer(Long customerId) {
+        generation.incrementAndGet();
+        Set<String> keys = keysByCustomer.remove(customerId);
+        if (keys != null) {
+            for (String key : keys) {
+                entries.computeIfPresent(key, (k, e) -> e.principal.customerId().equals(customerId) ? null : e);
+            }
+        }
+    }
+
+    // Call with a customer's committed credentials: drops only their tokens cached with a
+    // different email or password hash, so saves of other columns keep the cache warm
+    public void evictChangedCredentials(Long customerId, String email, String passwordHash) {
+        generation.incrementAndGet();
+        Set<String> keys = keysByCustomer.get(customerId);
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            Entry entry = entries.get(key);
+            if (entry != null && (!Objects.equals(entry.principal.email(), email)
+                    || !Objects.equals(entry.passwordHash, passwordHash))) {
+                remove(key, entry);
+            }
+        }
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+        keysByCustomer.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Over max-size: drop expired entries, then the least recently used down to 90%, so the
+    // sort is paid once per maxSize / 10 puts rather than on every one
+    private void trim() {
+        if (!trimLock.tryLock()) {
+            return;
+        }
+        try {
+            if (entries.size() <= maxSize) {
+                return;
+            }
+            long now = clock.millis();
+            List<Candidate> candidates = new ArrayList<>(entries.size());
+            entries.forEach((key, entry) -> {
+                if (entry.expiresAt <= now) {
+                    remove(key, entry);
+                } else {
+                    candidates.add(new Candidate(key, entry, entry.lastUsed));
+                }
+            });
+            int excess = candidates.size() - (maxSize - Math.max(1, maxSize / 10));
+            if (excess <= 0) {
+                return;
+            }
+            candidates.sort(Comparator.comparingLong(Candidate::lastUsed));
+            for (int i = 0; i < excess; i++) {
+                Candidate candidate = candidates.get(i);
+                if (remove(candidate.key(), candidate.entry())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            trimLock.unlock();
+        }
+    }
+
+    private boolean remove(String key, Entry entry) {
+        if (!entries.remove(key, entry)) {
+            return false;
+        }
+        unindex(entry.principal.customerId(), key);
+        return true;
+    }
+
+    private void unindex(Long customerId, String key) {
+        keysByCustomer.computeIfPresent(customerId, (id, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // passwordHash is kept only to notice credential changes; it never leaves the cache
+    private static final class Entry {
+        final AuthenticatedCustomer principal;
+        final String passwordHash;
+        final long expiresAt;
+        volatile long lastUsed;
+
+        Entry(AuthenticatedCustomer principal, String passwordHash, long expiresAt, long lastUsed) {
+            this.principal = principal;
+            this.passwordHash = passwordHash;
+            this.expiresAt = expiresAt;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    // lastUsed copied once, so the sort sees stable keys while hits keep updating entries
+    private record Candidate(String key, Entry entry, long lastUsed) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.retailcorp.retailshopping.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Splits a UTF-8 stream into lines, holding at most maxBytes of any one of them. The rest
+// of a longer line is read past without being buffered and the line is flagged oversized,
+// so one record missing its newline cannot pull the whole body into memory.
+public class BoundedLineReader {
+
+    private final InputStream in;
+    private final int maxBytes;
+    private final byte[] buffer = new byte[8192];
+    private int pos;
+    private int limit;
+
+    private byte[] line = new byte[256];
+    private int length;
+    private boolean oversized;
+
+    public BoundedLineReader(InputStream in, int maxBytes) {
+        this.in = in;
+        this.maxBytes = maxBytes;
+    }
+
+    // Advances to the next line; false at the end of the stream
+    public boolean next() throws IOException {
+        length = 0;
+        oversized = false;
+        boolean read = false;
+        while (true) {
+            if (pos == limit) {
+                int n = in.read(buffer);
+                if (n <= 0) {
+                    pos = 0;
+                    limit = 0;
+                    return read;
+                }
+                pos = 0;
+                limit = n;
+            }
+            read = true;
+            int start = pos;
+            while (pos < limit && buffer[pos] != '\n') {
+                pos++;
+            }
+            append(start, pos);
+            if (pos < limit) {
+                pos++;
+                return true;
+            }
+        }
+    }
+
+    // The current line without its terminator, or null when it was oversized
+    public String text() {
+        if (oversized) {
+            return null;
+        }
+        int end = length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+        return new String(line, 0, end, StandardCharsets.UTF_8);
+    }
+
+    public boolean oversized() {
+        return oversized;
+    }
+
+    private void append(int from, int to) {
+        int n = to - from;
+        if (oversized || n == 0) {
+            return;
+        }
+        if (length + n > maxBytes) {
+            oversized = true;
+            length = 0;
+            return;
+        }
+        if (length + n > line.length) {
+            line = Arrays.copyOf(line, Math.min(maxBytes, Math.max(line.length * 2, length + n)));
+        }
+        System.arraycopy(buffer, from, line, length, n);
+        length += n;
+    }
+}
@@ -0,0 +1,64 @@
+package com.retailcorp.retailshopping.util;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.retailcorp.retailshopping.entity.CustomerEvent;
+
+// Copies the event_data keys we filter on into the typed customer_events columns.
+// Clients send both snake_case and camelCase keys, so both are accepted.
+public final class EventFieldExtractor {
+
+    public static final int MAX_TEXT_LENGTH = 100;
+
+    private EventFieldExtractor() {
+    }
+
+    public static void apply(CustomerEvent event, Map<String, ?> data) {
+        if (data == null) {
+            return;
+        }
+        event.setEventType(text(first(data.get("event_type"), data.get("eventType"))));
+        event.setProductId(id(first(data.get("product_id"), data.get("productId"))));
+        event.setSessionId(text(first(data.get("session_id"), data.get("sessionId"))));
+    }
+
+    public static void apply(CustomerEvent event, JsonNode data) {
+        if (data == null || !data.isObject()) {
+            return;
+        }
+        event.setEventType(text(scalar(first(data.get("event_type"), data.get("eventType")))));
+        event.setProductId(id(scalar(first(data.get("product_id"), data.get("productId")))));
+        event.setSessionId(text(scalar(first(data.get("session_id"), data.get("sessionId")))));
+    }
+
+    private static <T> T first(T a, T b) {
+        return a != null ? a : b;
+    }
+
+    private static Object scalar(JsonNode node) {
+        if (node == null || !node.isValueNode() || node.isNull()) {
+            return null;
+        }
+        return node.isIntegralNumber() ? node.numberValue() : node.asText();
+    }
+
+    // Anything longer than the column is not a value worth indexing
+    private static String text(Object value) {
+        if (!(value instanceof String) && !(value instanceof Number)) {
+            return null;
+        }
+        String s = value.toString();
+        return s.isEmpty() || s.length() > MAX_TEXT_LENGTH ? null : s;
+    }
+
+    private static Long id(Object value) {
+        if (value instanceof Integer || value instanceof Long) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String s && !s.isEmpty() && s.length() <= 18 && s.chars().allMatch(Character::isDigit)) {
+            return Long.valueOf(s);
+        }
+        return null;
+    }
+}
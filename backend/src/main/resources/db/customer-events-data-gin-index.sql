@@ -0,0 +1,9 @@
+-- GIN index behind POST /api/events/search (event_data @> containment).
+-- On the partitioned table this builds the index on every partition; for a large
+-- table, create it CONCURRENTLY on each partition first and it is attached, not rebuilt.
+-- If it ran before customer-events-partitioning.sql, run it again afterwards: that script
+-- renames the old index, which this then adopts for the legacy partition.
+-- psql -f customer-events-data-gin-index.sql retail_poc
+
+CREATE INDEX IF NOT EXISTS idx_customer_events_data
+    ON customer_events USING GIN (event_data jsonb_path_ops);
@@ -0,0 +1,6 @@
+-- Adds the event history index to an existing database without blocking writes.
+-- CONCURRENTLY cannot run inside a transaction: psql -f customer-events-history-index.sql retail_poc
+-- Only for the unpartitioned table: customer-events-partitioning.sql creates the index itself.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customer_events_history
+    ON customer_events (customer_id, event_timestamp DESC, event_id DESC);
@@ -0,0 +1,73 @@
+-- Converts an existing (unpartitioned) customer_events table to the range-partitioned
+-- layout of schema.sql. The old table becomes the partition for everything up to the
+-- start of next month, current-month rows included, so only rows stamped later than
+-- that are copied (into the default partition). psql -f customer-events-partitioning.sql retail_poc
+--
+-- EventPartitionManager reads partition bounds from the catalog, so it leaves the month
+-- the legacy partition covers alone and creates the following ones on its next run.
+-- Its retention policy only touches customer_events_p* partitions, so the legacy
+-- partition is kept until it is dropped by hand.
+--
+-- Order: the new parent is created with the promoted event_type / product_id /
+-- session_id columns and their indexes, added to the old table first if missing, so this
+-- runs before or after customer-events-promoted-columns.sql. Run that one anyway, in
+-- either order, if the backfill has not been done yet. Run customer-events-data-gin-index.sql
+-- after this script; an index it already built is carried over.
+
+BEGIN;
+
+UPDATE customer_events SET event_timestamp = COALESCE(load_timestamp, now()) WHERE event_timestamp IS NULL;
+
+-- ATTACH needs the same columns on both sides
+ALTER TABLE customer_events
+    ADD COLUMN IF NOT EXISTS event_type VARCHAR(100),
+    ADD COLUMN IF NOT EXISTS product_id BIGINT,
+    ADD COLUMN IF NOT EXISTS session_id VARCHAR(100);
+
+ALTER TABLE customer_events RENAME TO customer_events_legacy;
+ALTER INDEX IF EXISTS idx_customer_events_history RENAME TO customer_events_legacy_history_idx;
+ALTER INDEX IF EXISTS idx_customer_events_type_history RENAME TO customer_events_legacy_type_history_idx;
+ALTER INDEX IF EXISTS idx_customer_events_product RENAME TO customer_events_legacy_product_idx;
+ALTER INDEX IF EXISTS idx_customer_events_session RENAME TO customer_events_legacy_session_idx;
+ALTER INDEX IF EXISTS idx_customer_events_data RENAME TO customer_events_legacy_data_idx;
+ALTER TABLE customer_events_legacy ALTER COLUMN event_timestamp SET NOT NULL;
+ALTER TABLE customer_events_legacy DROP CONSTRAINT customer_events_pkey;
+ALTER TABLE customer_events_legacy ADD PRIMARY KEY (event_id, event_timestamp);
+
+CREATE TABLE customer_events (
+    event_id INT NOT NULL DEFAULT nextval('customer_events_event_id_seq'),
+    customer_id INT,
+    event_timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    event_data JSONB,
+    event_type VARCHAR(100),
+    product_id BIGINT,
+    session_id VARCHAR(100),
+    load_timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (event_id, event_timestamp)
+) PARTITION BY RANGE (event_timestamp);
+ALTER SEQUENCE customer_events_event_id_seq OWNED BY customer_events.event_id;
+ALTER TABLE customer_events_legacy ALTER COLUMN event_id DROP DEFAULT;
+
+CREATE TABLE customer_events_default PARTITION OF customer_events DEFAULT;
+
+-- Future-dated rows would violate the legacy bound; with no other partition yet they
+-- route to the default one. now() is the transaction start, so both bounds agree.
+INSERT INTO customer_events (event_id, customer_id, event_timestamp, event_data, event_type, product_id,
+                             session_id, load_timestamp)
+SELECT event_id, customer_id, event_timestamp, event_data, event_type, product_id, session_id, load_timestamp
+FROM customer_events_legacy
+WHERE event_timestamp >= date_trunc('month', now()::timestamp) + interval '1 month';
+DELETE FROM customer_events_legacy
+WHERE event_timestamp >= date_trunc('month', now()::timestamp) + interval '1 month';
+
+ALTER TABLE customer_events ATTACH PARTITION customer_events_legacy
+    FOR VALUES FROM (MINVALUE) TO (date_trunc('month', now()::timestamp) + interval '1 month');
+
+-- Each adopts the legacy table's matching index, when there is one, instead of building it
+CREATE INDEX idx_customer_events_history ON customer_events (customer_id, event_timestamp DESC, event_id DESC);
+CREATE INDEX idx_customer_events_type_history
+    ON customer_events (customer_id, event_type, event_timestamp DESC, event_id DESC);
+CREATE INDEX idx_customer_events_product ON customer_events (product_id, event_type, event_timestamp DESC);
+CREATE INDEX idx_customer_events_session ON customer_events (session_id);
+
+COMMIT;
@@ -0,0 +1,19 @@
+-- Adds the event_type / product_id / session_id columns and their indexes to an
+-- existing database. Existing rows are filled in by the backend afterwards:
+-- start it once with EVENTS_BACKFILL_ENABLED=true (see EventFieldBackfill).
+-- psql -f customer-events-promoted-columns.sql retail_poc
+--
+-- Order: runs before or after customer-events-partitioning.sql. Afterwards it targets the
+-- partitioned parent, and a column or index already there is skipped.
+
+ALTER TABLE customer_events
+    ADD COLUMN IF NOT EXISTS event_type VARCHAR(100),
+    ADD COLUMN IF NOT EXISTS product_id BIGINT,
+    ADD COLUMN IF NOT EXISTS session_id VARCHAR(100);
+
+CREATE INDEX IF NOT EXISTS idx_customer_events_type_history
+    ON customer_events (customer_id, event_type, event_timestamp DESC, event_id DESC);
+CREATE INDEX IF NOT EXISTS idx_customer_events_product
+    ON customer_events (product_id, event_type, event_timestamp DESC);
+CREATE INDEX IF NOT EXISTS idx_customer_events_session
+    ON customer_events (session_id);
@@ -0,0 +1,21 @@
+-- Migrates a database created with the IDENTITY-era schema.sql to pooled sequence ids.
+-- Run once before deploying, e.g. psql -f pooled-id-sequences.sql retail_poc
+--
+-- The SERIAL columns keep their sequence defaults, so inserts made outside Hibernate
+-- still work. Hibernate's pooled optimizer treats each nextval as the top of a block
+-- of 50 ids, so the next block always starts above every id already handed out.
+
+BEGIN;
+
+ALTER SEQUENCE customers_customer_id_seq INCREMENT BY 50;
+ALTER SEQUENCE orders_order_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_items_order_item_id_seq INCREMENT BY 50;
+ALTER SEQUENCE customer_events_event_id_seq INCREMENT BY 50;
+
+-- Rows inserted with explicit ids may be ahead of their sequence
+SELECT setval('customers_customer_id_seq', GREATEST((SELECT COALESCE(MAX(customer_id), 0) FROM customers), last_value)) FROM customers_customer_id_seq;
+SELECT setval('orders_order_id_seq', GREATEST((SELECT COALESCE(MAX(order_id), 0) FROM orders), last_value)) FROM orders_order_id_seq;
+SELECT setval('order_items_order_item_id_seq', GREATEST((SELECT COALESCE(MAX(order_item_id), 0) FROM order_items), last_value)) FROM order_items_order_item_id_seq;
+SELECT setval('customer_events_event_id_seq', GREATEST((SELECT COALESCE(MAX(event_id), 0) FROM customer_events), last_value)) FROM customer_events_event_id_seq;
+
+COMMIT;
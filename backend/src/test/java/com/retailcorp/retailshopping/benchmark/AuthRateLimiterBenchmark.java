@@ -0,0 +1,78 @@
+package com.retailcorp.retailshopping.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.retailcorp.retailshopping.service.AuthRateLimiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Cost of AuthRateLimiter.acquire with 4 threads, i.e. what every login pays before
+// any database or BCrypt work.
+//   sharedKey    - all threads on one IP and email: worst-case CAS contention
+//   distinctKeys - each thread its own IP and email, the usual case
+// Limits are high enough that every check is admitted.
+//
+//   java -cp target/test-classes:target/classes:$(cat cp.txt) \
+//       com.retailcorp.retailshopping.benchmark.AuthRateLimiterBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AuthRateLimiterBenchmark {
+
+    private AuthRateLimiter limiter;
+
+    // Fresh buckets each iteration so the shared one never drains
+    @Setup(Level.Iteration)
+    public void setUp() {
+        limiter = new AuthRateLimiter(new SimpleMeterRegistry(), true, 100_000,
+                Integer.MAX_VALUE, Integer.MAX_VALUE, 1, 1);
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        String ip;
+        String email;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            long id = Thread.currentThread().threadId();
+            ip = "10.0.0." + id;
+            email = "user" + id + "@example.com";
+        }
+    }
+
+    @Benchmark
+    public void sharedKey() {
+        limiter.acquire(AuthRateLimiter.LOGIN, "10.0.0.1", "user@example.com");
+    }
+
+    @Benchmark
+    public void distinctKeys(Client client) {
+        limiter.acquire(AuthRateLimiter.LOGIN, client.ip, client.email);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(AuthRateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.retailcorp.retailshopping.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.retailcorp.retailshopping.dto.ProductResponse;
+
+// Deterministic synthetic catalogs shared by the benchmarks.
+final class CatalogFixtures {
+
+    static final String[] ADJECTIVES = {
+            "Wireless", "Ergonomic", "Compact", "Premium", "Portable", "Smart", "Classic", "Ultra",
+            "Eco", "Deluxe", "Rugged", "Slim", "Pro", "Mini", "Heavy Duty", "Adjustable"};
+    static final String[] NOUNS = {
+            "Laptop", "Mouse", "Keyboard", "Monitor", "Desk", "Chair", "Notebook", "Pen", "Cable",
+            "Headphones", "Speaker", "Lamp", "Backpack", "Charger", "Webcam", "Router", "Tablet",
+            "Printer", "Stapler", "Whiteboard", "Shelf", "Drawer", "Microphone", "Dock"};
+    static final String[][] CATEGORIES = {
+            {"Electronics", "Computers"}, {"Electronics", "Accessories"}, {"Electronics", "Displays"},
+            {"Electronics", "Audio"}, {"Furniture", "Seating"}, {"Furniture", "Desks"},
+            {"Furniture", "Storage"}, {"Stationery", "Paper Products"}, {"Stationery", "Writing Tools"},
+            {"Office", "Lighting"}};
+    static final String[] BRANDS = {
+            "TechBrand", "ComfortCo", "WriteCo", "BrightCo", "SoundWave", "DeskCraft", "PaperTrail",
+            "VoltEdge", "NordHome", "PixelPeak", "CoreLine", "Zenith"};
+
+    // Mix of common, rare and absent substrings
+    static final String[] QUERIES = {"laptop", "wireless mouse", "techbr", "desk", "pro 12", "zenith", "qqq"};
+
+    private CatalogFixtures() {
+    }
+
+    static List<ProductResponse> products(int count) {
+        Random random = new Random(42);
+        List<ProductResponse> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String[] category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            products.add(ProductResponse.builder()
+                    .productId((long) i)
+                    .productName(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                            + NOUNS[random.nextInt(NOUNS.length)] + " " + (100 + random.nextInt(900)))
+                    .category(category[0])
+                    .subcategory(category[1])
+                    .brand(BRANDS[random.nextInt(BRANDS.length)])
+                    .unitPrice(1 + random.nextInt(200_000) / 100.0)
+                    .stockQuantity(random.nextInt(500))
+                    .reorderLevel(10)
+                    .build());
+        }
+        return products;
+    }
+
+    // Creates the products table from schema.sql's definition and bulk-loads the catalog
+    static void loadProducts(Connection connection, List<ProductResponse> products) throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS products CASCADE");
+            ddl.execute("""
+                    CREATE TABLE products (
+                        product_id SERIAL PRIMARY KEY,
+                        product_name VARCHAR(200) NOT NULL,
+                        category VARCHAR(100) NOT NULL,
+                        subcategory VARCHAR(100),
+                        brand VARCHAR(100),
+                        unit_price NUMERIC(10,2) NOT NULL,
+                        cost_price NUMERIC(10,2),
+                        stock_quantity INT NOT NULL DEFAULT 0,
+                        reorder_level INT DEFAULT 10,
+                        is_active BOOLEAN NOT NULL DEFAULT TRUE,
+                        created_date DATE NOT NULL DEFAULT CURRENT_DATE,
+                        last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    )""");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO products (product_id, product_name, category, subcategory, brand, unit_price, stock_quantity, reorder_level) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            int pending = 0;
+            for (ProductResponse p : products) {
+                insert.setLong(1, p.getProductId());
+                insert.setString(2, p.getProductName());
+                insert.setString(3, p.getCategory());
+                insert.setString(4, p.getSubcategory());
+                insert.setString(5, p.getBrand());
+                insert.setDouble(6, p.getUnitPrice());
+                insert.setInt(7, p.getStockQuantity());
+                insert.setInt(8, p.getReorderLevel());
+                insert.addBatch();
+                if (++pending == 5_000) {
+                    insert.executeBatch();
+                    pending = 0;
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (Statement analyze = connection.createStatement()) {
+            analyze.execute("ANALYZE products");
+        }
+    }
+}
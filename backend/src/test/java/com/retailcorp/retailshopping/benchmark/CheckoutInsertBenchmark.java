@@ -0,0 +1,199 @@
+package com.retailcorp.retailshopping.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+// Checkout write latency against line count, replaying the statements Hibernate
+// issues for orderRepository.save(order):
+//   identity - every row is its own INSERT ... RETURNING round trip (IDENTITY ids)
+//   pooled   - ids come from a sequence 50 at a time, and the items go out as one
+//              batch, rewritten by the driver into a multi-row INSERT
+// Needs Docker (Testcontainers Postgres 15).
+//
+//   java -cp target/test-classes:target/classes:$(cat cp.txt) \
+//       com.retailcorp.retailshopping.benchmark.CheckoutInsertBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckoutInsertBenchmark {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Param({"1", "10", "30", "100"})
+    public int lines;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private PreparedStatement identityOrder;
+    private PreparedStatement identityItem;
+    private PreparedStatement nextOrderId;
+    private PreparedStatement nextItemId;
+    private PreparedStatement pooledOrder;
+    private PreparedStatement pooledItem;
+    private long orderHi;
+    private long orderNext;
+    private long itemHi;
+    private long itemNext;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        postgres = new PostgreSQLContainer<>("postgres:15");
+        postgres.start();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl() + "&reWriteBatchedInserts=true",
+                postgres.getUsername(), postgres.getPassword());
+        CatalogFixtures.loadProducts(connection, CatalogFixtures.products(1_000));
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("""
+                    CREATE TABLE orders (
+                        order_id SERIAL PRIMARY KEY,
+                        customer_id INT NOT NULL,
+                        order_date TIMESTAMP NOT NULL,
+                        order_status VARCHAR(50) NOT NULL,
+                        total_amount NUMERIC(10,2) NOT NULL,
+                        payment_method VARCHAR(50) NOT NULL,
+                        shipping_address VARCHAR(500) NOT NULL,
+                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    )""");
+            ddl.execute("""
+                    CREATE TABLE order_items (
+                        order_item_id SERIAL PRIMARY KEY,
+                        order_id INT NOT NULL REFERENCES orders(order_id),
+                        product_id INT NOT NULL REFERENCES products(product_id),
+                        quantity INT NOT NULL,
+                        unit_price NUMERIC(10,2) NOT NULL,
+                        discount_percent NUMERIC(5,2) DEFAULT 0,
+                        line_total NUMERIC(10,2)
+                    )""");
+            ddl.execute("CREATE SEQUENCE orders_pooled_seq INCREMENT BY " + ALLOCATION_SIZE);
+            ddl.execute("CREATE SEQUENCE order_items_pooled_seq INCREMENT BY " + ALLOCATION_SIZE);
+        }
+        connection.setAutoCommit(false);
+
+        String orderColumns = "customer_id, order_date, order_status, total_amount, payment_method, shipping_address";
+        String itemColumns = "order_id, product_id, quantity, unit_price, discount_percent, line_total";
+        identityOrder = connection.prepareStatement(
+                "INSERT INTO orders (" + orderColumns + ") VALUES (?, ?, ?, ?, ?, ?) RETURNING order_id");
+        identityItem = connection.prepareStatement(
+                "INSERT INTO order_items (" + itemColumns + ") VALUES (?, ?, ?, ?, ?, ?) RETURNING order_item_id");
+        nextOrderId = connection.prepareStatement("SELECT nextval('orders_pooled_seq')");
+        nextItemId = connection.prepareStatement("SELECT nextval('order_items_pooled_seq')");
+        pooledOrder = connection.prepareStatement(
+                "INSERT INTO orders (order_id, " + orderColumns + ") VALUES (?, ?, ?, ?, ?, ?, ?)");
+        pooledItem = connection.prepareStatement(
+                "INSERT INTO order_items (order_item_id, " + itemColumns + ") VALUES (?, ?, ?, ?, ?, ?, ?)");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws Exception {
+        connection.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public long identity() throws Exception {
+        bindOrder(identityOrder, 1);
+        long orderId;
+        try (ResultSet rs = identityOrder.executeQuery()) {
+            rs.next();
+            orderId = rs.getLong(1);
+        }
+        for (int i = 0; i < lines; i++) {
+            bindItem(identityItem, 1, orderId, i);
+            try (ResultSet rs = identityItem.executeQuery()) {
+                rs.next();
+            }
+        }
+        connection.commit();
+        return orderId;
+    }
+
+    @Benchmark
+    public long pooled() throws Exception {
+        long orderId = nextOrderId();
+        pooledOrder.setLong(1, orderId);
+        bindOrder(pooledOrder, 2);
+        pooledOrder.executeUpdate();
+        for (int i = 0; i < lines; i++) {
+            pooledItem.setLong(1, nextItemId());
+            bindItem(pooledItem, 2, orderId, i);
+            pooledItem.addBatch();
+        }
+        pooledItem.executeBatch();
+        connection.commit();
+        return orderId;
+    }
+
+    // Hibernate's pooled optimizer: each nextval is the top of a block of ALLOCATION_SIZE ids
+    private long nextOrderId() throws Exception {
+        if (orderNext >= orderHi) {
+            orderHi = nextval(nextOrderId);
+            orderNext = orderHi - ALLOCATION_SIZE;
+        }
+        return ++orderNext;
+    }
+
+    private long nextItemId() throws Exception {
+        if (itemNext >= itemHi) {
+            itemHi = nextval(nextItemId);
+            itemNext = itemHi - ALLOCATION_SIZE;
+        }
+        return ++itemNext;
+    }
+
+    private static long nextval(PreparedStatement sequence) throws Exception {
+        try (ResultSet rs = sequence.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void bindOrder(PreparedStatement insert, int first) throws Exception {
+        insert.setLong(first, 1L);
+        insert.setTimestamp(first + 1, Timestamp.valueOf(LocalDateTime.now()));
+        insert.setString(first + 2, "Processing");
+        insert.setDouble(first + 3, 99.5);
+        insert.setString(first + 4, "Credit Card");
+        insert.setString(first + 5, "123 Main St");
+    }
+
+    private static void bindItem(PreparedStatement insert, int first, long orderId, int line) throws Exception {
+        insert.setLong(first, orderId);
+        insert.setLong(first + 1, 1 + line % 1_000);
+        insert.setInt(first + 2, 1);
+        insert.setDouble(first + 3, 9.95);
+        insert.setDouble(first + 4, 0);
+        insert.setDouble(first + 5, 9.95);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(CheckoutInsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,72 @@
+package com.retailcorp.retailshopping.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.retailcorp.retailshopping.service.EmailBloomFilter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// EmailBloomFilter.mightContain at production sizing (50M emails, 1%), filled to
+// capacity, i.e. the price registration pays instead of an existsByEmail round trip.
+//   newEmail        - not registered, the common case the filter answers alone
+//   registeredEmail - registered, all k probes hit
+//
+//   java -Xmx1g -cp target/test-classes:target/classes:$(cat cp.txt) \
+//       com.retailcorp.retailshopping.benchmark.EmailBloomFilterBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class EmailBloomFilterBenchmark {
+
+    private static final int CUSTOMERS = 50_000_000;
+
+    private EmailBloomFilter filter;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filter = new EmailBloomFilter(null, new SimpleMeterRegistry(), true, CUSTOMERS, 0.01, 10_000);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            filter.put("customer" + i + "@example.com");
+        }
+        markLoaded(filter);
+    }
+
+    @Benchmark
+    public boolean newEmail() {
+        return filter.mightContain("stranger" + (next++) + "@example.org");
+    }
+
+    @Benchmark
+    public boolean registeredEmail() {
+        return filter.mightContain("customer" + (next++ % CUSTOMERS) + "@example.com");
+    }
+
+    private static void markLoaded(EmailBloomFilter filter) {
+        ReflectionTestUtils.setField(filter, "loaded", true);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(EmailBloomFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
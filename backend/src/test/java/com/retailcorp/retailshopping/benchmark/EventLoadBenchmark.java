@@ -0,0 +1,145 @@
+package com.retailcorp.retailshopping.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.retailcorp.retailshopping.entity.CustomerEvent;
+import com.retailcorp.retailshopping.repository.CustomerEventBulkWriter;
+
+// Rows/sec loading click-stream into customer_events, one transaction per run of
+// ROWS events. Scores are rows per second (@OperationsPerInvocation):
+//   batchInsert - multi-row INSERT batches of 500, the /api/events/batch path
+//   copy        - COPY FROM STDIN in 10k-row chunks, the bulk loader path
+// Needs Docker (Testcontainers Postgres 15).
+//
+//   java -cp target/test-classes:target/classes:$(cat cp.txt) \
+//       com.retailcorp.retailshopping.benchmark.EventLoadBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventLoadBenchmark {
+
+    static final int ROWS = 100_000;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        postgres = new PostgreSQLContainer<>("postgres:15");
+        postgres.start();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl() + "&reWriteBatchedInserts=true",
+                postgres.getUsername(), postgres.getPassword());
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("""
+                    CREATE TABLE customer_events (
+                        event_id SERIAL PRIMARY KEY,
+                        customer_id INT,
+                        event_timestamp TIMESTAMP,
+                        event_data JSONB,
+                        event_type VARCHAR(100),
+                        product_id BIGINT,
+                        session_id VARCHAR(100),
+                        load_timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    )""");
+            ddl.execute("ALTER SEQUENCE customer_events_event_id_seq INCREMENT BY 50");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    // Keeps the table (and its index) the same size for every iteration
+    @Setup(Level.Iteration)
+    public void truncate() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE customer_events");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws Exception {
+        connection.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void batchInsert() throws Exception {
+        Iterator<CustomerEvent> events = events();
+        List<CustomerEvent> batch = new ArrayList<>(500);
+        while (events.hasNext()) {
+            batch.add(events.next());
+            if (batch.size() == 500 || !events.hasNext()) {
+                CustomerEventBulkWriter.insertBatch(connection, batch);
+                batch.clear();
+            }
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long copy() throws Exception {
+        long rows = CustomerEventBulkWriter.copy(connection, events(), 10_000);
+        connection.commit();
+        return rows;
+    }
+
+    // Generated on demand, like lines read from a file
+    private static Iterator<CustomerEvent> events() {
+        LocalDateTime now = LocalDateTime.now();
+        String[] types = {"page_view", "click", "cart_add", "search"};
+        return new Iterator<>() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < ROWS;
+            }
+
+            @Override
+            public CustomerEvent next() {
+                CustomerEvent event = new CustomerEvent();
+                event.setCustomerId((long) (i % 5_000) + 1);
+                event.setEventTimestamp(now.minusSeconds(ROWS - i));
+                event.setEventData("{\"event_type\":\"" + types[i % types.length]
+                        + "\",\"productId\":" + (i % 1_000 + 1) + ",\"session\":\"s-" + (i / 20) + "\"}");
+                event.setLoadTimestamp(now);
+                i++;
+                return event;
+            }
+        };
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(EventLoadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.retailcorp.retailshopping.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailcorp.retailshopping.dto.EventHistoryFilter;
+import com.retailcorp.retailshopping.entity.CustomerEvent;
+import com.retailcorp.retailshopping.repository.CustomerEventRepository;
+import com.retailcorp.retailshopping.service.EventService;
+
+// GET /api/events/customer/{id} minus the database: EventService builds the
+// responses and Spring's ObjectMapper writes them, as the controller would.
+//   parsed - event_data is read into a Map and serialized back (events.read.raw-json=false)
+//   raw    - the stored jsonb text is copied into the response verbatim
+//
+//   java -cp target/test-classes:target/classes:$(cat cp.txt) \
+//       com.retailcorp.retailshopping.benchmark.EventResponseBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventResponseBenchmark {
+
+    @Param({"100", "1000"})
+    public int events;
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private EventService parsed;
+    private EventService raw;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CustomerEventRepository repository = mock(CustomerEventRepository.class);
+        when(repository.findHistoryPage(1L, EventHistoryFilter.builder().build(), null, null, events + 1)).thenReturn(history(events));
+        parsed = service(repository, false);
+        raw = service(repository, true);
+    }
+
+    @Benchmark
+    public byte[] parsed() throws Exception {
+        return json.writeValueAsBytes(parsed.getEventsForCustomer(1L, EventHistoryFilter.builder().build(), events, null).getItems());
+    }
+
+    @Benchmark
+    public byte[] raw() throws Exception {
+        return json.writeValueAsBytes(raw.getEventsForCustomer(1L, EventHistoryFilter.builder().build(), events, null).getItems());
+    }
+
+    private static EventService service(CustomerEventRepository repository, boolean rawJson) {
+        EventService service = new EventService(repository, null);
+        ReflectionTestUtils.setField(service, "rawJson", rawJson);
+        ReflectionTestUtils.setField(service, "maxPageSize", 1000);
+        return service;
+    }
+
+    // Click-stream shaped payloads, formatted the way Postgres returns jsonb
+    private static List<CustomerEvent> history(int n) {
+        String[] types = {"page_view", "click", "cart_add", "search"};
+        LocalDateTime now = LocalDateTime.now();
+        List<CustomerEvent> history = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            CustomerEvent event = new CustomerEvent();
+            event.setEventId((long) i + 1);
+            event.setCustomerId(1L);
+            event.setEventTimestamp(now.minusMinutes(i));
+            event.setLoadTimestamp(now);
+            event.setEventData("{\"page\": \"/products/" + (i % 500) + "\", \"device\": {\"os\": \"ios\", \"app\": \"4.2.1\"}, "
+                    + "\"session\": \"s-" + (i / 20) + "\", \"productId\": " + (i % 500) + ", "
+                    + "\"event_type\": \"" + types[i % types.length] + "\", \"referrer\": \"search\", "
+                    + "\"categories\": [\"Electronics\", \"Audio\"]}");
+            history.add(event);
+        }
+        return history;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(EventResponseBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package com.retailcorp.retailshopping.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.retailcorp.retailshopping.service.JwtTokenProvider;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+// Token work JwtAuthenticationFilter does per authenticated request.
+//   perCallParsers - the old path: validateToken then getEmailFromToken, each rebuilding
+//                    the HMAC key and a parser and verifying the signature
+//   parseAndValidate - cached key and parser, one verification
+//
+//   java -cp target/test-classes:target/classes:$(cat cp.txt) \
+//       com.retailcorp.retailshopping.benchmark.JwtAuthBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "p9d7f6g8h2j1k4l5m6n7o8p9q0r1s2t3";
+
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpiration", 86400000L);
+        provider.init();
+        token = provider.generateToken("bench.user@example.com");
+    }
+
+    @Benchmark
+    public String perCallParsers() {
+        Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String parseAndValidate() {
+        return provider.parseAndValidate(token).orElseThrow().getSubject();
+    }
+
+    private static Key key() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
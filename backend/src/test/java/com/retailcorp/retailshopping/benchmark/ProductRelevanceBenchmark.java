@@ -0,0 +1,68 @@
+package com.retailcorp.retailshopping.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.retailcorp.retailshopping.dto.ProductResponse;
+import com.retailcorp.retailshopping.service.ProductRelevanceIndex;
+
+// Latency distribution of ranked, typo-tolerant search. The target is a p99 under
+// 5 ms at 500k products; read it from the p0.99 line of the sample-time output.
+//
+//   java -cp target/test-classes:target/classes:$(cat cp.txt) \
+//       com.retailcorp.retailshopping.benchmark.ProductRelevanceBenchmark
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ProductRelevanceBenchmark {
+
+    // Broad, narrow, multi-term, misspelt and absent queries
+    static final String[] QUERIES = {
+            "laptop", "wireless mouse", "techbrand", "electronics", "labtop", "ergonmic chair",
+            "heavy duty shelf", "zenith 512", "headphnoes", "qqqqq"};
+
+    @Param({"100000", "500000"})
+    public int catalogSize;
+
+    @Param({"20"})
+    public int limit;
+
+    private ProductRelevanceIndex index;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void build() {
+        List<ProductResponse> products = CatalogFixtures.products(catalogSize);
+        index = ProductRelevanceIndex.build(products);
+    }
+
+    @Benchmark
+    public List<ProductResponse> rankedSearch() {
+        next = (next + 1) % QUERIES.length;
+        return index.search(QUERIES[next], limit, null);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ProductRelevanceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,166 @@
+package com.retailcorp.retailshopping.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.retailcorp.retailshopping.dto.ProductResponse;
+import com.retailcorp.retailshopping.service.ProductSearchIndex;
+
+// Compares the trigram index with the ILIKE query that
+// ProductRepository.findByProductNameContainingIgnoreCaseOr... generates.
+// The repository variant needs Docker (Testcontainers Postgres 15).
+// oneProductUpdate and fullRebuild compare what a catalog refresh pays to apply a single
+// changed product incrementally (with()) against rebuilding the index.
+//
+//   mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+//   java -cp target/test-classes:target/classes:$(cat cp.txt) \
+//       com.retailcorp.retailshopping.benchmark.ProductSearchBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    private List<ProductResponse> products;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        products = CatalogFixtures.products(catalogSize);
+    }
+
+    String nextQuery() {
+        next = (next + 1) % CatalogFixtures.QUERIES.length;
+        return CatalogFixtures.QUERIES[next];
+    }
+
+    @State(Scope.Benchmark)
+    public static class IndexState {
+        ProductSearchIndex index;
+
+        @Setup(Level.Trial)
+        public void build(ProductSearchBenchmark bench) {
+            index = ProductSearchIndex.build(bench.products);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class UpdateState {
+        ProductSearchIndex index;
+        List<ProductResponse> changed;
+
+        @Setup(Level.Trial)
+        public void build(ProductSearchBenchmark bench) {
+            index = ProductSearchIndex.build(bench.products);
+            ProductResponse product = bench.products.get(bench.products.size() / 2);
+            changed = List.of(ProductResponse.builder()
+                    .productId(product.getProductId())
+                    .productName(product.getProductName() + " Pro")
+                    .category(product.getCategory())
+                    .subcategory(product.getSubcategory())
+                    .brand(product.getBrand())
+                    .unitPrice(product.getUnitPrice())
+                    .stockQuantity(product.getStockQuantity())
+                    .reorderLevel(product.getReorderLevel())
+                    .build());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class DatabaseState {
+        PostgreSQLContainer<?> postgres;
+        Connection connection;
+        PreparedStatement query;
+
+        @Setup(Level.Trial)
+        public void start(ProductSearchBenchmark bench) throws Exception {
+            postgres = new PostgreSQLContainer<>("postgres:15");
+            postgres.start();
+            connection = DriverManager.getConnection(
+                    postgres.getJdbcUrl() + "&reWriteBatchedInserts=true", postgres.getUsername(), postgres.getPassword());
+            CatalogFixtures.loadProducts(connection, bench.products);
+            query = connection.prepareStatement("""
+                    SELECT product_id, product_name, category, subcategory, brand, unit_price, stock_quantity, reorder_level
+                    FROM products p
+                    WHERE upper(p.product_name) LIKE upper(?) ESCAPE '\\'
+                       OR upper(p.category) LIKE upper(?) ESCAPE '\\'
+                       OR upper(p.brand) LIKE upper(?) ESCAPE '\\'""");
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws Exception {
+            connection.close();
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    public void trigramIndex(IndexState state, Blackhole bh) {
+        bh.consume(state.index.search(nextQuery()));
+    }
+
+    @Benchmark
+    public void oneProductUpdate(UpdateState state, Blackhole bh) {
+        bh.consume(state.index.with(state.changed));
+    }
+
+    @Benchmark
+    public void fullRebuild(Blackhole bh) {
+        bh.consume(ProductSearchIndex.build(products));
+    }
+
+    @Benchmark
+    public void repositoryQuery(DatabaseState state, Blackhole bh) throws Exception {
+        String pattern = "%" + nextQuery() + "%";
+        state.query.setString(1, pattern);
+        state.query.setString(2, pattern);
+        state.query.setString(3, pattern);
+        try (ResultSet rs = state.query.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(ProductResponse.builder()
+                        .productId(rs.getLong(1))
+                        .productName(rs.getString(2))
+                        .category(rs.getString(3))
+                        .subcategory(rs.getString(4))
+                        .brand(rs.getString(5))
+                        .unitPrice(rs.getDouble(6))
+                        .stockQuantity(rs.getInt(7))
+                        .reorderLevel(rs.getInt(8))
+                        .build());
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ProductSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,133 @@
+package com.retailcorp.retailshopping.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+// Many checkouts racing for one hot SKU. Compares the conditional UPDATE used by
+// ProductRepository.reserveStock with a read-modify-write that locks the row
+// (SELECT ... FOR UPDATE, check in Java, UPDATE), which is what updating the
+// Product entity safely amounts to. Needs Docker (Testcontainers Postgres 15).
+//
+//   java -cp target/test-classes:target/classes:$(cat cp.txt) \
+//       com.retailcorp.retailshopping.benchmark.StockReservationBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+public class StockReservationBenchmark {
+
+    static final long HOT_SKU = 1L;
+
+    @State(Scope.Benchmark)
+    public static class Database {
+        PostgreSQLContainer<?> postgres;
+
+        @Setup(Level.Trial)
+        public void start() throws Exception {
+            postgres = new PostgreSQLContainer<>("postgres:15").withCommand("postgres", "-c", "max_connections=200");
+            postgres.start();
+            try (Connection connection = connect()) {
+                CatalogFixtures.loadProducts(connection, CatalogFixtures.products(1_000));
+            }
+        }
+
+        // Enough stock that no iteration runs out
+        @Setup(Level.Iteration)
+        public void restock() throws Exception {
+            try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE products SET stock_quantity = 1000000000 WHERE product_id = " + HOT_SKU);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            postgres.stop();
+        }
+
+        Connection connect() throws Exception {
+            return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        Connection connection;
+        PreparedStatement reserve;
+        PreparedStatement lock;
+        PreparedStatement write;
+
+        @Setup(Level.Trial)
+        public void open(Database database) throws Exception {
+            connection = database.connect();
+            connection.setAutoCommit(false);
+            reserve = connection.prepareStatement("UPDATE products "
+                    + "SET stock_quantity = stock_quantity - ?, last_updated = now() "
+                    + "WHERE product_id = ? AND stock_quantity >= ?");
+            lock = connection.prepareStatement("SELECT stock_quantity FROM products WHERE product_id = ? FOR UPDATE");
+            write = connection.prepareStatement(
+                    "UPDATE products SET stock_quantity = ?, last_updated = now() WHERE product_id = ?");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public boolean conditionalUpdate(Session session) throws Exception {
+        session.reserve.setInt(1, 1);
+        session.reserve.setLong(2, HOT_SKU);
+        session.reserve.setInt(3, 1);
+        boolean reserved = session.reserve.executeUpdate() == 1;
+        session.connection.commit();
+        return reserved;
+    }
+
+    @Benchmark
+    public boolean lockedReadModifyWrite(Session session) throws Exception {
+        session.lock.setLong(1, HOT_SKU);
+        int stock;
+        try (ResultSet rs = session.lock.executeQuery()) {
+            rs.next();
+            stock = rs.getInt(1);
+        }
+        boolean reserved = stock >= 1;
+        if (reserved) {
+            session.write.setInt(1, stock - 1);
+            session.write.setLong(2, HOT_SKU);
+            session.write.executeUpdate();
+        }
+        session.connection.commit();
+        return reserved;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(StockReservationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
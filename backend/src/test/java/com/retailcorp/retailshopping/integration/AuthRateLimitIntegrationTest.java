@@ -0,0 +1,42 @@
+package com.retailcorp.retailshopping.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The test client connects from 127.0.0.1, a trusted proxy address, so the limiter
+// must key on X-Forwarded-For rather than on the shared connection address
+@TestPropertySource(properties = {
+        "auth.rate-limit.enabled=true",
+        "auth.rate-limit.login.per-ip=2",
+        "auth.rate-limit.login.per-email=100"
+})
+public class AuthRateLimitIntegrationTest extends BaseIntegrationTest {
+
+    private ResponseEntity<String> login(String clientIp, String email) {
+        HttpHeaders headers = jsonHeaders();
+        headers.set("X-Forwarded-For", clientIp);
+        String body = """
+            { "email": "%s", "password": "wrong" }
+        """.formatted(email);
+        return rest.postForEntity("/api/auth/login", new HttpEntity<>(body, headers), String.class);
+    }
+
+    @Test
+    void testPerIpLimitKeysOnForwardedClientAddress() {
+        assertThat(login("203.0.113.7", "a@example.com").getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(login("203.0.113.7", "b@example.com").getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+
+        ResponseEntity<String> throttled = login("203.0.113.7", "c@example.com");
+        assertThat(throttled.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(throttled.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotBlank();
+
+        // Another client behind the same proxy still has its own budget
+        assertThat(login("198.51.100.20", "d@example.com").getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+}
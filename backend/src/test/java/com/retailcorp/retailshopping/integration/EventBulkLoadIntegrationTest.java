@@ -0,0 +1,93 @@
+package com.retailcorp.retailshopping.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import com.retailcorp.retailshopping.dto.EventHistoryFilter;
+import com.retailcorp.retailshopping.entity.CustomerEvent;
+import com.retailcorp.retailshopping.repository.CustomerEventRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "events.load.upload-enabled=true",
+        "events.load.chunk-rows=120"
+})
+public class EventBulkLoadIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private CustomerEventRepository eventRepository;
+
+    @BeforeEach
+    void setup() {
+        eventRepository.deleteAll();
+    }
+
+    private ResponseEntity<String> upload(String body) {
+        MultiValueMap<String, Object> parts = new LinkedMultiValueMap<>();
+        parts.add("file", new ByteArrayResource(body.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return "events.ndjson";
+            }
+        });
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        return rest.postForEntity("/api/admin/events/load", new HttpEntity<>(parts, headers), String.class);
+    }
+
+    @Test
+    void testUploadCopiesEveryLine() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            // Quotes, commas and newlines inside the JSON must survive COPY's csv quoting
+            body.append("""
+                    {"customerId": 9, "eventTimestamp": "2026-10-17T09:15:00", "eventData": {"seq": %d, "q": "a,\\"b\\"\\nc"}}
+                    """.formatted(i));
+        }
+
+        ResponseEntity<String> res = upload(body.toString());
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((Number) JsonPath.read(res.getBody(), "$.rows")).longValue()).isEqualTo(500L);
+
+        List<CustomerEvent> stored = history(9L);
+        assertThat(stored).hasSize(500);
+        assertThat(stored).extracting(CustomerEvent::getEventId).doesNotHaveDuplicates();
+        assertThat(stored.get(0).getEventData()).contains("a,\\\"b\\\"\\nc");
+    }
+
+    @Test
+    void testBadLineRollsBackTheWholeLoad() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            body.append("{\"customerId\": 9}\n");
+        }
+        body.append("{\"customerId\": \n");
+
+        ResponseEntity<String> res = upload(body.toString());
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(res.getBody()).startsWith("Line 301");
+        assertThat(history(9L)).isEmpty();
+    }
+
+    // Newest first, as the history endpoint pages it
+    private List<CustomerEvent> history(Long customerId) {
+        return eventRepository.findHistoryPage(customerId, EventHistoryFilter.builder().build(), null, null, 1000);
+    }
+}
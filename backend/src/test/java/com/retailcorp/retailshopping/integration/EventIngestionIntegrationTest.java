@@ -0,0 +1,79 @@
+package com.retailcorp.retailshopping.integration;
+
+import com.retailcorp.retailshopping.dto.EventHistoryFilter;
+import com.retailcorp.retailshopping.entity.CustomerEvent;
+import com.retailcorp.retailshopping.repository.CustomerEventRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "events.ingest.async=true",
+        "events.ingest.batch-size=20",
+        "events.ingest.flush-interval-ms=20"
+})
+public class EventIngestionIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private CustomerEventRepository eventRepository;
+
+    @BeforeEach
+    void setup() {
+        eventRepository.deleteAll();
+    }
+
+    @Test
+    void testAcceptedEventsAreWrittenInBatches() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            String body = """
+            {
+                "customerId": 7,
+                "eventData": {"event_type": "page_view", "seq": %d}
+            }
+            """.formatted(i);
+
+            ResponseEntity<String> res = rest.postForEntity(
+                    "/api/events",
+                    new HttpEntity<>(body, jsonHeaders()),
+                    String.class
+            );
+            assertThat(res.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        }
+
+        List<CustomerEvent> stored = List.of();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stored.size() < 50 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            stored = history(7L);
+        }
+
+        assertThat(stored).hasSize(50);
+        assertThat(stored).extracting(CustomerEvent::getEventId).doesNotHaveDuplicates();
+        assertThat(stored.get(0).getEventData()).contains("page_view");
+    }
+
+    @Test
+    void testMissingCustomerIdIsRejectedBeforeQueueing() {
+        ResponseEntity<String> res = rest.postForEntity(
+                "/api/events",
+                new HttpEntity<>("{\"eventData\": {\"event_type\": \"page_view\"}}", jsonHeaders()),
+                String.class
+        );
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    // Newest first, as the history endpoint pages it
+    private List<CustomerEvent> history(Long customerId) {
+        return eventRepository.findHistoryPage(customerId, EventHistoryFilter.builder().build(), null, null, 1000);
+    }
+}
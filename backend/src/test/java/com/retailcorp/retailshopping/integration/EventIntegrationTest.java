@@ -14,6 +14,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 public class EventIntegrationTest extends BaseIntegrationTest {
 
@@ -114,4 +116,107 @@ void testGetEventsForCustomer() {
 
     assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
 }
+
+    @Test
+    void testBatchEventsNdjson() {
+        String body = """
+            {"customerId": %d, "eventData": {"event_type": "page_view"}}
+            {"customerId": %d, "eventData": {"event_type": "cart_add", "productId": 101}}
+            {"eventData": {"event_type": "page_view"}}
+            """.formatted(customerId, customerId);
+
+        HttpHeaders headers = authHeaders(token);
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        ResponseEntity<String> res = rest.postForEntity(
+                "/api/events/batch",
+                new HttpEntity<>(body, headers),
+                String.class
+        );
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat((Integer) JsonPath.read(res.getBody(), "$.accepted")).isEqualTo(2);
+        assertThat((Integer) JsonPath.read(res.getBody(), "$.rejected")).isEqualTo(1);
+
+        ResponseEntity<String> events = rest.exchange(
+                "/api/events/customer/" + customerId,
+                HttpMethod.GET,
+                new HttpEntity<>(authHeaders(token)),
+                String.class
+        );
+        assertThat((Integer) JsonPath.read(events.getBody(), "$.length()")).isEqualTo(2);
+    }
+
+    @Test
+    void testEventHistoryPagesWithCursor() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            body.append("{\"customerId\": %d, \"eventData\": {\"seq\": %d}}\n".formatted(customerId, i));
+        }
+        HttpHeaders headers = authHeaders(token);
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        rest.postForEntity("/api/events/batch", new HttpEntity<>(body.toString(), headers), String.class);
+
+        List<Integer> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = "/api/customers/" + customerId + "/events?limit=2" + (cursor == null ? "" : "&cursor=" + cursor);
+            ResponseEntity<String> page = rest.exchange(url, HttpMethod.GET, new HttpEntity<>(authHeaders(token)), String.class);
+            assertThat(page.getStatusCode()).isEqualTo(HttpStatus.OK);
+            seen.addAll(JsonPath.read(page.getBody(), "$[*].eventId"));
+            cursor = page.getHeaders().getFirst("X-Next-Cursor");
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(5).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void testEventHistoryFiltersOnPromotedFields() {
+        String body = """
+                {"customerId": %1$d, "eventData": {"event_type": "VIEW", "product_id": 101}}
+                {"customerId": %1$d, "eventData": {"eventType": "VIEW", "productId": "102"}}
+                {"customerId": %1$d, "eventData": {"event_type": "PURCHASE", "product_id": 101}}
+                """.formatted(customerId);
+        HttpHeaders headers = authHeaders(token);
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        rest.postForEntity("/api/events/batch", new HttpEntity<>(body, headers), String.class);
+
+        ResponseEntity<String> views = rest.exchange(
+                "/api/events/customer/" + customerId + "?eventType=VIEW",
+                HttpMethod.GET, new HttpEntity<>(authHeaders(token)), String.class);
+        ResponseEntity<String> product = rest.exchange(
+                "/api/events/customer/" + customerId + "?eventType=VIEW&productId=101",
+                HttpMethod.GET, new HttpEntity<>(authHeaders(token)), String.class);
+
+        assertThat((Integer) JsonPath.read(views.getBody(), "$.length()")).isEqualTo(2);
+        assertThat((Integer) JsonPath.read(product.getBody(), "$.length()")).isEqualTo(1);
+        assertThat((Integer) JsonPath.read(product.getBody(), "$[0].eventData.product_id")).isEqualTo(101);
+    }
+
+    @Test
+    void testExportStreamsFullHistoryAsNdjson() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 25; i++) {
+            body.append("{\"customerId\": %d, \"eventData\": {\"seq\": %d}}\n".formatted(customerId, i));
+        }
+        HttpHeaders headers = authHeaders(token);
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        rest.postForEntity("/api/events/batch", new HttpEntity<>(body.toString(), headers), String.class);
+
+        ResponseEntity<String> res = rest.exchange(
+                "/api/events/customer/" + customerId + "/export",
+                HttpMethod.GET,
+                new HttpEntity<>(authHeaders(token)),
+                String.class
+        );
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String[] lines = res.getBody().split("\n");
+        assertThat(lines).hasSize(25);
+        assertThat((Integer) JsonPath.read(lines[0], "$.eventData.seq")).isEqualTo(0);
+        assertThat((Integer) JsonPath.read(lines[24], "$.eventData.seq")).isEqualTo(24);
+    }
 }
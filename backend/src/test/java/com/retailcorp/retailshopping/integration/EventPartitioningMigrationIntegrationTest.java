@@ -0,0 +1,161 @@
+package com.retailcorp.retailshopping.integration;
+
+import com.retailcorp.retailshopping.service.EventPartitionManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs db/customer-events-partitioning.sql against a pre-partitioning customer_events
+// holding rows from the past, the current month and the future. It works in its own
+// schema so the ddl-auto table the other tests use is left alone; the layout it ends
+// with is compared against schema.sql, run in a second schema.
+public class EventPartitioningMigrationIntegrationTest extends BaseIntegrationTest {
+
+    private static final String SCHEMA = "partitioning_migration";
+    private static final String REFERENCE_SCHEMA = "partitioning_reference";
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Connection connection;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setup() throws Exception {
+        connection = dataSource.getConnection();
+        jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbc.execute("CREATE SCHEMA " + SCHEMA);
+        jdbc.execute("SET search_path TO " + SCHEMA);
+
+        // The layout before partitioning
+        jdbc.execute("CREATE TABLE customer_events ("
+                + "event_id SERIAL PRIMARY KEY, customer_id INT, event_timestamp TIMESTAMP, "
+                + "event_data JSONB, load_timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        jdbc.execute("CREATE INDEX idx_customer_events_history "
+                + "ON customer_events (customer_id, event_timestamp DESC, event_id DESC)");
+        jdbc.update("INSERT INTO customer_events (customer_id, event_timestamp, event_data) VALUES "
+                + "(1, now() - interval '1 year', '{\"page\": \"old\"}'), "
+                + "(1, date_trunc('month', now()::timestamp), '{\"page\": \"month-start\"}'), "
+                + "(2, now(), '{\"page\": \"current\"}'), "
+                + "(3, NULL, '{\"page\": \"untimed\"}'), "
+                + "(4, now() + interval '5 years', '{\"page\": \"future\"}')");
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbc.execute("DROP SCHEMA IF EXISTS " + REFERENCE_SCHEMA + " CASCADE");
+        jdbc.execute("RESET search_path");
+        connection.close();
+    }
+
+    @Test
+    void testMigrationKeepsCurrentMonthRows() {
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/customer-events-partitioning.sql"));
+
+        assertThat(jdbc.queryForObject(
+                "SELECT count(*) FROM pg_partitioned_table WHERE partrelid = to_regclass('customer_events')",
+                Integer.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM customer_events", Integer.class)).isEqualTo(5);
+
+        // Current-month rows stay where they were; only the future-dated one moved
+        assertThat(jdbc.queryForList("SELECT event_data ->> 'page' FROM ONLY customer_events_legacy "
+                + "ORDER BY event_id", String.class))
+                .containsExactly("old", "month-start", "current", "untimed");
+        assertThat(jdbc.queryForList("SELECT event_data ->> 'page' FROM customer_events_default", String.class))
+                .containsExactly("future");
+
+        // New rows keep drawing ids from the old sequence
+        jdbc.update("INSERT INTO customer_events (customer_id, event_data) VALUES (5, '{\"page\": \"new\"}')");
+        assertThat(jdbc.queryForObject("SELECT max(event_id) FROM customer_events", Integer.class)).isEqualTo(6);
+    }
+
+    @Test
+    void testPartitionManagerStartsAfterTheLegacyPartition() {
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/customer-events-partitioning.sql"));
+
+        EventPartitionManager manager = new EventPartitionManager(jdbc);
+        ReflectionTestUtils.setField(manager, "enabled", true);
+        ReflectionTestUtils.setField(manager, "interval", "monthly");
+        ReflectionTestUtils.setField(manager, "premake", 2);
+        ReflectionTestUtils.setField(manager, "retention", 1);
+        ReflectionTestUtils.setField(manager, "expireAction", "drop");
+        manager.maintain();
+
+        List<String> partitions = jdbc.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = to_regclass('customer_events') ORDER BY c.relname",
+                String.class);
+        // The current month stays with the legacy partition, which retention never touches
+        assertThat(partitions).hasSize(4).contains("customer_events_legacy", "customer_events_default");
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM customer_events WHERE event_timestamp >= "
+                + "date_trunc('month', now()::timestamp) + interval '1 month' "
+                + "AND event_timestamp < date_trunc('month', now()::timestamp) + interval '3 months'",
+                Integer.class)).isZero();
+        jdbc.update("INSERT INTO customer_events (customer_id, event_timestamp) "
+                + "VALUES (6, date_trunc('month', now()::timestamp) + interval '1 month')");
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM customer_events_default", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void testMigrationMatchesSchemaSqlWhicheverScriptRunsFirst() {
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/customer-events-promoted-columns.sql"));
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/customer-events-partitioning.sql"));
+        // And again afterwards: the partitioned parent already has everything
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/customer-events-promoted-columns.sql"));
+
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM customer_events", Integer.class)).isEqualTo(5);
+        jdbc.update("INSERT INTO customer_events (customer_id, event_type, product_id, session_id) "
+                + "VALUES (5, 'purchase', 42, 's-1')");
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM customer_events WHERE product_id = 42",
+                Integer.class)).isEqualTo(1);
+
+        List<String> migrated = layout(SCHEMA);
+        jdbc.execute("CREATE SCHEMA " + REFERENCE_SCHEMA);
+        jdbc.execute("SET search_path TO " + REFERENCE_SCHEMA);
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+        jdbc.execute("SET search_path TO " + SCHEMA);
+
+        // schema.sql also has the GIN index, which its own script adds afterwards
+        assertThat(migrated).containsExactlyInAnyOrderElementsOf(layout(REFERENCE_SCHEMA).stream()
+                .filter(entry -> !entry.equals("index idx_customer_events_data"))
+                .toList());
+    }
+
+    @Test
+    void testPromotedColumnsRunAfterTheMigration() {
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/customer-events-partitioning.sql"));
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/customer-events-promoted-columns.sql"));
+
+        assertThat(layout(SCHEMA)).contains("column session_id character varying",
+                "index idx_customer_events_type_history", "index idx_customer_events_product",
+                "index idx_customer_events_session");
+    }
+
+    // Columns and indexes of customer_events in the schema, as comparable strings
+    private List<String> layout(String schema) {
+        List<String> layout = new ArrayList<>(jdbc.queryForList(
+                "SELECT 'column ' || column_name || ' ' || data_type FROM information_schema.columns "
+                        + "WHERE table_schema = ? AND table_name = 'customer_events'",
+                String.class, schema));
+        layout.addAll(jdbc.queryForList(
+                "SELECT 'index ' || indexname FROM pg_indexes WHERE schemaname = ? AND tablename = 'customer_events'",
+                String.class, schema));
+        return layout;
+    }
+}
@@ -0,0 +1,90 @@
+package com.retailcorp.retailshopping.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import com.retailcorp.retailshopping.entity.CustomerEvent;
+import com.retailcorp.retailshopping.repository.CustomerEventRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventSearchIntegrationTest extends BaseIntegrationTest {
+
+    private static final int EVENTS = 5000;
+
+    @Autowired
+    private CustomerEventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        eventRepository.deleteAll();
+        // ddl-auto builds the table from the entity; the GIN index is schema.sql's
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_customer_events_data "
+                + "ON customer_events USING GIN (event_data jsonb_path_ops)");
+
+        LocalDateTime start = LocalDateTime.of(2026, 10, 1, 0, 0);
+        List<CustomerEvent> events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            CustomerEvent event = new CustomerEvent();
+            event.setCustomerId((long) (i % 50));
+            event.setEventTimestamp(start.plusMinutes(i));
+            event.setLoadTimestamp(start);
+            // One event in a thousand is on the page the tests look for
+            String page = i % 1000 == 0 ? "product_details" : "listing_" + (i % 40);
+            event.setEventData("{\"page\": \"%s\", \"seq\": %d, \"device\": \"%s\"}"
+                    .formatted(page, i, i % 2 == 0 ? "mobile" : "desktop"));
+            events.add(event);
+        }
+        eventRepository.copyIn(events.iterator(), 1000);
+        jdbcTemplate.execute("ANALYZE customer_events");
+    }
+
+    @Test
+    void testContainmentQueryUsesGinIndex() {
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM customer_events WHERE event_data @> CAST(? AS jsonb) "
+                        + "ORDER BY event_timestamp DESC, event_id DESC LIMIT 100",
+                String.class, "{\"page\": \"product_details\"}");
+
+        assertThat(String.join("\n", plan))
+                .contains("idx_customer_events_data")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void testSearchReturnsNewestMatchesFirst() {
+        ResponseEntity<String> res = rest.postForEntity("/api/events/search",
+                new HttpEntity<>("""
+                        {"eventData": {"page": "product_details", "device": "mobile"}, "limit": 3}
+                        """, jsonHeaders()),
+                String.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<Integer> seqs = JsonPath.read(res.getBody(), "$[*].eventData.seq");
+        assertThat(seqs).containsExactly(4000, 3000, 2000);
+    }
+
+    @Test
+    void testSearchRejectsNestedFilterValues() {
+        ResponseEntity<String> res = rest.postForEntity("/api/events/search",
+                new HttpEntity<>("""
+                        {"eventData": {"page": {"name": "product_details"}}}
+                        """, jsonHeaders()),
+                String.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+}
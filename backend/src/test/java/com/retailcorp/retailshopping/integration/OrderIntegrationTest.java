@@ -2,10 +2,17 @@ package com.retailcorp.retailshopping.integration;
 
 import com.jayway.jsonpath.JsonPath;
 import com.retailcorp.retailshopping.entity.Customer;
+import com.retailcorp.retailshopping.entity.Order;
+import com.retailcorp.retailshopping.entity.OrderItem;
 import com.retailcorp.retailshopping.entity.Product;
 import com.retailcorp.retailshopping.repository.CustomerRepository;
+import com.retailcorp.retailshopping.repository.OrderRepository;
 import com.retailcorp.retailshopping.repository.ProductRepository;
 
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +23,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class OrderIntegrationTest extends BaseIntegrationTest {
 
@@ -28,11 +41,18 @@ private CustomerRepository customerRepository;
 @Autowired
 private ProductRepository productRepository;
 
+@Autowired
+private OrderRepository orderRepository;
+
+@Autowired
+private EntityManagerFactory entityManagerFactory;
+
 @Autowired
 private PasswordEncoder passwordEncoder;
 
     @BeforeEach
     void setup() {
+    orderRepository.deleteAll();
     customerRepository.deleteAll();
     productRepository.deleteAll();
 
@@ -136,4 +156,156 @@ void testGetOrdersByCustomer() {
 
     assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
 }
+
+    @Test
+    void testOrderHistoryUsesBoundedQueryCount() {
+        for (int i = 0; i < 25; i++) {
+            Order order = new Order();
+            order.setCustomerId(customerId);
+            order.setOrderDate(LocalDateTime.now());
+            order.setOrderStatus("Delivered");
+            order.setTotalAmount(3899.97);
+            order.setPaymentMethod("Credit Card");
+            order.setShippingAddress("123 Main St");
+
+            List<OrderItem> items = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setProductId(101L);
+                item.setQuantity(1);
+                item.setUnitPrice(1299.99);
+                item.setLineTotal(1299.99);
+                items.add(item);
+            }
+            order.setItems(items);
+            orderRepository.save(order);
+        }
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        ResponseEntity<String> res = rest.getForEntity("/api/orders/customer/" + customerId, String.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<Object> orders = JsonPath.read(res.getBody(), "$");
+        assertThat(orders).hasSize(25);
+        assertThat((String) JsonPath.read(res.getBody(), "$[0].items[0].productName")).isEqualTo("Laptop Pro 15");
+
+        // One query for orders with their items, one for the product names
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void testCheckoutReservesStock() {
+        ResponseEntity<String> res = checkout(101, 3);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(productRepository.findById(101L).orElseThrow().getStockQuantity()).isEqualTo(47);
+    }
+
+    @Test
+    void testCheckoutBeyondStockIsRejectedAndRolledBack() {
+        Product second = productRepository.findById(101L).orElseThrow();
+        second.setProductId(102L);
+        second.setStockQuantity(1);
+        productRepository.save(second);
+
+        String body = """
+        {
+            "customerId": %d,
+            "paymentMethod": "Credit Card",
+            "shippingAddress": "123 Main St",
+            "items": [
+                {"productId": 101, "quantity": 5},
+                {"productId": 102, "quantity": 2}
+            ]
+        }
+        """.formatted(customerId);
+
+        ResponseEntity<String> res = rest.postForEntity(
+                "/api/orders/checkout",
+                new HttpEntity<>(body, authHeaders(token)),
+                String.class
+        );
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(res.getBody()).isEqualTo("Insufficient stock for product ID: 102");
+        // product 101 was decremented first in the batch and must be restored by the rollback
+        assertThat(productRepository.findById(101L).orElseThrow().getStockQuantity()).isEqualTo(50);
+        assertThat(orderRepository.count()).isZero();
+    }
+
+    @Test
+    void testConcurrentCheckoutsNeverOversell() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<HttpStatus>> buyers = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                buyers.add(() -> HttpStatus.valueOf(checkout(101, 5).getStatusCode().value()));
+            }
+            int accepted = 0;
+            for (Future<HttpStatus> result : pool.invokeAll(buyers)) {
+                if (result.get() == HttpStatus.OK) {
+                    accepted++;
+                }
+            }
+
+            // 50 in stock, 5 per order
+            assertThat(accepted).isEqualTo(10);
+            assertThat(productRepository.findById(101L).orElseThrow().getStockQuantity()).isZero();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testLargeCheckoutBatchesItemInserts() {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            items.append(i == 0 ? "" : ",").append("{\"productId\": 101, \"quantity\": 1}");
+        }
+        String body = """
+        {
+            "customerId": %d,
+            "paymentMethod": "Credit Card",
+            "shippingAddress": "123 Main St",
+            "items": [%s]
+        }
+        """.formatted(customerId, items);
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        ResponseEntity<String> res = rest.postForEntity(
+                "/api/orders/checkout",
+                new HttpEntity<>(body, authHeaders(token)),
+                String.class
+        );
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<Object> saved = JsonPath.read(res.getBody(), "$.items");
+        assertThat(saved).hasSize(30);
+        // The 30 order_items rows go out as one JDBC batch instead of 30 single-row inserts
+        assertThat(stats.getPrepareStatementCount()).isLessThan(15);
+    }
+
+    private ResponseEntity<String> checkout(long productId, int quantity) {
+        String body = """
+        {
+            "customerId": %d,
+            "paymentMethod": "Credit Card",
+            "shippingAddress": "123 Main St",
+            "items": [
+                {"productId": %d, "quantity": %d}
+            ]
+        }
+        """.formatted(customerId, productId, quantity);
+
+        return rest.postForEntity(
+                "/api/orders/checkout",
+                new HttpEntity<>(body, authHeaders(token)),
+                String.class
+        );
+    }
 }
@@ -1,12 +1,24 @@
 package com.retailcorp.retailshopping.integration;
 
+import com.jayway.jsonpath.JsonPath;
+import com.retailcorp.retailshopping.entity.Product;
+import com.retailcorp.retailshopping.repository.ProductRepository;
+
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
 public class ProductIntegrationTest extends BaseIntegrationTest {
 
+    @Autowired
+    private ProductRepository productRepository;
+
     @Test
     void testListProducts() {
         ResponseEntity<String> res = rest.getForEntity("/api/products", String.class);
@@ -20,4 +32,41 @@ public class ProductIntegrationTest extends BaseIntegrationTest {
 
         assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
     }
+
+    @Test
+    void testKeysetPaginationWithFieldProjection() {
+        for (long id = 9001; id <= 9003; id++) {
+            Product product = new Product();
+            product.setProductId(id);
+            product.setProductName("Paged Product " + id);
+            product.setCategory("Test");
+            product.setUnitPrice(10.0);
+            product.setStockQuantity(1);
+            product.setIsActive(true);
+            product.setCreatedDate(LocalDate.now());
+            productRepository.save(product);
+        }
+
+        ResponseEntity<String> first = rest.getForEntity(
+                "/api/products?after=9000&limit=2&fields=productName", String.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("9002");
+        List<Map<String, Object>> items = JsonPath.read(first.getBody(), "$");
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0)).containsOnlyKeys("productId", "productName");
+        assertThat(items.get(0)).containsEntry("productName", "Paged Product 9001");
+
+        ResponseEntity<String> second = rest.getForEntity("/api/products?after=9002&limit=2", String.class);
+
+        assertThat(second.getHeaders().containsKey("X-Next-Cursor")).isFalse();
+        assertThat((Integer) JsonPath.read(second.getBody(), "$[0].productId")).isEqualTo(9003);
+    }
+
+    @Test
+    void testUnknownFieldIsRejected() {
+        ResponseEntity<String> res = rest.getForEntity("/api/products?limit=5&fields=costPrice", String.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
 }
@@ -0,0 +1,114 @@
+package com.retailcorp.retailshopping.unit.config;
+
+import com.retailcorp.retailshopping.config.BoundedPasswordEncoder;
+import com.retailcorp.retailshopping.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    // Delegate that holds each hash until released, so the pool can be filled on demand
+    private static PasswordEncoder blocking(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence raw) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + raw;
+            }
+
+            @Override
+            public boolean matches(CharSequence raw, String encoded) {
+                return encoded.equals(encode(raw));
+            }
+        };
+    }
+
+    @Test
+    void encodeAndMatches_delegateToBcryptAndRecordTimings() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), registry, 2, 4, 5000);
+
+        String hash = encoder.encode("Password123");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(encoder.matches("Password123", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        assertThat(registry.get("auth.password.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(registry.get("auth.password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+        assertThat(registry.get("auth.password.queue").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void fullQueue_rejectsImmediately() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blocking(started, release), registry, 1, 1, 5000);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (registry.get("auth.password.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> encoder.encode("c"))
+                .isInstanceOf(PasswordHashingBusyException.class)
+                .hasMessage("Too many sign-in requests, retry later");
+        assertThat(registry.get("auth.password.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash:a");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash:b");
+    }
+
+    @Test
+    void hashNotStartedInTime_isAbandonedWithBusy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blocking(started, release), registry, 1, 4, 100);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        started.await(5, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> encoder.encode("b")).isInstanceOf(PasswordHashingBusyException.class);
+        release.countDown();
+        running.handle((hash, error) -> null).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void hashStartedInTime_isWaitedForPastTheTimeout() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blocking(started, release), registry, 1, 4, 100);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        started.await(5, TimeUnit.SECONDS);
+        Thread.sleep(300);
+        release.countDown();
+
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash:a");
+        assertThat(registry.get("auth.password.rejected").counter().count()).isZero();
+    }
+}
@@ -0,0 +1,36 @@
+package com.retailcorp.retailshopping.unit.config;
+
+import com.retailcorp.retailshopping.config.EventLoadEnvironmentPostProcessor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventLoadEnvironmentPostProcessorTest {
+
+    private final EventLoadEnvironmentPostProcessor processor = new EventLoadEnvironmentPostProcessor();
+
+    @Test
+    void eventLoad_disablesSchemaScriptAndWebServer() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("events.load.file", "events.ndjson.gz")
+                .withProperty("spring.sql.init.mode", "always");
+
+        processor.postProcessEnvironment(environment, new SpringApplication());
+
+        assertThat(environment.getProperty("spring.sql.init.mode")).isEqualTo("never");
+        assertThat(environment.getProperty("spring.main.web-application-type")).isEqualTo("none");
+    }
+
+    @Test
+    void normalStartup_isLeftAlone() {
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.sql.init.mode", "always");
+
+        processor.postProcessEnvironment(environment, new SpringApplication());
+
+        assertThat(environment.getProperty("spring.sql.init.mode")).isEqualTo("always");
+        assertThat(environment.containsProperty("spring.main.web-application-type")).isFalse();
+    }
+}
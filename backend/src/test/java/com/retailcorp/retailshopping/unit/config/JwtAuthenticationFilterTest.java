@@ -0,0 +1,106 @@
+package com.retailcorp.retailshopping.unit.config;
+
+import com.retailcorp.retailshopping.config.JwtAuthenticationFilter;
+import com.retailcorp.retailshopping.dto.AuthenticatedCustomer;
+import com.retailcorp.retailshopping.entity.Customer;
+import com.retailcorp.retailshopping.repository.CustomerRepository;
+import com.retailcorp.retailshopping.service.JwtTokenProvider;
+import com.retailcorp.retailshopping.service.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private VerifiedTokenCache tokenCache;
+
+    @InjectMocks
+    private JwtAuthenticationFilter filter;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static Customer customer() {
+        Customer customer = new Customer();
+        customer.setCustomerId(7L);
+        customer.setEmail("user@example.com");
+        return customer;
+    }
+
+    @Test
+    void cachedToken_authenticatesWithoutParsingOrQuerying() throws Exception {
+        AuthenticatedCustomer principal = AuthenticatedCustomer.of(customer());
+        when(tokenCache.get("tok")).thenReturn(Optional.of(principal));
+
+        filter.doFilter(bearer("tok"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isSameAs(principal);
+        verifyNoInteractions(tokenProvider, customerRepository);
+    }
+
+    @Test
+    void uncachedToken_isVerifiedLoadedAndCached() throws Exception {
+        Customer customer = customer();
+        Date exp = new Date((System.currentTimeMillis() / 1000 + 60) * 1000); // exp has whole seconds
+        Claims claims = Jwts.claims().setSubject("user@example.com").setExpiration(exp);
+        when(tokenCache.get("tok")).thenReturn(Optional.empty());
+        when(tokenProvider.parseAndValidate("tok")).thenReturn(Optional.of(claims));
+        when(tokenCache.generation()).thenReturn(3L);
+        when(customerRepository.findByEmail("user@example.com")).thenReturn(Optional.of(customer));
+
+        filter.doFilter(bearer("tok"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+                .isEqualTo(new AuthenticatedCustomer(7L, "user@example.com"));
+        verify(tokenCache).put("tok", customer, exp, 3L);
+    }
+
+    @Test
+    void invalidToken_isNotCachedOrAuthenticated() throws Exception {
+        when(tokenCache.get("bad")).thenReturn(Optional.empty());
+        when(tokenProvider.parseAndValidate("bad")).thenReturn(Optional.empty());
+
+        filter.doFilter(bearer("bad"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(customerRepository, never()).findByEmail(anyString());
+        verify(tokenCache, never()).put(anyString(), any(), any(), anyLong());
+    }
+}
@@ -0,0 +1,107 @@
+package com.retailcorp.retailshopping.unit.controller;
+
+import com.retailcorp.retailshopping.config.SecurityConfig;
+import com.retailcorp.retailshopping.controller.AdminEventController;
+import com.retailcorp.retailshopping.dto.AuthenticatedCustomer;
+import com.retailcorp.retailshopping.dto.EventLoadResult;
+import com.retailcorp.retailshopping.repository.CustomerRepository;
+import com.retailcorp.retailshopping.service.EventBulkLoader;
+import com.retailcorp.retailshopping.service.JwtTokenProvider;
+import com.retailcorp.retailshopping.service.VerifiedTokenCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Runs through the real filter chain: the endpoint is for admins only
+@WebMvcTest(controllers = AdminEventController.class, properties = "auth.admin-emails=ops@example.com, lead@example.com")
+@Import({SecurityConfig.class, SimpleMeterRegistry.class})
+class AdminEventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EventBulkLoader bulkLoader;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @MockBean
+    private CustomerRepository customerRepository;
+
+    private final MockMultipartFile file = new MockMultipartFile(
+            "file", "day.ndjson.gz", "application/gzip", new byte[] {1, 2, 3});
+
+    private void signedIn(String token, String email) {
+        when(verifiedTokenCache.get(token)).thenReturn(Optional.of(new AuthenticatedCustomer(1L, email)));
+    }
+
+    @Test
+    void load_uploadEnabled_returnsLoadResult() throws Exception {
+        when(bulkLoader.isUploadEnabled()).thenReturn(true);
+        when(bulkLoader.load(any(InputStream.class), eq("day.ndjson.gz"))).thenReturn(
+                EventLoadResult.builder().rows(1000).elapsedMs(20).rowsPerSecond(50000).build());
+
+        signedIn("admin-token", "OPS@example.com");
+
+        mockMvc.perform(multipart("/api/admin/events/load").file(file)
+                        .header("Authorization", "Bearer admin-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(1000))
+                .andExpect(jsonPath("$.rowsPerSecond").value(50000));
+    }
+
+    @Test
+    void load_uploadDisabled_returnsNotFound() throws Exception {
+        when(bulkLoader.isUploadEnabled()).thenReturn(false);
+        signedIn("admin-token", "lead@example.com");
+
+        mockMvc.perform(multipart("/api/admin/events/load").file(file)
+                        .header("Authorization", "Bearer admin-token"))
+                .andExpect(status().isNotFound());
+
+        verify(bulkLoader, never()).load(any(InputStream.class), any());
+    }
+
+    @Test
+    void load_regularCustomer_returnsForbidden() throws Exception {
+        when(bulkLoader.isUploadEnabled()).thenReturn(true);
+        signedIn("customer-token", "shopper@example.com");
+
+        mockMvc.perform(multipart("/api/admin/events/load").file(file)
+                        .header("Authorization", "Bearer customer-token"))
+                .andExpect(status().isForbidden());
+
+        verify(bulkLoader, never()).load(any(InputStream.class), any());
+    }
+
+    @Test
+    void load_anonymous_returnsForbidden() throws Exception {
+        when(bulkLoader.isUploadEnabled()).thenReturn(true);
+
+        mockMvc.perform(multipart("/api/admin/events/load").file(file))
+                .andExpect(status().isForbidden());
+
+        verify(bulkLoader, never()).load(any(InputStream.class), any());
+    }
+}
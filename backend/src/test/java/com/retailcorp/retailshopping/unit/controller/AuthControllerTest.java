@@ -6,9 +6,13 @@ import com.retailcorp.retailshopping.dto.AuthResponse;
 import com.retailcorp.retailshopping.dto.CustomerResponse;
 import com.retailcorp.retailshopping.dto.LoginRequest;
 import com.retailcorp.retailshopping.dto.RegisterRequest;
+import com.retailcorp.retailshopping.exception.PasswordHashingBusyException;
+import com.retailcorp.retailshopping.exception.RateLimitExceededException;
 import com.retailcorp.retailshopping.repository.CustomerRepository;
+import com.retailcorp.retailshopping.service.AuthRateLimiter;
 import com.retailcorp.retailshopping.service.AuthService;
 import com.retailcorp.retailshopping.service.JwtTokenProvider;
+import com.retailcorp.retailshopping.service.VerifiedTokenCache;
 import com.retailcorp.retailshopping.unit.config.TestSecurityConfig;
 
 import org.hamcrest.Matchers;
@@ -21,6 +25,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -46,6 +52,12 @@ class AuthControllerTest {
     @MockBean
     private JwtTokenProvider tokenProvider;
 
+    @MockBean
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @MockBean
+    private AuthRateLimiter rateLimiter;
+
     // ============================
     // REGISTER ENDPOINT TESTS
     // ============================
@@ -119,6 +131,47 @@ class AuthControllerTest {
         verify(authService).login(any(LoginRequest.class));
     }
 
+    @Test
+    void login_throttled_returns429WithoutCallingService() throws Exception {
+        doThrow(new RateLimitExceededException("Too many login attempts, retry later", 6))
+                .when(rateLimiter).acquire(eq(AuthRateLimiter.LOGIN), anyString(), eq("user@example.com"));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"user@example.com\",\"password\":\"pass\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "6"))
+                .andExpect(content().string("Too many login attempts, retry later"));
+
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    void register_throttled_returns429WithoutCallingService() throws Exception {
+        doThrow(new RateLimitExceededException("Too many register attempts, retry later", 12))
+                .when(rateLimiter).acquire(eq(AuthRateLimiter.REGISTER), anyString(), eq("new@example.com"));
+
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"new@example.com\",\"password\":\"pass\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "12"));
+
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    void login_hashingSaturated_returns503WithRetryAfter() throws Exception {
+        when(authService.login(any(LoginRequest.class)))
+                .thenThrow(new PasswordHashingBusyException("Too many sign-in requests, retry later"));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"user@example.com\",\"password\":\"pass\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     @Test
     void login_invalidCredentials_returns401_withMessage() throws Exception {
         when(authService.login(any(LoginRequest.class)))
@@ -6,6 +6,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import java.util.Collections;
@@ -13,6 +14,8 @@ import java.util.List;
 
 import com.retailcorp.retailshopping.controller.CustomerController;
 import com.retailcorp.retailshopping.dto.CustomerEventResponse;
+import com.retailcorp.retailshopping.dto.EventHistoryFilter;
+import com.retailcorp.retailshopping.dto.EventPage;
 import com.retailcorp.retailshopping.dto.CustomerResponse;
 import com.retailcorp.retailshopping.dto.RegisterRequest;
 import com.retailcorp.retailshopping.service.CustomerService;
@@ -108,12 +111,14 @@ public class CustomerControllerTest {
     public void getCustomerEvents_callsEventServiceAndReturnsOk() throws Exception {
         Long id = 7L;
         List<CustomerEventResponse> empty = Collections.emptyList();
-        when(eventService.getEventsForCustomer(id)).thenReturn(empty);
+        when(eventService.getEventsForCustomer(id, EventHistoryFilter.builder().build(), 20, null))
+            .thenReturn(EventPage.builder().items(empty).nextCursor("next").build());
 
-        mockMvc.perform(get("/api/customers/{id}/events", id))
+        mockMvc.perform(get("/api/customers/{id}/events", id).param("limit", "20"))
             .andExpect(status().isOk())
-            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(header().string("X-Next-Cursor", "next"));
 
-        verify(eventService).getEventsForCustomer(id);
+        verify(eventService).getEventsForCustomer(id, EventHistoryFilter.builder().build(), 20, null);
     }
 }
\ No newline at end of file
@@ -4,9 +4,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.retailcorp.retailshopping.controller.EventController;
 import com.retailcorp.retailshopping.dto.CustomerEventRequest;
 import com.retailcorp.retailshopping.dto.CustomerEventResponse;
+import com.retailcorp.retailshopping.dto.EventBatchResponse;
+import com.retailcorp.retailshopping.dto.EventHistoryFilter;
+import com.retailcorp.retailshopping.dto.EventLineResult;
+import com.retailcorp.retailshopping.dto.EventPage;
+import com.retailcorp.retailshopping.dto.EventSearchRequest;
+import com.retailcorp.retailshopping.exception.BadRequestException;
+import com.retailcorp.retailshopping.exception.EventQueueFullException;
 import com.retailcorp.retailshopping.repository.CustomerEventRepository;
 import com.retailcorp.retailshopping.service.EventService;
 import com.retailcorp.retailshopping.service.JwtTokenProvider;
+import com.retailcorp.retailshopping.service.VerifiedTokenCache;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -16,12 +24,25 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,6 +62,9 @@ class EventControllerTest {
     @MockBean
     private JwtTokenProvider jwtTokenProvider;
 
+    @MockBean
+    private VerifiedTokenCache verifiedTokenCache;
+
     @MockBean
     private com.retailcorp.retailshopping.repository.CustomerRepository customerRepository;
 
@@ -73,6 +97,86 @@ class EventControllerTest {
                 .andExpect(jsonPath("$.eventData.action").value("LOGIN"));
     }
 
+    @Test
+    void logEvent_asyncIngest_returnsAcceptedWithoutBody() throws Exception {
+        CustomerEventRequest request = new CustomerEventRequest();
+        request.setCustomerId(42L);
+        request.setEventData(Map.of("action", "CLICK"));
+
+        when(eventService.isAsyncIngest()).thenReturn(true);
+
+        mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(content().string(""));
+
+        verify(eventService).enqueueEvent(any(CustomerEventRequest.class));
+        verify(eventService, never()).logEvent(any(CustomerEventRequest.class));
+    }
+
+    @Test
+    void logEvent_queueFull_returnsTooManyRequests() throws Exception {
+        CustomerEventRequest request = new CustomerEventRequest();
+        request.setCustomerId(42L);
+
+        when(eventService.isAsyncIngest()).thenReturn(true);
+        doThrow(new EventQueueFullException("Event queue is full, retry later"))
+                .when(eventService).enqueueEvent(any(CustomerEventRequest.class));
+
+        mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void getEventsForCustomer_rawEventData_isWrittenVerbatim() throws Exception {
+        CustomerEventResponse event = CustomerEventResponse.builder()
+                .eventId(3L)
+                .customerId(42L)
+                .rawEventData("{\"action\": \"VIEW\", \"tags\": [\"a\", \"b\"]}")
+                .build();
+
+        when(eventService.getEventsForCustomer(42L, EventHistoryFilter.builder().build(), null, null))
+                .thenReturn(EventPage.builder().items(List.of(event)).build());
+
+        mockMvc.perform(get("/api/events/customer/42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].eventData.action").value("VIEW"))
+                .andExpect(jsonPath("$[0].eventData.tags[1]").value("b"))
+                .andExpect(jsonPath("$[0].rawEventData").doesNotExist())
+                .andExpect(content().string(containsString(
+                        "\"eventData\":{\"action\": \"VIEW\", \"tags\": [\"a\", \"b\"]}")));
+    }
+
+    // ============================
+    // POST /api/events/batch
+    // ============================
+    @Test
+    void logEvents_ndjson_returnsPerLineResults() throws Exception {
+        EventBatchResponse response = EventBatchResponse.builder()
+                .accepted(1)
+                .rejected(1)
+                .results(List.of(
+                        EventLineResult.builder().line(1).status("accepted").eventId(7L).build(),
+                        EventLineResult.builder().line(2).status("rejected").error("customerId is required").build()))
+                .build();
+
+        when(eventService.ingestBatch(any(InputStream.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/events/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"customerId\": 1}\n{\"eventData\": {}}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].eventId").value(7))
+                .andExpect(jsonPath("$.results[1].error").value("customerId is required"))
+                .andExpect(jsonPath("$.results[1].eventId").doesNotExist());
+    }
+
     // ============================
     // GET /api/events/customer/{customerId}
     // ============================
@@ -94,7 +198,8 @@ class EventControllerTest {
                 .eventData(Map.of("action", "PURCHASE"))
                 .build();
 
-        when(eventService.getEventsForCustomer(42L)).thenReturn(List.of(event1, event2));
+        when(eventService.getEventsForCustomer(42L, EventHistoryFilter.builder().build(), null, null))
+                .thenReturn(EventPage.builder().items(List.of(event1, event2)).build());
 
         mockMvc.perform(get("/api/events/customer/42"))
                 .andExpect(status().isOk())
@@ -104,4 +209,124 @@ class EventControllerTest {
                 .andExpect(jsonPath("$[1].eventId").value(2))
                 .andExpect(jsonPath("$[1].eventData.action").value("PURCHASE"));
     }
+
+    @Test
+    void getEventsForCustomer_withBoundsAndCursor_returnsNextCursorHeader() throws Exception {
+        CustomerEventResponse event = CustomerEventResponse.builder()
+                .eventId(5L)
+                .customerId(42L)
+                .eventData(Map.of("action", "VIEW"))
+                .build();
+        LocalDateTime from = LocalDateTime.of(2026, 10, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 10, 2, 0, 0);
+
+        EventHistoryFilter filter = EventHistoryFilter.builder()
+                .from(from)
+                .to(to)
+                .eventType("VIEW")
+                .productId(7L)
+                .build();
+
+        when(eventService.getEventsForCustomer(42L, filter, 1, "abc"))
+                .thenReturn(EventPage.builder().items(List.of(event)).nextCursor("def").build());
+
+        mockMvc.perform(get("/api/events/customer/42")
+                        .param("from", "2026-10-01T00:00:00")
+                        .param("to", "2026-10-02T00:00:00")
+                        .param("eventType", "VIEW")
+                        .param("productId", "7")
+                        .param("limit", "1")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].eventId").value(5));
+    }
+
+    @Test
+    void getEventsForCustomer_lastPage_hasNoCursorHeader() throws Exception {
+        when(eventService.getEventsForCustomer(42L, EventHistoryFilter.builder().build(), null, null))
+                .thenReturn(EventPage.builder().items(List.of()).build());
+
+        mockMvc.perform(get("/api/events/customer/42"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    // ============================
+    // POST /api/events/search
+    // ============================
+    @Test
+    void searchEvents_returnsMatches() throws Exception {
+        CustomerEventResponse event = CustomerEventResponse.builder()
+                .eventId(9L)
+                .customerId(42L)
+                .eventData(Map.of("page", "product_details"))
+                .build();
+        when(eventService.searchEvents(any(EventSearchRequest.class))).thenReturn(List.of(event));
+
+        mockMvc.perform(post("/api/events/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"eventData\": {\"page\": \"product_details\"}, \"limit\": 10}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].eventData.page").value("product_details"));
+    }
+
+    @Test
+    void searchEvents_invalidFilter_returnsBadRequest() throws Exception {
+        when(eventService.searchEvents(any(EventSearchRequest.class)))
+                .thenThrow(new BadRequestException("eventData filter is required"));
+
+        mockMvc.perform(post("/api/events/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("eventData filter is required"));
+    }
+
+    // ============================
+    // GET /api/events/customer/{customerId}/export
+    // ============================
+    private void exportWrites(String ndjson) throws Exception {
+        doAnswer(inv -> {
+            inv.<OutputStream>getArgument(1).write(ndjson.getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(eventService).exportEvents(eq(42L), any(OutputStream.class));
+    }
+
+    @Test
+    void exportEvents_streamsNdjson() throws Exception {
+        exportWrites("{\"eventId\":1}\n");
+
+        MvcResult started = mockMvc.perform(get("/api/events/customer/42/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("{\"eventId\":1}\n"));
+    }
+
+    @Test
+    void exportEvents_acceptGzip_compressesBody() throws Exception {
+        exportWrites("{\"eventId\":1}\n");
+
+        MvcResult started = mockMvc.perform(get("/api/events/customer/42/export")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("{\"eventId\":1}\n");
+        }
+    }
 }
@@ -8,6 +8,7 @@ import com.retailcorp.retailshopping.dto.OrderRequest;
 import com.retailcorp.retailshopping.dto.OrderResponse;
 import com.retailcorp.retailshopping.repository.CustomerRepository;
 import com.retailcorp.retailshopping.service.JwtTokenProvider;
+import com.retailcorp.retailshopping.service.VerifiedTokenCache;
 import com.retailcorp.retailshopping.service.OrderService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -45,6 +46,9 @@ class OrderControllerTest {
     @MockBean
     private JwtTokenProvider jwtTokenProvider;
 
+    @MockBean
+    private VerifiedTokenCache verifiedTokenCache;
+
     @Test
     void checkout_success_returnsOrderResponse() throws Exception {
         OrderRequest request = new OrderRequest();
@@ -2,13 +2,21 @@ package com.retailcorp.retailshopping.unit.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.retailcorp.retailshopping.controller.ProductController;
+import com.retailcorp.retailshopping.dto.FacetedSearchResponse;
+import com.retailcorp.retailshopping.dto.ProductPage;
 import com.retailcorp.retailshopping.dto.ProductResponse;
+import com.retailcorp.retailshopping.dto.ProductSearchFilter;
+import com.retailcorp.retailshopping.dto.ProductSuggestion;
 import com.retailcorp.retailshopping.repository.CustomerRepository;
 import com.retailcorp.retailshopping.repository.ProductRepository;
 import com.retailcorp.retailshopping.service.JwtTokenProvider;
+import com.retailcorp.retailshopping.service.VerifiedTokenCache;
 import com.retailcorp.retailshopping.service.ProductService;
+import com.retailcorp.retailshopping.service.ProductSuggester;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -18,9 +26,15 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
+import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -37,14 +51,26 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductSuggester productSuggester;
+
     @MockBean
     private JwtTokenProvider jwtTokenProvider;
 
+    @MockBean
+    private VerifiedTokenCache verifiedTokenCache;
+
     @MockBean
     private ProductRepository productRepository;
 
     @MockBean
     private CustomerRepository customerRepository;
+
+    @BeforeEach
+    void stubCatalogVersion() {
+        when(productService.getCatalogETag()).thenReturn("8-1a2b");
+        when(productService.isWholeCatalog(null, null, null)).thenReturn(true);
+    }
     
     @Test
     void getProducts_returnsListOfProducts() throws Exception {
@@ -66,7 +92,8 @@ class ProductControllerTest {
                 .stockQuantity(100)
                 .build();
 
-        when(productService.getAllProducts()).thenReturn(List.of(p1, p2));
+        when(productService.getProducts(null, null, null))
+                .thenReturn(ProductPage.builder().items(List.of(p1, p2)).etag("8-1a2b").build());
 
         mockMvc.perform(get("/api/products")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -75,7 +102,30 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$[0].productId").value(1))
                 .andExpect(jsonPath("$[0].productName").value("Laptop"))
                 .andExpect(jsonPath("$[1].productId").value(2))
-                .andExpect(jsonPath("$[1].productName").value("Phone"));
+                .andExpect(jsonPath("$[1].productName").value("Phone"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getProducts_pagedWithFields_returnsCursorHeader() throws Exception {
+        when(productService.getProducts(100L, 2, List.of("productName", "unitPrice")))
+                .thenReturn(ProductPage.builder()
+                        .items(List.of(
+                                Map.of("productId", 101, "productName", "Laptop"),
+                                Map.of("productId", 102, "productName", "Mouse")))
+                        .nextCursor(102L)
+                        .etag("p2-77")
+                        .build());
+
+        mockMvc.perform(get("/api/products")
+                        .param("after", "100")
+                        .param("limit", "2")
+                        .param("fields", "productName,unitPrice"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "102"))
+                .andExpect(header().string("ETag", "\"p2-77\""))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].productName").value("Mouse"));
     }
 
     @Test
@@ -99,4 +149,150 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$[0].productId").value(1))
                 .andExpect(jsonPath("$[0].productName").value("Laptop Pro"));
     }
+
+    @Test
+    void searchProducts_withFilters_returnsFilteredArray() throws Exception {
+        ProductResponse p1 = ProductResponse.builder().productId(1L).productName("Laptop Pro").build();
+        when(productService.searchProducts(eq("lap"), any(ProductSearchFilter.class)))
+                .thenReturn(FacetedSearchResponse.builder().items(List.of(p1)).total(1).facets(Map.of()).build());
+
+        mockMvc.perform(get("/api/products/search")
+                        .param("query", "lap")
+                        .param("category", "Electronics", "Office")
+                        .param("maxPrice", "2000")
+                        .param("inStock", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].productId").value(1));
+
+        ArgumentCaptor<ProductSearchFilter> filter = ArgumentCaptor.forClass(ProductSearchFilter.class);
+        verify(productService).searchProducts(eq("lap"), filter.capture());
+        assertThat(filter.getValue().getCategories()).containsExactly("Electronics", "Office");
+        assertThat(filter.getValue().getMaxPrice()).isEqualTo(2000.0);
+        assertThat(filter.getValue().getInStock()).isTrue();
+        assertThat(filter.getValue().getBrands()).isNull();
+    }
+
+    @Test
+    void searchProducts_withFacets_returnsCounts() throws Exception {
+        ProductResponse p1 = ProductResponse.builder().productId(1L).productName("Laptop Pro").build();
+        when(productService.searchProducts(eq(""), any(ProductSearchFilter.class)))
+                .thenReturn(FacetedSearchResponse.builder()
+                        .items(List.of(p1))
+                        .total(1)
+                        .facets(Map.of("brand", Map.of("TechBrand", 1)))
+                        .build());
+
+        mockMvc.perform(get("/api/products/search").param("query", "").param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.items[0].productId").value(1))
+                .andExpect(jsonPath("$.facets.brand.TechBrand").value(1));
+    }
+
+    @Test
+    void searchProducts_sortByRelevance_returnsRankedProducts() throws Exception {
+        ProductResponse p1 = ProductResponse.builder().productId(7L).productName("Laptop Sleeve").build();
+        when(productService.rankProducts(eq("labtop"), eq(5), any(ProductSearchFilter.class))).thenReturn(List.of(p1));
+
+        mockMvc.perform(get("/api/products/search")
+                        .param("query", "labtop")
+                        .param("sort", "relevance")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productId").value(7));
+    }
+
+    @Test
+    void searchProducts_missingQuery_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/products/search").param("category", "Electronics"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).searchProducts(any(), any(ProductSearchFilter.class));
+    }
+
+    @Test
+    void searchProducts_unknownSort_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/products/search")
+                        .param("query", "lap")
+                        .param("sort", "price"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void suggest_returnsSuggestionsForPrefix() throws Exception {
+        ProductSuggestion s1 = ProductSuggestion.builder()
+                .text("Laptop Pro 15")
+                .type("product")
+                .productId(101L)
+                .build();
+
+        when(productSuggester.suggest("lap", 5)).thenReturn(List.of(s1));
+
+        mockMvc.perform(get("/api/products/suggest")
+                        .param("prefix", "lap")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].text").value("Laptop Pro 15"))
+                .andExpect(jsonPath("$[0].productId").value(101));
+    }
+
+    @Test
+    void getProducts_setsStrongETag() throws Exception {
+        when(productService.getProducts(null, null, null))
+                .thenReturn(ProductPage.builder().items(List.of()).etag("8-1a2b").build());
+
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", "\"8-1a2b\""))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void getProducts_matchingIfNoneMatch_returnsNotModifiedWithoutLoading() throws Exception {
+        mockMvc.perform(get("/api/products").header("If-None-Match", "\"8-1a2b\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"8-1a2b\""))
+                .andExpect(content().string(""));
+
+        verify(productService, never()).getProducts(any(), any(), any());
+        verify(productService, never()).getAllProducts();
+    }
+
+    @Test
+    void getProducts_staleIfNoneMatch_returnsFullBody() throws Exception {
+        when(productService.getProducts(null, null, null))
+                .thenReturn(ProductPage.builder().items(List.of()).etag("8-1a2b").build());
+
+        mockMvc.perform(get("/api/products").header("If-None-Match", "\"7-0001\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"8-1a2b\""));
+    }
+
+    @Test
+    void getProducts_page_isValidatedAgainstItsOwnRowsNotTheCatalogVersion() throws Exception {
+        when(productService.getProducts(null, 2, null))
+                .thenReturn(ProductPage.builder().items(List.of()).etag("p0-1").build());
+
+        mockMvc.perform(get("/api/products").param("limit", "2").header("If-None-Match", "\"8-1a2b\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"p0-1\""));
+
+        mockMvc.perform(get("/api/products").param("limit", "2").header("If-None-Match", "\"p0-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(productService, never()).getCatalogETag();
+    }
+
+    @Test
+    void searchProducts_matchingIfNoneMatch_returnsNotModifiedWithoutSearching() throws Exception {
+        mockMvc.perform(get("/api/products/search")
+                        .param("query", "Laptop")
+                        .header("If-None-Match", "\"8-1a2b\""))
+                .andExpect(status().isNotModified());
+
+        verify(productService, never()).searchProducts(anyString());
+    }
 }
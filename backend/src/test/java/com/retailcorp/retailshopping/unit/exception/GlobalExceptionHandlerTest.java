@@ -1,9 +1,15 @@
 package com.retailcorp.retailshopping.unit.exception;
 
+import com.retailcorp.retailshopping.exception.BadRequestException;
+import com.retailcorp.retailshopping.exception.EventQueueFullException;
 import com.retailcorp.retailshopping.exception.GlobalExceptionHandler;
+import com.retailcorp.retailshopping.exception.InsufficientStockException;
 import com.retailcorp.retailshopping.exception.InvalidOrderException;
+import com.retailcorp.retailshopping.exception.PasswordHashingBusyException;
+import com.retailcorp.retailshopping.exception.RateLimitExceededException;
 import com.retailcorp.retailshopping.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -33,6 +39,59 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getBody()).isEqualTo("Order total cannot be negative");
     }
 
+    @Test
+    void handleInsufficientStock_returnsConflictStatus() {
+        InsufficientStockException ex = new InsufficientStockException("Insufficient stock for product ID: 101");
+
+        ResponseEntity<String> response = handler.handleInsufficientStock(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isEqualTo("Insufficient stock for product ID: 101");
+    }
+
+    @Test
+    void handleEventQueueFull_returnsTooManyRequestsWithRetryAfter() {
+        EventQueueFullException ex = new EventQueueFullException("Event queue is full, retry later");
+
+        ResponseEntity<String> response = handler.handleEventQueueFull(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getBody()).isEqualTo("Event queue is full, retry later");
+    }
+
+    @Test
+    void handleRateLimitExceeded_returnsTooManyRequestsWithRetryAfter() {
+        RateLimitExceededException ex = new RateLimitExceededException("Too many login attempts, retry later", 6);
+
+        ResponseEntity<String> response = handler.handleRateLimitExceeded(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("6");
+        assertThat(response.getBody()).isEqualTo("Too many login attempts, retry later");
+    }
+
+    @Test
+    void handlePasswordHashingBusy_returnsServiceUnavailableWithRetryAfter() {
+        PasswordHashingBusyException ex = new PasswordHashingBusyException("Too many sign-in requests, retry later");
+
+        ResponseEntity<String> response = handler.handlePasswordHashingBusy(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getBody()).isEqualTo("Too many sign-in requests, retry later");
+    }
+
+    @Test
+    void handleBadRequest_returnsBadRequestStatus() {
+        BadRequestException ex = new BadRequestException("Unknown product field: costPrice");
+
+        ResponseEntity<String> response = handler.handleBadRequest(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo("Unknown product field: costPrice");
+    }
+
     @Test
     void handleGeneric_returnsInternalServerError() {
         Exception ex = new Exception("Unexpected error");
@@ -0,0 +1,99 @@
+package com.retailcorp.retailshopping.unit.repository;
+
+import com.retailcorp.retailshopping.entity.CustomerEvent;
+import com.retailcorp.retailshopping.repository.CustomerEventBulkWriter;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CustomerEventBulkWriterTest {
+
+    // customer_events_event_id_seq as schema.sql leaves it: a bigserial with INCREMENT BY 50
+    private static final class Sequence {
+        private long next;
+        final List<Long> handedOut = new ArrayList<>();
+
+        Sequence(long start) {
+            this.next = start;
+        }
+
+        long nextval() {
+            long value = next;
+            next += 50;
+            handedOut.add(value);
+            return value;
+        }
+    }
+
+    private static Connection connection(Sequence sequence) throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement blocks = mock(PreparedStatement.class);
+        int[] requested = new int[1];
+        doAnswer(inv -> requested[0] = inv.getArgument(1)).when(blocks).setInt(anyInt(), anyInt());
+        when(blocks.executeQuery()).thenAnswer(inv -> resultSet(sequence, requested[0]));
+        when(connection.prepareStatement(startsWith("SELECT nextval"))).thenReturn(blocks);
+        when(connection.prepareStatement(startsWith("INSERT"))).thenReturn(mock(PreparedStatement.class));
+        return connection;
+    }
+
+    private static ResultSet resultSet(Sequence sequence, int rows) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        long[] current = new long[1];
+        int[] left = {rows};
+        when(rs.next()).thenAnswer(inv -> {
+            if (left[0] == 0) {
+                return false;
+            }
+            left[0]--;
+            current[0] = sequence.nextval();
+            return true;
+        });
+        when(rs.getLong(1)).thenAnswer(inv -> current[0]);
+        return rs;
+    }
+
+    private static List<CustomerEvent> events(int count) {
+        List<CustomerEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(new CustomerEvent());
+        }
+        return events;
+    }
+
+    @Test
+    void insertBatch_freshSequence_startsAtOneLikeHibernate() throws Exception {
+        Sequence sequence = new Sequence(1);
+        List<CustomerEvent> events = events(120);
+
+        CustomerEventBulkWriter.insertBatch(connection(sequence), events);
+
+        // 1 is a block of its own; 51 and 101 cover 2..101; one more nextval for the last 19
+        assertThat(events).extracting(CustomerEvent::getEventId)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, 120).boxed().toList());
+        assertThat(sequence.handedOut).containsExactly(1L, 51L, 101L, 151L);
+    }
+
+    @Test
+    void insertBatch_usedSequence_takesTheBlockBelowEachValue() throws Exception {
+        Sequence sequence = new Sequence(1051);
+        List<CustomerEvent> events = events(60);
+
+        CustomerEventBulkWriter.insertBatch(connection(sequence), events);
+
+        assertThat(events).extracting(CustomerEvent::getEventId)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1002, 1061).boxed().toList());
+        assertThat(sequence.handedOut).containsExactly(1051L, 1101L);
+    }
+}
@@ -0,0 +1,166 @@
+package com.retailcorp.retailshopping.unit.service;
+
+import com.retailcorp.retailshopping.exception.RateLimitExceededException;
+import com.retailcorp.retailshopping.service.AuthRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static com.retailcorp.retailshopping.service.AuthRateLimiter.LOGIN;
+import static com.retailcorp.retailshopping.service.AuthRateLimiter.REGISTER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+    private SimpleMeterRegistry registry;
+    private AuthRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // login: 6/min per IP, 3/min per email; register: 2/min per IP, email unlimited
+        limiter = limiter(true, 1000);
+    }
+
+    private AuthRateLimiter limiter(boolean enabled, int maxKeys) {
+        AuthRateLimiter l = new AuthRateLimiter(registry, enabled, maxKeys, 6, 3, 2, 0);
+        ReflectionTestUtils.setField(l, "ticker", (LongSupplier) nanos::get);
+        return l;
+    }
+
+    private void advanceSeconds(long seconds) {
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    private double throttled(String endpoint, String key) {
+        return registry.get("auth.ratelimit.throttled").tag("endpoint", endpoint).tag("key", key).counter().count();
+    }
+
+    @Test
+    void acquire_allowsBurstThenThrottlesPerEmail() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(LOGIN, "10.0.0." + i, "user@example.com");
+        }
+
+        assertThatThrownBy(() -> limiter.acquire(LOGIN, "10.0.0.9", "USER@example.com "))
+                .isInstanceOf(RateLimitExceededException.class)
+                .hasMessage("Too many login attempts, retry later")
+                .extracting(e -> ((RateLimitExceededException) e).getRetryAfterSeconds())
+                .isEqualTo(20L);
+        assertThat(throttled(LOGIN, "email")).isEqualTo(1);
+    }
+
+    @Test
+    void acquire_throttlesPerIpAcrossEmails() {
+        for (int i = 0; i < 6; i++) {
+            limiter.acquire(LOGIN, "10.0.0.1", "user" + i + "@example.com");
+        }
+
+        assertThatThrownBy(() -> limiter.acquire(LOGIN, "10.0.0.1", "someone@example.com"))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThat(throttled(LOGIN, "ip")).isEqualTo(1);
+        limiter.acquire(LOGIN, "10.0.0.2", "someone@example.com");
+    }
+
+    @Test
+    void acquire_refillsOneTokenPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(LOGIN, "10.0.0.1", "user@example.com");
+        }
+        advanceSeconds(19);
+        assertThatThrownBy(() -> limiter.acquire(LOGIN, "10.0.0.1", "user@example.com"))
+                .isInstanceOf(RateLimitExceededException.class);
+
+        advanceSeconds(1);
+        limiter.acquire(LOGIN, "10.0.0.1", "user@example.com");
+    }
+
+    @Test
+    void acquire_endpointsHaveSeparateLimits() {
+        limiter.acquire(REGISTER, "10.0.0.1", "a@example.com");
+        limiter.acquire(REGISTER, "10.0.0.1", "b@example.com");
+
+        assertThatThrownBy(() -> limiter.acquire(REGISTER, "10.0.0.1", "c@example.com"))
+                .isInstanceOf(RateLimitExceededException.class)
+                .hasMessage("Too many register attempts, retry later");
+        limiter.acquire(LOGIN, "10.0.0.1", "c@example.com");
+    }
+
+    @Test
+    void disabled_neverThrottles() {
+        AuthRateLimiter disabled = limiter(false, 1000);
+
+        for (int i = 0; i < 100; i++) {
+            disabled.acquire(LOGIN, "10.0.0.1", "user@example.com");
+        }
+        assertThat(disabled.size()).isZero();
+    }
+
+    @Test
+    void sweep_dropsBucketsThatHaveRefilled() {
+        limiter.acquire(LOGIN, "10.0.0.1", "user@example.com");
+        assertThat(limiter.size()).isEqualTo(2);
+
+        advanceSeconds(20);
+        limiter.sweep();
+
+        assertThat(limiter.size()).isZero();
+    }
+
+    @Test
+    void fullKeyMap_evictsIdleBucketsBeforeTrackingNewKeys() {
+        AuthRateLimiter small = limiter(true, 1);
+        small.acquire(LOGIN, "10.0.0.1", "a@example.com");
+        advanceSeconds(20);
+
+        small.acquire(LOGIN, "10.0.0.2", "b@example.com");
+
+        assertThat(small.size()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentAttempts_admitExactlyTheBurst() throws Exception {
+        int threads = 8;
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 500; i++) {
+                        try {
+                            limiter.acquire(LOGIN, "10.0.0.1", null);
+                            admitted.incrementAndGet();
+                        } catch (RateLimitExceededException e) {
+                            // expected once the burst is spent
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(admitted.get()).isEqualTo(6);
+        assertThat(throttled(LOGIN, "ip")).isEqualTo(threads * 500 - 6);
+    }
+}
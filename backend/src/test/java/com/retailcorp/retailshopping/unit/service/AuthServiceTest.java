@@ -4,11 +4,13 @@ import com.retailcorp.retailshopping.dto.*;
 import com.retailcorp.retailshopping.entity.Customer;
 import com.retailcorp.retailshopping.repository.CustomerRepository;
 import com.retailcorp.retailshopping.service.AuthService;
+import com.retailcorp.retailshopping.service.EmailBloomFilter;
 import com.retailcorp.retailshopping.service.JwtTokenProvider;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
@@ -29,6 +31,9 @@ class AuthServiceTest {
     @Mock
     private JwtTokenProvider tokenProvider;
 
+    @Mock
+    private EmailBloomFilter emailFilter;
+
     @InjectMocks
     private AuthService authService;
 
@@ -69,11 +74,71 @@ class AuthServiceTest {
         RegisterRequest req = new RegisterRequest();
         req.setEmail("test@example.com");
 
+        when(emailFilter.mightContain(req.getEmail())).thenReturn(true);
         when(customerRepository.existsByEmail(req.getEmail())).thenReturn(true);
 
         assertThatThrownBy(() -> authService.register(req))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Email already registered");
+        verify(passwordEncoder, never()).encode(any());
+    }
+
+    @Test
+    void register_emailRuledOutByFilter_skipsExistsQuery() {
+        RegisterRequest req = registerRequest("new@example.com");
+        when(emailFilter.mightContain("new@example.com")).thenReturn(false);
+        when(customerRepository.save(any(Customer.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        authService.register(req);
+
+        verify(customerRepository, never()).existsByEmail(any());
+        verify(customerRepository).save(any(Customer.class));
+    }
+
+    @Test
+    void register_filterFalsePositive_isRecordedAndRegisters() {
+        RegisterRequest req = registerRequest("new@example.com");
+        when(emailFilter.mightContain("new@example.com")).thenReturn(true);
+        when(customerRepository.existsByEmail("new@example.com")).thenReturn(false);
+        when(customerRepository.save(any(Customer.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        authService.register(req);
+
+        verify(emailFilter).recordFalsePositive();
+        verify(customerRepository).save(any(Customer.class));
+    }
+
+    @Test
+    void register_uniqueConstraintViolation_mapsToEmailAlreadyRegistered() {
+        RegisterRequest req = registerRequest("raced@example.com");
+        when(emailFilter.mightContain("raced@example.com")).thenReturn(false);
+        when(customerRepository.save(any(Customer.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+        when(customerRepository.existsByEmail("raced@example.com")).thenReturn(true);
+
+        assertThatThrownBy(() -> authService.register(req))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Email already registered");
+    }
+
+    @Test
+    void register_otherIntegrityViolation_propagates() {
+        RegisterRequest req = registerRequest("new@example.com");
+        when(emailFilter.mightContain("new@example.com")).thenReturn(false);
+        when(customerRepository.save(any(Customer.class)))
+                .thenThrow(new DataIntegrityViolationException("null value in column \"first_name\""));
+        when(customerRepository.existsByEmail("new@example.com")).thenReturn(false);
+
+        assertThatThrownBy(() -> authService.register(req))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private static RegisterRequest registerRequest(String email) {
+        RegisterRequest req = new RegisterRequest();
+        req.setEmail(email);
+        req.setFirstName("John");
+        req.setPassword("Password123");
+        return req;
     }
 
     @Test
@@ -0,0 +1,246 @@
+package com.retailcorp.retailshopping.unit.service;
+
+import com.retailcorp.retailshopping.dto.ProductResponse;
+import com.retailcorp.retailshopping.dto.ProductSearchFilter;
+import com.retailcorp.retailshopping.entity.Product;
+import com.retailcorp.retailshopping.repository.CatalogVersion;
+import com.retailcorp.retailshopping.repository.ProductRepository;
+import com.retailcorp.retailshopping.service.CatalogSnapshot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSnapshotTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private static final LocalDateTime T1 = T0.plusHours(1);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private CatalogSnapshot catalogSnapshot;
+
+    private Product laptop;
+    private Product mouse;
+
+    @BeforeEach
+    void setUp() {
+        laptop = product(2L, "Laptop", 1200.0, T0);
+        mouse = product(1L, "Mouse", 25.0, T0);
+    }
+
+    @Test
+    void getProducts_loadsLazilyAndSortsById() {
+        when(productRepository.findCatalogVersion()).thenReturn(version(T0, 2));
+        when(productRepository.findAll()).thenReturn(List.of(laptop, mouse));
+
+        List<ProductResponse> products = catalogSnapshot.getProducts();
+
+        assertThat(products).extracting(ProductResponse::getProductId).containsExactly(1L, 2L);
+        assertThat(catalogSnapshot.getProduct(2L)).get().extracting(ProductResponse::getProductName).isEqualTo("Laptop");
+        assertThat(catalogSnapshot.getProduct(99L)).isEmpty();
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    void refreshIfChanged_unchangedVersion_keepsTheSnapshot() {
+        when(productRepository.findCatalogVersion()).thenReturn(version(T0, 2));
+        when(productRepository.findAll()).thenReturn(List.of(laptop, mouse));
+        catalogSnapshot.reload();
+        String tag = catalogSnapshot.getVersionTag();
+        when(productRepository.findByLastUpdatedAfter(any())).thenReturn(List.of());
+
+        catalogSnapshot.refreshIfChanged();
+
+        verify(productRepository, times(1)).findAll();
+        assertThat(catalogSnapshot.getVersionTag()).isEqualTo(tag);
+    }
+
+    @Test
+    void refreshIfChanged_rereadsOverlapWindowForLateCommits() {
+        ReflectionTestUtils.setField(catalogSnapshot, "refreshOverlapMs", 60_000L);
+        when(productRepository.findCatalogVersion()).thenReturn(version(T1, 2));
+        when(productRepository.findAll()).thenReturn(List.of(laptop, product(1L, "Mouse", 25.0, T1)));
+        catalogSnapshot.reload();
+        String tag = catalogSnapshot.getVersionTag();
+
+        // Stamped before the high-water mark, committed after the last refresh read it
+        Product late = product(2L, "Laptop", 999.0, T1.minusSeconds(5));
+        when(productRepository.findByLastUpdatedAfter(T1.minusSeconds(60)))
+                .thenReturn(List.of(product(1L, "Mouse", 25.0, T1), late));
+
+        catalogSnapshot.refreshIfChanged();
+
+        assertThat(catalogSnapshot.getProduct(2L)).get().extracting(ProductResponse::getUnitPrice).isEqualTo(999.0);
+        assertThat(catalogSnapshot.getVersionTag()).isNotEqualTo(tag);
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    void refreshIfChanged_readsOnlyRowsPastHighWaterMark() {
+        when(productRepository.findCatalogVersion()).thenReturn(version(T0, 2), version(T1, 3));
+        when(productRepository.findAll()).thenReturn(List.of(laptop, mouse));
+        catalogSnapshot.reload();
+
+        Product repriced = product(1L, "Mouse", 19.0, T1);
+        Product added = product(3L, "Keyboard", 45.0, T1);
+        when(productRepository.findByLastUpdatedAfter(T0)).thenReturn(List.of(repriced, added));
+
+        catalogSnapshot.refreshIfChanged();
+
+        assertThat(catalogSnapshot.getProducts()).extracting(ProductResponse::getProductId).containsExactly(1L, 2L, 3L);
+        assertThat(catalogSnapshot.getProduct(1L)).get().extracting(ProductResponse::getUnitPrice).isEqualTo(19.0);
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    void refreshIfChanged_rowCountMismatch_fallsBackToFullReload() {
+        when(productRepository.findCatalogVersion()).thenReturn(version(T0, 2), version(T0, 1));
+        when(productRepository.findAll()).thenReturn(List.of(laptop, mouse), List.of(laptop));
+        catalogSnapshot.reload();
+
+        when(productRepository.findByLastUpdatedAfter(T0)).thenReturn(List.of());
+
+        catalogSnapshot.refreshIfChanged();
+
+        assertThat(catalogSnapshot.getProducts()).extracting(ProductResponse::getProductId).containsExactly(2L);
+        verify(productRepository, times(2)).findAll();
+    }
+
+    @Test
+    void search_followsIncrementalRefresh() {
+        when(productRepository.findCatalogVersion()).thenReturn(version(T0, 2), version(T1, 2));
+        when(productRepository.findAll()).thenReturn(List.of(laptop, mouse));
+        catalogSnapshot.reload();
+        assertThat(catalogSnapshot.search("mouse")).extracting(ProductResponse::getProductId).containsExactly(1L);
+
+        when(productRepository.findByLastUpdatedAfter(T0)).thenReturn(List.of(product(1L, "Trackball", 30.0, T1)));
+        catalogSnapshot.refreshIfChanged();
+
+        assertThat(catalogSnapshot.search("mouse")).isEmpty();
+        assertThat(catalogSnapshot.search("trackball")).extracting(ProductResponse::getProductId).containsExactly(1L);
+    }
+
+    @Test
+    void facetedSearch_followsIncrementalRefresh() {
+        when(productRepository.findCatalogVersion()).thenReturn(version(T0, 2), version(T1, 2));
+        when(productRepository.findAll()).thenReturn(List.of(laptop, mouse));
+        ProductSearchFilter under20 = ProductSearchFilter.builder().maxPrice(20.0).build();
+        assertThat(catalogSnapshot.search("", under20).getItems()).isEmpty();
+
+        when(productRepository.findByLastUpdatedAfter(T0)).thenReturn(List.of(product(1L, "Mouse", 19.0, T1)));
+        catalogSnapshot.refreshIfChanged();
+
+        assertThat(catalogSnapshot.search("", under20).getItems())
+                .extracting(ProductResponse::getProductId).containsExactly(1L);
+        assertThat(catalogSnapshot.search("lap", ProductSearchFilter.builder().build()).getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void refresh_carriesIndexesOverButServesTheChangedProducts() {
+        when(productRepository.findCatalogVersion()).thenReturn(version(T0, 2), version(T1, 2), version(T1.plusHours(1), 2));
+        when(productRepository.findAll()).thenReturn(List.of(laptop, mouse));
+        ProductSearchFilter none = ProductSearchFilter.builder().build();
+        ReflectionTestUtils.setField(catalogSnapshot, "enabled", true);
+        catalogSnapshot.warmUp();
+
+        // A price change leaves the relevance index alone
+        when(productRepository.findByLastUpdatedAfter(T0)).thenReturn(List.of(product(1L, "Mouse", 19.0, T1)));
+        catalogSnapshot.refreshIfChanged();
+        assertThat(catalogSnapshot.rank("mouse", 5, none))
+                .extracting(ProductResponse::getUnitPrice).containsExactly(19.0);
+
+        // A rename leaves the facet index alone
+        when(productRepository.findByLastUpdatedAfter(T1)).thenReturn(List.of(product(1L, "Trackball", 19.0, T1.plusHours(1))));
+        catalogSnapshot.refreshIfChanged();
+        assertThat(catalogSnapshot.search("", ProductSearchFilter.builder().maxPrice(20.0).build()).getItems())
+                .extracting(ProductResponse::getProductName).containsExactly("Trackball");
+        assertThat(catalogSnapshot.rank("trackball", 5, none)).extracting(ProductResponse::getProductId).containsExactly(1L);
+        assertThat(catalogSnapshot.rank("mouse", 5, none)).isEmpty();
+    }
+
+    @Test
+    void firstUse_fromConcurrentReaders_loadsOnce() throws Exception {
+        when(productRepository.findCatalogVersion()).thenReturn(version(T0, 2));
+        when(productRepository.findAll()).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return List.of(laptop, mouse);
+        });
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<ProductResponse>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(readers.submit(catalogSnapshot::getProducts));
+            }
+            for (Future<List<ProductResponse>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).hasSize(2);
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    void refreshIfChanged_beforeFirstUse_doesNothing() {
+        catalogSnapshot.refreshIfChanged();
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getVersionTag_changesWithCatalogVersion() {
+        when(productRepository.findCatalogVersion()).thenReturn(version(T0, 2), version(T1, 2));
+        when(productRepository.findAll()).thenReturn(List.of(laptop, mouse));
+        String before = catalogSnapshot.getVersionTag();
+
+        when(productRepository.findByLastUpdatedAfter(T0)).thenReturn(List.of(product(1L, "Mouse", 19.0, T1)));
+        catalogSnapshot.refreshIfChanged();
+
+        assertThat(catalogSnapshot.getVersionTag()).isNotEqualTo(before);
+        assertThat(before).startsWith(CatalogSnapshot.versionTag(version(T0, 2)) + "-");
+    }
+
+    private Product product(Long id, String name, Double price, LocalDateTime lastUpdated) {
+        Product p = new Product();
+        p.setProductId(id);
+        p.setProductName(name);
+        p.setUnitPrice(price);
+        p.setLastUpdated(lastUpdated);
+        return p;
+    }
+
+    private CatalogVersion version(LocalDateTime lastUpdated, long count) {
+        return new CatalogVersion() {
+            @Override
+            public LocalDateTime getLastUpdated() {
+                return lastUpdated;
+            }
+
+            @Override
+            public long getProductCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.retailcorp.retailshopping.unit.service;
+
+import com.retailcorp.retailshopping.entity.Customer;
+import com.retailcorp.retailshopping.service.CustomerTokenEvictionListener;
+import com.retailcorp.retailshopping.service.VerifiedTokenCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerTokenEvictionListenerTest {
+
+    @Mock
+    private VerifiedTokenCache tokenCache;
+
+    @InjectMocks
+    private CustomerTokenEvictionListener listener;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Customer customer() {
+        Customer customer = new Customer();
+        customer.setCustomerId(7L);
+        customer.setEmail("user@example.com");
+        customer.setPasswordHash("hash");
+        return customer;
+    }
+
+    @Test
+    void update_inTransaction_evictsOnlyAfterCommitWithTheFlushedCredentials() {
+        TransactionSynchronizationManager.initSynchronization();
+        Customer customer = customer();
+
+        listener.onCustomerUpdated(customer);
+        customer.setEmail("later@example.com");
+        verifyNoInteractions(tokenCache);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(tokenCache).evictChangedCredentials(7L, "user@example.com", "hash");
+    }
+
+    @Test
+    void remove_inTransaction_evictsOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        listener.onCustomerRemoved(customer());
+        verifyNoInteractions(tokenCache);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(tokenCache).evictCustomer(7L);
+    }
+
+    @Test
+    void update_withoutTransaction_evictsImmediately() {
+        listener.onCustomerUpdated(customer());
+
+        verify(tokenCache).evictChangedCredentials(7L, "user@example.com", "hash");
+    }
+}
@@ -0,0 +1,133 @@
+package com.retailcorp.retailshopping.unit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.retailcorp.retailshopping.service.EmailBloomFilter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmailBloomFilterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new EmailBloomFilter(jdbcTemplate, meterRegistry, true, 10_000, 0.01, 2);
+    }
+
+    @Test
+    void beforeLoad_everyEmailIsAMaybe() {
+        assertThat(filter.isLoaded()).isFalse();
+        assertThat(filter.mightContain("new@example.com")).isTrue();
+    }
+
+    @Test
+    void load_walksCustomersInKeysetBatches() throws Exception {
+        List<Object[]> rows = List.of(
+                new Object[] {1L, "a@example.com"},
+                new Object[] {2L, "b@example.com"},
+                new Object[] {5L, "c@example.com"});
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            long after = inv.getArgument(2);
+            int limit = inv.getArgument(3);
+            int sent = 0;
+            for (Object[] row : rows) {
+                if ((long) row[0] > after && sent < limit) {
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getLong(1)).thenReturn((long) row[0]);
+                    when(rs.getString(2)).thenReturn((String) row[1]);
+                    handler.processRow(rs);
+                    sent++;
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), anyLong(), any());
+
+        assertThat(filter.load()).isEqualTo(3);
+
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class), anyLong(), any());
+        assertThat(filter.isLoaded()).isTrue();
+        assertThat(filter.mightContain("a@example.com")).isTrue();
+        assertThat(filter.mightContain("c@example.com")).isTrue();
+    }
+
+    @Test
+    void put_hasNoFalseNegatives() {
+        loadEmpty();
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("customer" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("customer" + i + "@example.com")).isTrue();
+        }
+    }
+
+    @Test
+    void atCapacity_falsePositiveRateStaysNearTarget() {
+        loadEmpty();
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("customer" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("stranger" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFpp()).isBetween(0.005, 0.02);
+        assertThat(meterRegistry.get("auth.email.filter.fpp").gauge().value()).isEqualTo(filter.expectedFpp());
+    }
+
+    @Test
+    void mightContain_countsAnswersAndRecordedFalsePositives() {
+        loadEmpty();
+        filter.put("a@example.com");
+
+        filter.mightContain("a@example.com");
+        filter.mightContain("b@example.com");
+        filter.recordFalsePositive();
+
+        assertThat(meterRegistry.get("auth.email.filter").tag("result", "maybe").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.email.filter").tag("result", "absent").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.email.filter.false.positives").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void disabled_alwaysAnswersMaybe() {
+        EmailBloomFilter disabled = new EmailBloomFilter(jdbcTemplate, meterRegistry, false, 50_000_000, 0.01, 2);
+        disabled.start();
+        disabled.put("a@example.com");
+
+        assertThat(disabled.mightContain("b@example.com")).isTrue();
+    }
+
+    // An empty customers table: the first batch comes back short
+    private void loadEmpty() {
+        assertThat(filter.load()).isZero();
+    }
+}
@@ -0,0 +1,124 @@
+package com.retailcorp.retailshopping.unit.service;
+
+import com.retailcorp.retailshopping.dto.EventLoadResult;
+import com.retailcorp.retailshopping.entity.CustomerEvent;
+import com.retailcorp.retailshopping.exception.BadRequestException;
+import com.retailcorp.retailshopping.repository.CustomerEventRepository;
+import com.retailcorp.retailshopping.service.EventBulkLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventBulkLoaderTest {
+
+    @Mock
+    private CustomerEventRepository eventRepository;
+
+    @InjectMocks
+    private EventBulkLoader bulkLoader;
+
+    private final List<CustomerEvent> copied = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkLoader, "chunkRows", 1000);
+    }
+
+    // Drains the iterator the way COPY would
+    private void recordCopiedRows() {
+        when(eventRepository.copyIn(any(), eq(1000))).thenAnswer(inv -> {
+            Iterator<CustomerEvent> events = inv.getArgument(0);
+            events.forEachRemaining(copied::add);
+            return (long) copied.size();
+        });
+    }
+
+    private static InputStream text(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void load_parsesEachLineIntoAnEvent() throws Exception {
+        recordCopiedRows();
+        String body = """
+                {"customerId": 42, "eventTimestamp": "2026-10-17T09:15:00", "eventData": {"event_type": "view", "productId": 7}}
+
+                {"customerId": 43, "eventData": {"event_type": "click"}}
+                """;
+
+        EventLoadResult result = bulkLoader.load(text(body), "events.ndjson");
+
+        assertThat(result.getRows()).isEqualTo(2);
+        assertThat(copied).hasSize(2);
+        assertThat(copied.get(0).getCustomerId()).isEqualTo(42L);
+        assertThat(copied.get(0).getEventTimestamp()).isEqualTo(LocalDateTime.of(2026, 10, 17, 9, 15));
+        assertThat(copied.get(0).getEventData()).isEqualTo("{\"event_type\":\"view\",\"productId\":7}");
+        assertThat(copied.get(1).getEventTimestamp()).isEqualTo(copied.get(1).getLoadTimestamp());
+    }
+
+    @Test
+    void load_gunzipsFilesEndingInGz() throws Exception {
+        recordCopiedRows();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write("{\"customerId\": 1}\n{\"customerId\": 2}\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        EventLoadResult result = bulkLoader.load(new ByteArrayInputStream(bytes.toByteArray()), "day.ndjson.gz");
+
+        assertThat(result.getRows()).isEqualTo(2);
+        assertThat(copied).extracting(CustomerEvent::getCustomerId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void load_badLineAbortsWithItsLineNumber() {
+        recordCopiedRows();
+        String body = """
+                {"customerId": 1}
+                {"eventData": {}}
+                """;
+
+        assertThatThrownBy(() -> bulkLoader.load(text(body), "events.ndjson"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Line 2: customerId is required");
+    }
+
+    @Test
+    void load_invalidTimestampIsRejected() {
+        recordCopiedRows();
+
+        assertThatThrownBy(() -> bulkLoader.load(text("{\"customerId\": 1, \"eventTimestamp\": \"yesterday\"}"), null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Line 1: invalid eventTimestamp");
+    }
+
+    @Test
+    void load_malformedJsonIsRejected() {
+        recordCopiedRows();
+
+        assertThatThrownBy(() -> bulkLoader.load(text("{\"customerId\": 1,"), null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageStartingWith("Line 1: malformed JSON");
+    }
+}
@@ -0,0 +1,67 @@
+package com.retailcorp.retailshopping.unit.service;
+
+import com.retailcorp.retailshopping.service.EventFieldBackfill;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventFieldBackfillTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private EventFieldBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(backfill, "enabled", false);
+        ReflectionTestUtils.setField(backfill, "batchSize", 100);
+    }
+
+    @Test
+    void backfill_walksEventIdRangesUntilNoRowsAreLeft() {
+        when(jdbcTemplate.queryForObject(contains("max(event_id)"), eq(Long.class), eq(0L), eq(100)))
+                .thenReturn(150L);
+        when(jdbcTemplate.queryForObject(contains("max(event_id)"), eq(Long.class), eq(150L), eq(100)))
+                .thenReturn(230L);
+        when(jdbcTemplate.queryForObject(contains("max(event_id)"), eq(Long.class), eq(230L), eq(100)))
+                .thenReturn(null);
+        when(jdbcTemplate.update(contains("UPDATE customer_events"), eq(0L), eq(150L))).thenReturn(100);
+        when(jdbcTemplate.update(contains("UPDATE customer_events"), eq(150L), eq(230L))).thenReturn(60);
+
+        long updated = backfill.backfill();
+
+        assertThat(updated).isEqualTo(160);
+    }
+
+    @Test
+    void backfill_emptyTable_updatesNothing() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(0L), eq(100))).thenReturn(null);
+
+        assertThat(backfill.backfill()).isZero();
+        verify(jdbcTemplate, never()).update(anyString(), eq(0L), eq(0L));
+    }
+
+    @Test
+    void start_disabled_doesNotTouchTheDatabase() {
+        backfill.start();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,219 @@
+package com.retailcorp.retailshopping.unit.service;
+
+import com.retailcorp.retailshopping.entity.CustomerEvent;
+import com.retailcorp.retailshopping.exception.EventQueueFullException;
+import com.retailcorp.retailshopping.repository.CustomerEventRepository;
+import com.retailcorp.retailshopping.service.EventIngestionQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EventIngestionQueueTest {
+
+    @Mock
+    private CustomerEventRepository eventRepository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private EventIngestionQueue queue;
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    private EventIngestionQueue queue(int capacity, int batchSize, long flushIntervalMs) {
+        queue = new EventIngestionQueue(eventRepository, registry, true, capacity, batchSize, flushIntervalMs, 5000);
+        return queue;
+    }
+
+    private static CustomerEvent event(long customerId) {
+        CustomerEvent event = new CustomerEvent();
+        event.setCustomerId(customerId);
+        return event;
+    }
+
+    private List<Integer> recordBatchSizes() {
+        List<Integer> sizes = new CopyOnWriteArrayList<>();
+        doAnswer(inv -> {
+            sizes.add(inv.<List<CustomerEvent>>getArgument(0).size());
+            return null;
+        }).when(eventRepository).insertAll(anyList());
+        return sizes;
+    }
+
+    @Test
+    void submit_beforeStart_isRejected() {
+        EventIngestionQueue q = queue(10, 5, 50);
+
+        assertThatThrownBy(() -> q.submit(event(1L)))
+                .isInstanceOf(EventQueueFullException.class);
+        assertThat(registry.get("events.ingest.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void writer_insertsInBatchesNoLargerThanBatchSize() {
+        List<Integer> sizes = recordBatchSizes();
+        EventIngestionQueue q = queue(100, 10, 200);
+        q.start();
+
+        for (int i = 0; i < 25; i++) {
+            q.submit(event(i));
+        }
+        q.stop();
+
+        assertThat(sizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(25);
+        assertThat(sizes).allSatisfy(size -> assertThat(size).isBetween(1, 10));
+        assertThat(registry.get("events.ingest.batch.size").summary().totalAmount()).isEqualTo(25.0);
+    }
+
+    @Test
+    void writer_flushesPartialBatchAfterInterval() throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        doAnswer(inv -> {
+            written.countDown();
+            return null;
+        }).when(eventRepository).insertAll(anyList());
+        EventIngestionQueue q = queue(100, 500, 20);
+        q.start();
+
+        q.submit(event(1L));
+
+        assertThat(written.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void submit_whenQueueIsFull_throwsAndCountsRejection() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(eventRepository).insertAll(anyList());
+        EventIngestionQueue q = queue(2, 1, 10);
+        q.start();
+
+        // The writer takes the first event and blocks on the insert; two more fill the queue
+        q.submit(event(1L));
+        assertThat(writing.await(2, TimeUnit.SECONDS)).isTrue();
+        q.submit(event(2L));
+        q.submit(event(3L));
+
+        assertThatThrownBy(() -> q.submit(event(4L)))
+                .isInstanceOf(EventQueueFullException.class)
+                .hasMessageContaining("Event queue is full");
+        assertThat(registry.get("events.ingest.queue.depth").gauge().value()).isEqualTo(2.0);
+        assertThat(registry.get("events.ingest.rejected").counter().count()).isEqualTo(1.0);
+        release.countDown();
+    }
+
+    @Test
+    void stop_writesEverythingAlreadyAccepted() {
+        List<Integer> sizes = recordBatchSizes();
+        EventIngestionQueue q = queue(100, 500, 200);
+        q.start();
+        q.submit(event(1L));
+        q.submit(event(2L));
+        q.submit(event(3L));
+
+        q.stop();
+
+        assertThat(q.isRunning()).isFalse();
+        assertThat(sizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(3);
+        assertThatThrownBy(() -> q.submit(event(4L))).isInstanceOf(EventQueueFullException.class);
+    }
+
+    @Test
+    void stop_racingSubmits_everyAcceptedEventIsWritten() throws Exception {
+        List<Integer> sizes = recordBatchSizes();
+        EventIngestionQueue q = queue(100_000, 50, 5);
+        q.start();
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch submitting = new CountDownLatch(4);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread producer = new Thread(() -> {
+                submitting.countDown();
+                for (int i = 0; i < 20_000; i++) {
+                    try {
+                        q.submit(event(i));
+                        accepted.incrementAndGet();
+                    } catch (EventQueueFullException e) {
+                        // refused, so the client was told to retry
+                    }
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+
+        submitting.await();
+        q.stop();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertThat(sizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(accepted.get());
+        assertThat(registry.get("events.ingest.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    void stopsAfterTheWebServer() {
+        EventIngestionQueue q = queue(10, 5, 50);
+
+        // Lower phases stop later; the web server's start/stop lifecycle sits 1024 below graceful shutdown
+        assertThat(q.getPhase()).isLessThan(WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+
+    @Test
+    void writeFailure_countsDroppedEventsAndKeepsDraining() {
+        List<Integer> sizes = new CopyOnWriteArrayList<>();
+        doThrow(new RuntimeException("connection refused"))
+                .doAnswer(inv -> {
+                    sizes.add(inv.<List<CustomerEvent>>getArgument(0).size());
+                    return null;
+                })
+                .when(eventRepository).insertAll(anyList());
+        EventIngestionQueue q = queue(100, 1, 200);
+        q.start();
+
+        q.submit(event(1L));
+        q.submit(event(2L));
+        q.stop();
+
+        assertThat(registry.get("events.ingest.dropped").counter().count()).isEqualTo(1.0);
+        assertThat(sizes).containsExactly(1);
+    }
+
+    @Test
+    void disabled_doesNotAutoStart() {
+        queue = new EventIngestionQueue(eventRepository, registry, false, 10, 5, 50, 5000);
+
+        assertThat(queue.isEnabled()).isFalse();
+        assertThat(queue.isAutoStartup()).isFalse();
+        verify(eventRepository, never()).insertAll(anyList());
+    }
+}
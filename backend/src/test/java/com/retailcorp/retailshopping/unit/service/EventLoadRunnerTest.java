@@ -0,0 +1,67 @@
+package com.retailcorp.retailshopping.unit.service;
+
+import com.retailcorp.retailshopping.dto.EventLoadResult;
+import com.retailcorp.retailshopping.service.EventBulkLoader;
+import com.retailcorp.retailshopping.service.EventLoadRunner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventLoadRunnerTest {
+
+    @Mock
+    private EventBulkLoader bulkLoader;
+
+    @InjectMocks
+    private EventLoadRunner runner;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void run_successfulLoad_exitsWithZero() throws Exception {
+        Path file = Files.writeString(dir.resolve("events.ndjson"), "{}\n");
+        ReflectionTestUtils.setField(runner, "file", file);
+        when(bulkLoader.load(any(), eq("events.ndjson"))).thenReturn(EventLoadResult.builder().rows(1).build());
+
+        runner.run(new DefaultApplicationArguments());
+
+        assertThat(runner.getExitCode()).isZero();
+    }
+
+    @Test
+    void run_failedLoad_exitsWithOneWithoutExitingTheJvm() throws Exception {
+        Path file = Files.writeString(dir.resolve("events.ndjson"), "not json\n");
+        ReflectionTestUtils.setField(runner, "file", file);
+        when(bulkLoader.load(any(), any())).thenThrow(new IOException("bad line 1"));
+
+        runner.run(new DefaultApplicationArguments());
+
+        assertThat(runner.getExitCode()).isEqualTo(1);
+    }
+
+    @Test
+    void run_missingFile_exitsWithOne() {
+        ReflectionTestUtils.setField(runner, "file", dir.resolve("missing.ndjson"));
+
+        runner.run(new DefaultApplicationArguments());
+
+        assertThat(runner.getExitCode()).isEqualTo(1);
+    }
+}
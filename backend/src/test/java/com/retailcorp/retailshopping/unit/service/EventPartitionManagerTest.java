@@ -0,0 +1,239 @@
+package com.retailcorp.retailshopping.unit.service;
+
+import com.retailcorp.retailshopping.service.EventPartitionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventPartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private EventPartitionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(manager, "clock",
+                Clock.fixed(Instant.parse("2026-10-18T12:00:00Z"), ZoneOffset.UTC));
+        ReflectionTestUtils.setField(manager, "enabled", true);
+        ReflectionTestUtils.setField(manager, "interval", "monthly");
+        ReflectionTestUtils.setField(manager, "premake", 2);
+        ReflectionTestUtils.setField(manager, "retention", 0);
+        ReflectionTestUtils.setField(manager, "expireAction", "detach");
+    }
+
+    private void partitioned(boolean partitioned, String... partitions) {
+        Map<String, String> bounds = new LinkedHashMap<>();
+        for (String name : partitions) {
+            bounds.put(name, boundOf(name));
+        }
+        partitionedWithBounds(partitioned, bounds);
+    }
+
+    // Partition name -> pg_get_expr(relpartbound) as Postgres prints it
+    private void partitionedWithBounds(boolean partitioned, Map<String, String> bounds) {
+        when(jdbcTemplate.queryForObject(contains("pg_partitioned_table"), eq(Integer.class), eq("customer_events")))
+                .thenReturn(partitioned ? 1 : 0);
+        if (partitioned) {
+            doAnswer(inv -> {
+                RowCallbackHandler handler = inv.getArgument(1);
+                for (Map.Entry<String, String> partition : bounds.entrySet()) {
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getString(1)).thenReturn(partition.getKey());
+                    when(rs.getString(2)).thenReturn(partition.getValue());
+                    handler.processRow(rs);
+                }
+                return null;
+            }).when(jdbcTemplate).query(contains("pg_inherits"), any(RowCallbackHandler.class), eq("customer_events"));
+        }
+    }
+
+    private static String boundOf(String name) {
+        if (name.endsWith("_default")) {
+            return "DEFAULT";
+        }
+        String stamp = name.substring(name.lastIndexOf('_') + 2);
+        LocalDate from = stamp.length() == 8
+                ? LocalDate.parse(stamp, DateTimeFormatter.BASIC_ISO_DATE)
+                : LocalDate.parse(stamp + "01", DateTimeFormatter.BASIC_ISO_DATE);
+        LocalDate to = stamp.length() == 8 ? from.plusDays(1) : from.plusMonths(1);
+        return "FOR VALUES FROM ('" + from + " 00:00:00') TO ('" + to + " 00:00:00')";
+    }
+
+    private List<String> executed() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeastOnce()).execute(sql.capture());
+        return sql.getAllValues();
+    }
+
+    @Test
+    void maintain_createsCurrentAndUpcomingMonths() {
+        partitioned(true, "customer_events_default");
+
+        manager.maintain();
+
+        assertThat(executed()).containsExactly(
+                "CREATE TABLE IF NOT EXISTS customer_events_p202610 PARTITION OF customer_events"
+                        + " FOR VALUES FROM ('2026-10-01') TO ('2026-11-01')",
+                "CREATE TABLE IF NOT EXISTS customer_events_p202611 PARTITION OF customer_events"
+                        + " FOR VALUES FROM ('2026-11-01') TO ('2026-12-01')",
+                "CREATE TABLE IF NOT EXISTS customer_events_p202612 PARTITION OF customer_events"
+                        + " FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')");
+    }
+
+    @Test
+    void maintain_skipsExistingPartitions() {
+        partitioned(true, "customer_events_p202610", "customer_events_p202611");
+
+        manager.maintain();
+
+        assertThat(executed()).containsExactly(
+                "CREATE TABLE IF NOT EXISTS customer_events_p202612 PARTITION OF customer_events"
+                        + " FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')");
+    }
+
+    @Test
+    void maintain_daily_doesNotOverlapAnExistingMonthlyPartition() {
+        ReflectionTestUtils.setField(manager, "interval", "daily");
+        partitioned(true, "customer_events_p202610");
+
+        manager.maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void maintain_daily_namesPartitionsByDay() {
+        ReflectionTestUtils.setField(manager, "interval", "daily");
+        ReflectionTestUtils.setField(manager, "premake", 1);
+        partitioned(true);
+
+        manager.maintain();
+
+        assertThat(executed()).containsExactly(
+                "CREATE TABLE IF NOT EXISTS customer_events_p20261018 PARTITION OF customer_events"
+                        + " FOR VALUES FROM ('2026-10-18') TO ('2026-10-19')",
+                "CREATE TABLE IF NOT EXISTS customer_events_p20261019 PARTITION OF customer_events"
+                        + " FOR VALUES FROM ('2026-10-19') TO ('2026-10-20')");
+    }
+
+    @Test
+    void maintain_detachesPartitionsPastRetention() {
+        ReflectionTestUtils.setField(manager, "retention", 3);
+        Map<String, String> bounds = new LinkedHashMap<>();
+        bounds.put("customer_events_legacy", "FOR VALUES FROM (MINVALUE) TO ('2026-06-01 00:00:00')");
+        for (String name : List.of("customer_events_default", "customer_events_p202606", "customer_events_p202607",
+                "customer_events_p202610", "customer_events_p202611", "customer_events_p202612")) {
+            bounds.put(name, boundOf(name));
+        }
+        partitionedWithBounds(true, bounds);
+
+        manager.maintain();
+
+        assertThat(executed()).containsExactly(
+                "ALTER TABLE customer_events DETACH PARTITION customer_events_p202606");
+    }
+
+    @Test
+    void maintain_doesNotOverlapTheMigratedLegacyPartition() {
+        // db/customer-events-partitioning.sql bounds the legacy table at next month's start
+        partitionedWithBounds(true, Map.of(
+                "customer_events_legacy", "FOR VALUES FROM (MINVALUE) TO ('2026-11-01 00:00:00')",
+                "customer_events_default", "DEFAULT"));
+
+        manager.maintain();
+
+        assertThat(executed()).containsExactly(
+                "CREATE TABLE IF NOT EXISTS customer_events_p202611 PARTITION OF customer_events"
+                        + " FOR VALUES FROM ('2026-11-01') TO ('2026-12-01')",
+                "CREATE TABLE IF NOT EXISTS customer_events_p202612 PARTITION OF customer_events"
+                        + " FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')");
+    }
+
+    @Test
+    void maintain_dropExpireAction_dropsTheTable() {
+        ReflectionTestUtils.setField(manager, "retention", 1);
+        ReflectionTestUtils.setField(manager, "expireAction", "drop");
+        partitioned(true, "customer_events_p202608",
+                "customer_events_p202610", "customer_events_p202611", "customer_events_p202612");
+
+        manager.maintain();
+
+        assertThat(executed()).containsExactly("DROP TABLE customer_events_p202608");
+    }
+
+    @Test
+    void maintain_failedCreateDoesNotStopTheRun() {
+        partitioned(true);
+        doThrow(new DataIntegrityViolationException("default partition contains rows"))
+                .when(jdbcTemplate).execute(contains("customer_events_p202610"));
+
+        manager.maintain();
+
+        assertThat(executed()).hasSize(3);
+    }
+
+    @Test
+    void maintain_plainTable_doesNothing() {
+        partitioned(false);
+
+        manager.maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void maintain_disabled_doesNotTouchTheDatabase() {
+        ReflectionTestUtils.setField(manager, "enabled", false);
+
+        manager.maintain();
+
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Integer.class), eq("customer_events"));
+    }
+
+    @Test
+    void maintain_unknownInterval_fails() {
+        ReflectionTestUtils.setField(manager, "interval", "weekly");
+        when(jdbcTemplate.queryForObject(contains("pg_partitioned_table"), eq(Integer.class), eq("customer_events")))
+                .thenReturn(1);
+
+        assertThatThrownBy(() -> manager.maintain())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("weekly");
+    }
+}
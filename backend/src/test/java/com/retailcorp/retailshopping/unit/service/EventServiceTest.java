@@ -2,31 +2,60 @@ package com.retailcorp.retailshopping.unit.service;
 
 import com.retailcorp.retailshopping.dto.CustomerEventRequest;
 import com.retailcorp.retailshopping.dto.CustomerEventResponse;
+import com.retailcorp.retailshopping.dto.EventBatchResponse;
+import com.retailcorp.retailshopping.dto.EventLineResult;
+import com.retailcorp.retailshopping.dto.EventHistoryFilter;
+import com.retailcorp.retailshopping.dto.EventPage;
+import com.retailcorp.retailshopping.dto.EventSearchRequest;
 import com.retailcorp.retailshopping.entity.CustomerEvent;
 import com.retailcorp.retailshopping.repository.CustomerEventRepository;
+import com.retailcorp.retailshopping.exception.BadRequestException;
+import com.retailcorp.retailshopping.service.EventIngestionQueue;
 import com.retailcorp.retailshopping.service.EventService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class EventServiceTest {
 
+    private static final EventHistoryFilter NO_FILTER = EventHistoryFilter.builder().build();
+
     @Mock
     private CustomerEventRepository eventRepository;
 
+    @Mock
+    private EventIngestionQueue ingestionQueue;
+
     @InjectMocks
     private EventService eventService;
 
@@ -34,6 +63,14 @@ class EventServiceTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(eventService, "chunkSize", 2);
+        ReflectionTestUtils.setField(eventService, "maxLines", 100);
+        ReflectionTestUtils.setField(eventService, "maxLineBytes", 1024);
+        ReflectionTestUtils.setField(eventService, "defaultPageSize", 100);
+        ReflectionTestUtils.setField(eventService, "maxPageSize", 1000);
+        ReflectionTestUtils.setField(eventService, "defaultSearchSize", 100);
+        ReflectionTestUtils.setField(eventService, "maxSearchSize", 1000);
+        ReflectionTestUtils.setField(eventService, "maxSearchKeys", 8);
         sampleEvent = new CustomerEvent();
         sampleEvent.setEventId(1L);
         sampleEvent.setCustomerId(100L);
@@ -62,22 +99,48 @@ class EventServiceTest {
     @Test
     void getEventsForCustomer_returnsListOfResponses() {
         sampleEvent.setEventData("{\"action\": \"purchase\"}");
-        when(eventRepository.findByCustomerIdOrderByEventTimestampDesc(100L))
+        when(eventRepository.findHistoryPage(100L, NO_FILTER, null, null, 101))
                 .thenReturn(List.of(sampleEvent));
 
-        List<CustomerEventResponse> responses = eventService.getEventsForCustomer(100L);
+        List<CustomerEventResponse> responses = eventService.getEventsForCustomer(100L, NO_FILTER, null, null).getItems();
 
         assertThat(responses).hasSize(1);
         assertThat(responses.get(0).getEventData()).containsEntry("action", "purchase");
     }
 
+    @Test
+    void getEventsForCustomer_rawJson_passesStoredJsonThroughUnparsed() {
+        ReflectionTestUtils.setField(eventService, "rawJson", true);
+        sampleEvent.setEventData("{\"action\": \"purchase\", \"items\": [1, 2]}");
+        when(eventRepository.findHistoryPage(100L, NO_FILTER, null, null, 101))
+                .thenReturn(List.of(sampleEvent));
+
+        List<CustomerEventResponse> responses = eventService.getEventsForCustomer(100L, NO_FILTER, null, null).getItems();
+
+        assertThat(responses.get(0).getRawEventData()).isEqualTo("{\"action\": \"purchase\", \"items\": [1, 2]}");
+        assertThat(responses.get(0).getEventData()).isNull();
+    }
+
+    @Test
+    void getEventsForCustomer_rawJson_nullJsonStillGivesEmptyMap() {
+        ReflectionTestUtils.setField(eventService, "rawJson", true);
+        sampleEvent.setEventData(null);
+        when(eventRepository.findHistoryPage(100L, NO_FILTER, null, null, 101))
+                .thenReturn(List.of(sampleEvent));
+
+        List<CustomerEventResponse> responses = eventService.getEventsForCustomer(100L, NO_FILTER, null, null).getItems();
+
+        assertThat(responses.get(0).getRawEventData()).isNull();
+        assertThat(responses.get(0).getEventData()).isEmpty();
+    }
+
     @Test
     void jsonToMap_returnsEmptyMapForNullJson() {
         sampleEvent.setEventData(null);
-        when(eventRepository.findByCustomerIdOrderByEventTimestampDesc(100L))
+        when(eventRepository.findHistoryPage(100L, NO_FILTER, null, null, 101))
                 .thenReturn(List.of(sampleEvent));
 
-        List<CustomerEventResponse> responses = eventService.getEventsForCustomer(100L);
+        List<CustomerEventResponse> responses = eventService.getEventsForCustomer(100L, NO_FILTER, null, null).getItems();
 
         assertThat(responses.get(0).getEventData()).isEmpty();
     }
@@ -85,10 +148,10 @@ class EventServiceTest {
     @Test
     void jsonToMap_returnsEmptyMapForBlankJson() {
         sampleEvent.setEventData("   ");
-        when(eventRepository.findByCustomerIdOrderByEventTimestampDesc(100L))
+        when(eventRepository.findHistoryPage(100L, NO_FILTER, null, null, 101))
                 .thenReturn(List.of(sampleEvent));
 
-        List<CustomerEventResponse> responses = eventService.getEventsForCustomer(100L);
+        List<CustomerEventResponse> responses = eventService.getEventsForCustomer(100L, NO_FILTER, null, null).getItems();
 
         assertThat(responses.get(0).getEventData()).isEmpty();
     }
@@ -96,10 +159,10 @@ class EventServiceTest {
     @Test
     void jsonToMap_throwsRuntimeExceptionForInvalidJson() {
         sampleEvent.setEventData("not valid json {{{");
-        when(eventRepository.findByCustomerIdOrderByEventTimestampDesc(100L))
+        when(eventRepository.findHistoryPage(100L, NO_FILTER, null, null, 101))
                 .thenReturn(List.of(sampleEvent));
 
-        assertThatThrownBy(() -> eventService.getEventsForCustomer(100L))
+        assertThatThrownBy(() -> eventService.getEventsForCustomer(100L, NO_FILTER, null, null).getItems())
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Invalid JSON stored in event_data");
     }
@@ -119,4 +182,322 @@ class EventServiceTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Failed to serialize event_data");
     }
-}
\ No newline at end of file
+
+    @Test
+    void enqueueEvent_submitsSerializedEventWithoutSaving() {
+        CustomerEventRequest request = new CustomerEventRequest();
+        request.setCustomerId(100L);
+        request.setEventData(Map.of("action", "click"));
+
+        eventService.enqueueEvent(request);
+
+        ArgumentCaptor<CustomerEvent> captor = ArgumentCaptor.forClass(CustomerEvent.class);
+        verify(ingestionQueue).submit(captor.capture());
+        assertThat(captor.getValue().getCustomerId()).isEqualTo(100L);
+        assertThat(captor.getValue().getEventData()).isEqualTo("{\"action\":\"click\"}");
+        assertThat(captor.getValue().getLoadTimestamp()).isNotNull();
+        verify(eventRepository, never()).save(any(CustomerEvent.class));
+    }
+
+    @Test
+    void enqueueEvent_promotesHotEventDataFieldsToColumns() {
+        CustomerEventRequest request = new CustomerEventRequest();
+        request.setCustomerId(100L);
+        request.setEventData(Map.of("event_type", "VIEW", "product_id", 7, "session_id", "s-1"));
+
+        eventService.enqueueEvent(request);
+
+        ArgumentCaptor<CustomerEvent> captor = ArgumentCaptor.forClass(CustomerEvent.class);
+        verify(ingestionQueue).submit(captor.capture());
+        assertThat(captor.getValue().getEventType()).isEqualTo("VIEW");
+        assertThat(captor.getValue().getProductId()).isEqualTo(7L);
+        assertThat(captor.getValue().getSessionId()).isEqualTo("s-1");
+    }
+
+    @Test
+    void enqueueEvent_withoutCustomerId_throwsBadRequest() {
+        CustomerEventRequest request = new CustomerEventRequest();
+        request.setEventData(Map.of("action", "click"));
+
+        assertThatThrownBy(() -> eventService.enqueueEvent(request))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("customerId is required");
+        verifyNoInteractions(ingestionQueue);
+    }
+
+    private static ByteArrayInputStream ndjson(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<Integer> assignIdsOnInsert() {
+        List<Integer> chunkSizes = new ArrayList<>();
+        long[] nextId = {1};
+        doAnswer(inv -> {
+            List<CustomerEvent> events = inv.getArgument(0);
+            chunkSizes.add(events.size());
+            events.forEach(e -> e.setEventId(nextId[0]++));
+            return null;
+        }).when(eventRepository).insertAll(anyList());
+        return chunkSizes;
+    }
+
+    @Test
+    void ingestBatch_insertsValidLinesInChunksAndReportsEachLine() throws Exception {
+        List<Integer> chunkSizes = assignIdsOnInsert();
+        String body = """
+                {"customerId": 1, "eventData": {"event_type": "view"}}
+                {"customerId": 2, "eventData": {"event_type": "click"}}
+
+                {"customerId": 3, "eventData": {"event_type": "cart_add"}}
+                """;
+
+        EventBatchResponse response = eventService.ingestBatch(ndjson(body));
+
+        assertThat(response.getAccepted()).isEqualTo(3);
+        assertThat(response.getRejected()).isZero();
+        assertThat(response.isTruncated()).isFalse();
+        assertThat(response.getResults()).extracting(EventLineResult::getLine).containsExactly(1, 2, 4);
+        assertThat(response.getResults()).extracting(EventLineResult::getEventId).containsExactly(1L, 2L, 3L);
+        assertThat(chunkSizes).containsExactly(2, 1);
+        verify(eventRepository, never()).save(any(CustomerEvent.class));
+    }
+
+    @Test
+    void ingestBatch_rejectsBadLinesAndKeepsTheRest() throws Exception {
+        assignIdsOnInsert();
+        String body = """
+                {"customerId": 1, "eventData": {"event_type": "view"}}
+                {"customerId": 2, "eventData":
+                {"eventData": {"event_type": "view"}}
+                [1, 2]
+                {"customerId": 5} {"customerId": 6}
+                {"customerId": 7, "eventData": {"event_type": "view"}}
+                """;
+
+        EventBatchResponse response = eventService.ingestBatch(ndjson(body));
+
+        assertThat(response.getAccepted()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(4);
+        assertThat(response.getResults()).extracting(EventLineResult::getStatus)
+                .containsExactly("accepted", "rejected", "rejected", "rejected", "rejected", "accepted");
+        assertThat(response.getResults().get(1).getError()).startsWith("Malformed JSON");
+        assertThat(response.getResults().get(2).getError()).isEqualTo("customerId is required");
+        assertThat(response.getResults().get(3).getError()).isEqualTo("Expected a JSON object");
+        assertThat(response.getResults().get(4).getError()).isEqualTo("Unexpected content after the JSON object");
+        assertThat(response.getResults().get(5).getEventId()).isEqualTo(2L);
+    }
+
+    @Test
+    void ingestBatch_failedChunkRejectsOnlyItsLines() throws Exception {
+        doThrow(new DataAccessResourceFailureException("connection lost"))
+                .doAnswer(inv -> {
+                    List<CustomerEvent> events = inv.getArgument(0);
+                    events.forEach(e -> e.setEventId(99L));
+                    return null;
+                })
+                .when(eventRepository).insertAll(anyList());
+        String body = """
+                {"customerId": 1}
+                {"customerId": 2}
+                {"customerId": 3}
+                """;
+
+        EventBatchResponse response = eventService.ingestBatch(ndjson(body));
+
+        assertThat(response.getResults()).extracting(EventLineResult::getStatus)
+                .containsExactly("rejected", "rejected", "accepted");
+        assertThat(response.getResults().get(0).getError()).isEqualTo("Failed to store event");
+        verify(eventRepository, times(2)).insertAll(anyList());
+    }
+
+    @Test
+    void ingestBatch_stopsReadingAfterMaxLines() throws Exception {
+        ReflectionTestUtils.setField(eventService, "maxLines", 2);
+        assignIdsOnInsert();
+        String body = """
+                {"customerId": 1}
+                {"customerId": 2}
+                {"customerId": 3}
+                """;
+
+        EventBatchResponse response = eventService.ingestBatch(ndjson(body));
+
+        assertThat(response.isTruncated()).isTrue();
+        assertThat(response.getResults()).hasSize(2);
+        assertThat(response.getAccepted()).isEqualTo(2);
+    }
+
+    @Test
+    void ingestBatch_rejectsAnOversizedLineAndKeepsTheRest() throws Exception {
+        assignIdsOnInsert();
+        String body = "{\"customerId\": 1}\n"
+                + "{\"customerId\": 2, \"eventData\": {\"blob\": \"" + "x".repeat(5000) + "\"}}\n"
+                + "{\"customerId\": 3}\n";
+
+        EventBatchResponse response = eventService.ingestBatch(ndjson(body));
+
+        assertThat(response.getResults()).extracting(EventLineResult::getStatus)
+                .containsExactly("accepted", "rejected", "accepted");
+        assertThat(response.getResults().get(1).getError()).isEqualTo("Line exceeds 1024 bytes");
+        assertThat(response.getResults()).extracting(EventLineResult::getLine).containsExactly(1, 2, 3);
+    }
+
+    private static CustomerEvent storedEvent(long id, LocalDateTime timestamp) {
+        CustomerEvent event = new CustomerEvent();
+        event.setEventId(id);
+        event.setCustomerId(100L);
+        event.setEventTimestamp(timestamp);
+        event.setEventData("{}");
+        return event;
+    }
+
+    @Test
+    void getEventsForCustomer_fullPage_returnsCursorForTheNextOne() {
+        LocalDateTime t = LocalDateTime.of(2026, 10, 17, 12, 0);
+        when(eventRepository.findHistoryPage(100L, NO_FILTER, null, null, 3)).thenReturn(List.of(
+                storedEvent(9L, t), storedEvent(8L, t), storedEvent(5L, t.minusMinutes(1))));
+
+        EventPage page = eventService.getEventsForCustomer(100L, NO_FILTER, 2, null);
+
+        assertThat(page.getItems()).extracting(CustomerEventResponse::getEventId).containsExactly(9L, 8L);
+        assertThat(page.getNextCursor()).isNotBlank();
+
+        // The cursor resumes strictly after the last event returned
+        when(eventRepository.findHistoryPage(100L, NO_FILTER, t, 8L, 3))
+                .thenReturn(List.of(storedEvent(5L, t.minusMinutes(1))));
+
+        EventPage next = eventService.getEventsForCustomer(100L, NO_FILTER, 2, page.getNextCursor());
+
+        assertThat(next.getItems()).extracting(CustomerEventResponse::getEventId).containsExactly(5L);
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getEventsForCustomer_passesTimeBoundsToTheQuery() {
+        LocalDateTime from = LocalDateTime.of(2026, 10, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 10, 2, 0, 0);
+        EventHistoryFilter filter = EventHistoryFilter.builder().from(from).to(to).build();
+        when(eventRepository.findHistoryPage(100L, filter, null, null, 51)).thenReturn(List.of());
+
+        EventPage page = eventService.getEventsForCustomer(100L, filter, 50, null);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getEventsForCustomer_limitOutOfRange_throwsBadRequest() {
+        assertThatThrownBy(() -> eventService.getEventsForCustomer(100L, NO_FILTER, 0, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("limit must be between 1 and 1000");
+        assertThatThrownBy(() -> eventService.getEventsForCustomer(100L, NO_FILTER, 1001, null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void getEventsForCustomer_fromNotBeforeTo_throwsBadRequest() {
+        LocalDateTime t = LocalDateTime.of(2026, 10, 1, 0, 0);
+
+        assertThatThrownBy(() -> eventService.getEventsForCustomer(
+                100L, EventHistoryFilter.builder().from(t).to(t).build(), null, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("from must be before to");
+    }
+
+    private static EventSearchRequest search(Map<String, Object> eventData) {
+        EventSearchRequest request = new EventSearchRequest();
+        request.setEventData(eventData);
+        return request;
+    }
+
+    @Test
+    void searchEvents_compilesFilterIntoContainmentJson() {
+        EventSearchRequest request = search(Map.of("page", "product_details"));
+        request.setCustomerId(100L);
+        when(eventRepository.searchByEventData("{\"page\":\"product_details\"}", 100L, null, null, 100))
+                .thenReturn(List.of(sampleEvent));
+
+        List<CustomerEventResponse> responses = eventService.searchEvents(request);
+
+        assertThat(responses).hasSize(1);
+        assertThat(responses.get(0).getEventId()).isEqualTo(sampleEvent.getEventId());
+    }
+
+    @Test
+    void searchEvents_missingFilter_throwsBadRequest() {
+        assertThatThrownBy(() -> eventService.searchEvents(search(Map.of())))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("eventData filter is required");
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void searchEvents_nestedValue_throwsBadRequest() {
+        assertThatThrownBy(() -> eventService.searchEvents(search(Map.of("page", Map.of("name", "x")))))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Filter value for 'page' must be a string, number or boolean");
+    }
+
+    @Test
+    void searchEvents_tooManyKeys_throwsBadRequest() {
+        Map<String, Object> filter = new HashMap<>();
+        for (int i = 0; i < 9; i++) {
+            filter.put("k" + i, i);
+        }
+
+        assertThatThrownBy(() -> eventService.searchEvents(search(filter)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("At most 8 eventData keys can be filtered on");
+    }
+
+    @Test
+    void searchEvents_limitOutOfRange_throwsBadRequest() {
+        EventSearchRequest request = search(Map.of("page", "cart"));
+        request.setLimit(1001);
+
+        assertThatThrownBy(() -> eventService.searchEvents(request))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("limit must be between 1 and 1000");
+    }
+
+    @Test
+    void getEventsForCustomer_garbledCursor_throwsBadRequest() {
+        assertThatThrownBy(() -> eventService.getEventsForCustomer(100L, NO_FILTER, null, "not-a-cursor"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Invalid cursor");
+        verify(eventRepository, never()).findHistoryPage(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void exportEvents_writesOneJsonObjectPerLineWithRawEventData() throws Exception {
+        ReflectionTestUtils.setField(eventService, "exportFetchSize", 500);
+        CustomerEvent first = storedEvent(1L, LocalDateTime.of(2026, 10, 17, 9, 15));
+        first.setEventData("{\"action\": \"view\"}");
+        first.setLoadTimestamp(LocalDateTime.of(2026, 10, 17, 9, 16, 0, 500_000_000));
+        CustomerEvent second = storedEvent(2L, LocalDateTime.of(2026, 10, 17, 9, 20));
+        second.setEventData(null);
+        when(eventRepository.streamHistory(100L, 500)).thenReturn(Stream.of(first, second));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = eventService.exportEvents(100L, out);
+
+        assertThat(rows).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"eventId\":1,\"customerId\":100,\"eventTimestamp\":\"2026-10-17T09:15:00\","
+                        + "\"eventData\":{\"action\": \"view\"},\"loadTimestamp\":\"2026-10-17T09:16:00.5\"}\n"
+                        + "{\"eventId\":2,\"customerId\":100,\"eventTimestamp\":\"2026-10-17T09:20:00\","
+                        + "\"eventData\":{}}\n");
+    }
+
+    @Test
+    void exportEvents_closesTheCursorStream() throws Exception {
+        boolean[] closed = {false};
+        when(eventRepository.streamHistory(100L, 0))
+                .thenReturn(Stream.<CustomerEvent>empty().onClose(() -> closed[0] = true));
+
+        long rows = eventService.exportEvents(100L, new ByteArrayOutputStream());
+
+        assertThat(rows).isZero();
+        assertThat(closed[0]).isTrue();
+    }
+}
@@ -1,10 +1,13 @@
 package com.retailcorp.retailshopping.unit.service;
 
 import com.retailcorp.retailshopping.service.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Optional;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class JwtTokenProviderTest {
@@ -16,6 +19,7 @@ class JwtTokenProviderTest {
         tokenProvider = new JwtTokenProvider();
         ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "thisIsATestSecretKeyThatIsLongEnough123456");
         ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", 86400000L);
+        tokenProvider.init();
     }
 
     @Test
@@ -71,4 +75,41 @@ class JwtTokenProviderTest {
 
         assertThat(isValid).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseAndValidate_validToken_returnsClaims() {
+        String token = tokenProvider.generateToken("test@example.com");
+
+        Optional<Claims> claims = tokenProvider.parseAndValidate(token);
+
+        assertThat(claims).isPresent();
+        assertThat(claims.get().getSubject()).isEqualTo("test@example.com");
+        assertThat(claims.get().getExpiration()).isAfter(claims.get().getIssuedAt());
+    }
+
+    @Test
+    void parseAndValidate_tamperedToken_returnsEmpty() {
+        String token = tokenProvider.generateToken("test@example.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(tokenProvider.parseAndValidate(tampered)).isEmpty();
+    }
+
+    @Test
+    void parseAndValidate_expiredToken_returnsEmpty() {
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", -1000L);
+        String token = tokenProvider.generateToken("test@example.com");
+
+        assertThat(tokenProvider.parseAndValidate(token)).isEmpty();
+    }
+
+    @Test
+    void parseAndValidate_tokenSignedWithAnotherKey_returnsEmpty() {
+        JwtTokenProvider other = new JwtTokenProvider();
+        ReflectionTestUtils.setField(other, "jwtSecret", "aDifferentSecretKeyThatIsAlsoLongEnough9876");
+        ReflectionTestUtils.setField(other, "jwtExpiration", 86400000L);
+        other.init();
+
+        assertThat(tokenProvider.parseAndValidate(other.generateToken("test@example.com"))).isEmpty();
+    }
+}
@@ -6,6 +6,8 @@ import com.retailcorp.retailshopping.dto.OrderResponse;
 import com.retailcorp.retailshopping.dto.ProductResponse;
 import com.retailcorp.retailshopping.entity.Customer;
 import com.retailcorp.retailshopping.entity.Order;
+import com.retailcorp.retailshopping.entity.OrderItem;
+import com.retailcorp.retailshopping.exception.InsufficientStockException;
 import com.retailcorp.retailshopping.exception.InvalidOrderException;
 import com.retailcorp.retailshopping.exception.ResourceNotFoundException;
 import com.retailcorp.retailshopping.repository.CustomerEventRepository;
@@ -22,11 +24,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -144,13 +152,74 @@ class OrderServiceTest {
         .build();
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(productService.getProductById(10L)).thenReturn(productWithNullPrice);
+        when(productService.getProductsByIds(Set.of(10L))).thenReturn(Map.of(10L, productWithNullPrice));
 
         assertThatThrownBy(() -> orderService.placeOrder(request))
                 .isInstanceOf(InvalidOrderException.class)
                 .hasMessageContaining("Product price missing");
     }
 
+    @Test
+    void placeOrder_throwsWhenProductNotFound() {
+        OrderRequest request = new OrderRequest();
+        request.setCustomerId(1L);
+        request.setItems(List.of(new OrderItemRequest(10L, 1), new OrderItemRequest(99L, 1)));
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(productService.getProductsByIds(Set.of(10L, 99L))).thenReturn(Map.of(10L, product));
+
+        assertThatThrownBy(() -> orderService.placeOrder(request))
+                .isInstanceOf(InvalidOrderException.class)
+                .hasMessage("Product not found with ID: 99");
+    }
+
+    @Test
+    void placeOrder_resolvesAllProductsWithSingleLookup() {
+        ProductResponse other = ProductResponse.builder()
+                .productId(11L)
+                .productName("Other Product")
+                .unitPrice(10.0)
+                .build();
+
+        OrderRequest request = new OrderRequest();
+        request.setCustomerId(1L);
+        request.setItems(List.of(
+                new OrderItemRequest(10L, 1),
+                new OrderItemRequest(11L, 2),
+                new OrderItemRequest(10L, 1)));
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(productService.getProductsByIds(Set.of(10L, 11L))).thenReturn(Map.of(10L, product, 11L, other));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        OrderResponse response = orderService.placeOrder(request);
+
+        assertThat(response.getTotalAmount()).isEqualTo(70.0);  // 25 + 2 * 10 + 25
+        assertThat(response.getItems()).extracting("productName")
+                .containsExactly("Test Product", "Other Product", "Test Product");
+        verify(productService, times(1)).getProductsByIds(Set.of(10L, 11L));
+        verify(productService).reserveStock(Map.of(10L, 2, 11L, 2));
+    }
+
+    @Test
+    void placeOrder_insufficientStock_doesNotSaveOrder() {
+        OrderRequest request = new OrderRequest();
+        request.setCustomerId(1L);
+        request.setItems(List.of(new OrderItemRequest(10L, 5)));
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(productService.getProductsByIds(Set.of(10L))).thenReturn(Map.of(10L, product));
+        doThrow(new InsufficientStockException("Insufficient stock for product ID: 10"))
+                .when(productService).reserveStock(Map.of(10L, 5));
+
+        assertThatThrownBy(() -> orderService.placeOrder(request))
+                .isInstanceOf(InsufficientStockException.class);
+
+        verify(orderRepository, never()).save(any());
+        verify(customerRepository, never()).save(any());
+        assertThat(customer.getLifetimeValue()).isEqualTo(100.0);
+    }
+
     @Test
     void placeOrder_successWithNullLifetimeValue() {
         customer.setLifetimeValue(null);  // Test null LTV branch
@@ -164,7 +233,7 @@ class OrderServiceTest {
         request.setItems(List.of(itemRequest));
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(productService.getProductById(10L)).thenReturn(product);
+        when(productService.getProductsByIds(Set.of(10L))).thenReturn(Map.of(10L, product));
         when(orderRepository.save(any(Order.class))).thenAnswer(inv -> {
             Order o = inv.getArgument(0);
             o.setOrderId(100L);
@@ -189,7 +258,7 @@ class OrderServiceTest {
         request.setItems(List.of(itemRequest));
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(productService.getProductById(10L)).thenReturn(product);
+        when(productService.getProductsByIds(Set.of(10L))).thenReturn(Map.of(10L, product));
         when(orderRepository.save(any(Order.class))).thenAnswer(inv -> {
             Order o = inv.getArgument(0);
             o.setOrderId(200L);
@@ -218,4 +287,37 @@ class OrderServiceTest {
         assertThat(responses).hasSize(1);
         assertThat(responses.get(0).getOrderId()).isEqualTo(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findByCustomerId_resolvesProductNamesWithSingleLookup() {
+        Order first = orderWithItem(1L, 10L);
+        Order second = orderWithItem(2L, 11L);
+        ProductResponse other = ProductResponse.builder()
+                .productId(11L)
+                .productName("Other Product")
+                .build();
+
+        when(orderRepository.findByCustomerId(1L)).thenReturn(List.of(first, second));
+        when(productService.getProductsByIds(Set.of(10L, 11L))).thenReturn(Map.of(10L, product, 11L, other));
+
+        List<OrderResponse> responses = orderService.findByCustomerId(1L);
+
+        assertThat(responses).hasSize(2);
+        assertThat(responses.get(0).getItems().get(0).getProductName()).isEqualTo("Test Product");
+        assertThat(responses.get(1).getItems().get(0).getProductName()).isEqualTo("Other Product");
+        verify(productService, times(1)).getProductsByIds(Set.of(10L, 11L));
+        verify(productService, never()).getProductById(any());
+    }
+
+    private Order orderWithItem(Long orderId, Long productId) {
+        OrderItem item = new OrderItem();
+        item.setProductId(productId);
+        item.setQuantity(1);
+
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomerId(1L);
+        order.setItems(List.of(item));
+        return order;
+    }
+}
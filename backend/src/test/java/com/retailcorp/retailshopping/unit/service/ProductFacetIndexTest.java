@@ -0,0 +1,133 @@
+package com.retailcorp.retailshopping.unit.service;
+
+import com.retailcorp.retailshopping.dto.FacetedSearchResponse;
+import com.retailcorp.retailshopping.dto.ProductResponse;
+import com.retailcorp.retailshopping.dto.ProductSearchFilter;
+import com.retailcorp.retailshopping.service.ProductFacetIndex;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductFacetIndexTest {
+
+    private ProductFacetIndex index;
+
+    private List<ProductResponse> products;
+
+    @BeforeEach
+    void setUp() {
+        products = List.of(
+                product(4L, "Standing Desk", "Furniture", "Desks", "ComfortCo", 399.0, 5),
+                product(1L, "Laptop Pro 15", "Electronics", "Computers", "TechBrand", 1500.0, 10),
+                product(2L, "Wireless Mouse", "Electronics", "Accessories", "TechBrand", 25.0, 0),
+                product(3L, "USB-C Hub", "Electronics", "Accessories", "PortPlus", 45.0, 120));
+        index = ProductFacetIndex.build(products);
+    }
+
+    @Test
+    void search_withoutFilter_returnsAllInIdOrderWithCounts() {
+        FacetedSearchResponse result = index.search(null, ProductSearchFilter.builder().build());
+
+        assertThat(ids(result)).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(result.getTotal()).isEqualTo(4);
+        assertThat(result.getFacets().get(ProductFacetIndex.CATEGORY))
+                .containsExactly(Map.entry("Electronics", 3), Map.entry("Furniture", 1));
+        assertThat(result.getFacets().get(ProductFacetIndex.BRAND))
+                .containsExactly(Map.entry("TechBrand", 2), Map.entry("ComfortCo", 1), Map.entry("PortPlus", 1));
+    }
+
+    @Test
+    void search_categoryFilter_keepsSiblingCountsForThatFacet() {
+        FacetedSearchResponse result = index.search(null, filter().categories(List.of("furniture")).build());
+
+        assertThat(ids(result)).containsExactly(4L);
+        assertThat(result.getFacets().get(ProductFacetIndex.CATEGORY))
+                .containsEntry("Electronics", 3)
+                .containsEntry("Furniture", 1);
+        assertThat(result.getFacets().get(ProductFacetIndex.BRAND)).containsOnlyKeys("ComfortCo");
+    }
+
+    @Test
+    void search_valuesWithinFacetAreOredAndFacetsAreAnded() {
+        FacetedSearchResponse result = index.search(null, filter()
+                .brands(List.of("TechBrand", "PortPlus"))
+                .subcategories(List.of("Accessories"))
+                .build());
+
+        assertThat(ids(result)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void search_priceRangeIsInclusive() {
+        FacetedSearchResponse result = index.search(null, filter().minPrice(25.0).maxPrice(399.0).build());
+
+        assertThat(ids(result)).containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    void search_inStockFilter() {
+        assertThat(ids(index.search(null, filter().inStock(true).build()))).containsExactly(1L, 3L, 4L);
+        assertThat(ids(index.search(null, filter().inStock(false).build()))).containsExactly(2L);
+    }
+
+    @Test
+    void search_restrictsToTextHits() {
+        FacetedSearchResponse result = index.search(List.of(products.get(2), products.get(0)),
+                filter().categories(List.of("Electronics")).build());
+
+        assertThat(ids(result)).containsExactly(2L);
+        assertThat(result.getFacets().get(ProductFacetIndex.CATEGORY))
+                .containsExactly(Map.entry("Electronics", 1), Map.entry("Furniture", 1));
+    }
+
+    @Test
+    void search_unknownValue_matchesNothing() {
+        FacetedSearchResponse result = index.search(null, filter().brands(List.of("NoSuchBrand")).build());
+
+        assertThat(result.getItems()).isEmpty();
+        assertThat(result.getFacets().get(ProductFacetIndex.BRAND)).hasSize(3);
+    }
+
+    @Test
+    void search_denseAndSparseBitmapsAgree() {
+        // 200 products: "Common" is dense enough for word storage, "Rare" stays a position list
+        List<ProductResponse> many = new ArrayList<>();
+        IntStream.rangeClosed(1, 200).forEach(i -> many.add(product((long) i, "Item " + i, "Misc", "Misc",
+                i % 50 == 1 ? "Rare" : "Common", (double) i, i % 2)));
+        ProductFacetIndex large = ProductFacetIndex.build(many);
+
+        FacetedSearchResponse result = large.search(null, filter().inStock(true).maxPrice(100.0).build());
+
+        assertThat(result.getTotal()).isEqualTo(50);
+        assertThat(result.getFacets().get(ProductFacetIndex.BRAND))
+                .containsExactly(Map.entry("Common", 48), Map.entry("Rare", 2));
+    }
+
+    private static ProductSearchFilter.ProductSearchFilterBuilder filter() {
+        return ProductSearchFilter.builder();
+    }
+
+    private static List<Long> ids(FacetedSearchResponse result) {
+        return result.getItems().stream().map(ProductResponse::getProductId).toList();
+    }
+
+    private static ProductResponse product(Long id, String name, String category, String subcategory, String brand,
+                                           Double price, int stock) {
+        return ProductResponse.builder()
+                .productId(id)
+                .productName(name)
+                .category(category)
+                .subcategory(subcategory)
+                .brand(brand)
+                .unitPrice(price)
+                .stockQuantity(stock)
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.retailcorp.retailshopping.unit.service;
+
+import com.retailcorp.retailshopping.dto.ProductResponse;
+import com.retailcorp.retailshopping.service.ProductRelevanceIndex;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductRelevanceIndexTest {
+
+    private ProductRelevanceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = ProductRelevanceIndex.build(List.of(
+                product(1L, "Laptop Pro 15", "Electronics", "Computers", "TechBrand"),
+                product(2L, "Laptop Sleeve", "Electronics", "Accessories", "ComfortCo"),
+                product(3L, "Wireless Mouse", "Electronics", "Accessories", "TechBrand"),
+                product(4L, "Standing Desk", "Furniture", "Desks", "Laptop Stands Inc"),
+                product(5L, "Desk Lamp", "Office", "Lighting", "BrightCo")));
+    }
+
+    @Test
+    void search_nameMatchOutranksBrandMatch() {
+        // product 4 only carries "laptop" in its brand; the shorter name 2 beats name 1
+        assertThat(ids(index.search("laptop", 10, null))).containsExactly(2L, 1L, 4L);
+    }
+
+    @Test
+    void search_moreMatchingTermsRankHigher() {
+        assertThat(ids(index.search("techbrand mouse", 10, null))).startsWith(3L, 1L);
+    }
+
+    @Test
+    void search_toleratesTypos() {
+        assertThat(ids(index.search("labtop", 10, null))).containsExactly(2L, 1L, 4L);
+        assertThat(ids(index.search("wirelss mosue", 10, null))).containsExactly(3L);
+        assertThat(ids(index.search("electornics", 10, null))).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void search_exactMatchOutranksTypoMatch() {
+        ProductRelevanceIndex typos = ProductRelevanceIndex.build(List.of(
+                product(1L, "Lamp", "Office", "Lighting", "BrightCo"),
+                product(2L, "Damp Cloth", "Office", "Cleaning", "BrightCo"),
+                product(3L, "Lamps Set", "Office", "Lighting", "BrightCo")));
+
+        assertThat(ids(typos.search("lamps", 10, null))).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void search_shortTermsRequireExactMatch() {
+        assertThat(index.search("pr", 10, null)).isEmpty();
+        assertThat(ids(index.search("pro", 10, null))).containsExactly(1L);
+    }
+
+    @Test
+    void search_returnsOnlyTopKInScoreOrder() {
+        List<ProductResponse> products = new ArrayList<>();
+        IntStream.rangeClosed(1, 100).forEach(i -> products.add(
+                product((long) i, "Cable " + "x".repeat(i % 7), "Electronics", "Accessories", "CoreLine")));
+        ProductRelevanceIndex large = ProductRelevanceIndex.build(products);
+
+        List<ProductResponse> top = large.search("cable", 5, null);
+
+        // shortest names score highest; ties break on product id
+        assertThat(ids(top)).containsExactly(7L, 14L, 21L, 28L, 35L);
+    }
+
+    @Test
+    void search_prunedTopKMatchesFullRanking() {
+        String[] names = {"Wireless Mouse", "Wireless Laptop Mouse", "Laptop", "Gaming Laptop Pro", "Mouse Pad",
+                "Laptop Stand", "Wireless Charger", "Mouse"};
+        String[] brands = {"TechBrand", "Laptop Labs", "CoreLine", "Wireless Works"};
+        List<ProductResponse> products = new ArrayList<>();
+        IntStream.rangeClosed(1, 400).forEach(i -> products.add(product((long) i,
+                names[i * 7 % names.length] + " " + (i % 13), "Electronics", "Accessories", brands[i % brands.length])));
+        ProductRelevanceIndex large = ProductRelevanceIndex.build(products);
+
+        for (String query : List.of("laptop", "wireless mouse", "labtop mouse pad", "wireless works laptop")) {
+            List<Long> all = ids(large.search(query, 400, null));
+            assertThat(ids(large.search(query, 10, null))).as(query).isEqualTo(all.subList(0, 10));
+        }
+    }
+
+    @Test
+    void search_allowedMaskRestrictsResults() {
+        long[] onlyPosition1 = {1L << 1};
+
+        assertThat(ids(index.search("laptop", 10, onlyPosition1))).containsExactly(2L);
+    }
+
+    @Test
+    void search_isRepeatable() {
+        index.search("laptop", 10, null);
+
+        assertThat(ids(index.search("desk", 10, null))).containsExactly(4L, 5L);
+    }
+
+    @Test
+    void search_blankOrUnknownQuery_returnsEmpty() {
+        assertThat(index.search("  ", 10, null)).isEmpty();
+        assertThat(index.search("zzzzzz", 10, null)).isEmpty();
+    }
+
+    private static List<Long> ids(List<ProductResponse> products) {
+        return products.stream().map(ProductResponse::getProductId).toList();
+    }
+
+    private static ProductResponse product(Long id, String name, String category, String subcategory, String brand) {
+        return ProductResponse.builder()
+                .productId(id)
+                .productName(name)
+                .category(category)
+                .subcategory(subcategory)
+                .brand(brand)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.retailcorp.retailshopping.unit.service;
+
+import com.retailcorp.retailshopping.dto.ProductResponse;
+import com.retailcorp.retailshopping.service.ProductSearchIndex;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = ProductSearchIndex.build(List.of(
+                product(3L, "Standing Desk", "Furniture", "Desks", "ComfortCo"),
+                product(1L, "Laptop Pro 15", "Electronics", "Computers", "TechBrand"),
+                product(2L, "Wireless Mouse", "Electronics", "Accessories", "TechBrand")));
+    }
+
+    @Test
+    void search_matchesSubstringCaseInsensitivelyInIdOrder() {
+        assertThat(ids(index.search("TECH"))).containsExactly(1L, 2L);
+        assertThat(ids(index.search("apto"))).containsExactly(1L);
+    }
+
+    @Test
+    void search_coversSubcategory() {
+        assertThat(ids(index.search("accessor"))).containsExactly(2L);
+    }
+
+    @Test
+    void search_requiresTrigramsToBeAdjacent() {
+        // "lap" and "pro" are both indexed for product 1, but "lappro" is not a substring
+        assertThat(index.search("lappro")).isEmpty();
+    }
+
+    @Test
+    void search_doesNotMatchAcrossFieldBoundaries() {
+        // name ends in "desk" and category starts with "furn"
+        assertThat(index.search("deskfurn")).isEmpty();
+    }
+
+    @Test
+    void search_shortQueryFallsBackToScan() {
+        assertThat(ids(index.search("co"))).containsExactly(1L, 3L);
+        assertThat(index.search("")).hasSize(3);
+    }
+
+    @Test
+    void search_unknownTrigramReturnsEmpty() {
+        assertThat(index.search("zzz")).isEmpty();
+    }
+
+    @Test
+    void with_replacesChangedGramsAndAddsNewProducts() {
+        ProductSearchIndex updated = index.with(List.of(
+                product(2L, "Ergonomic Mouse", "Electronics", "Accessories", "ComfortCo"),
+                product(4L, "Desk Lamp", "Furniture", "Lighting", "BrightCo")));
+
+        assertThat(updated.size()).isEqualTo(4);
+        assertThat(updated.search("wireless")).isEmpty();
+        assertThat(ids(updated.search("ergonomic"))).containsExactly(2L);
+        assertThat(ids(updated.search("desk"))).containsExactly(3L, 4L);
+        assertThat(ids(updated.search("techbrand"))).containsExactly(1L);
+    }
+
+    @Test
+    void with_leavesTheOriginalIndexUnchanged() {
+        index.with(List.of(product(2L, "Ergonomic Mouse", "Electronics", "Accessories", "ComfortCo")));
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(ids(index.search("wireless"))).containsExactly(2L);
+        assertThat(index.search("ergonomic")).isEmpty();
+        assertThat(ids(index.search("techbrand"))).containsExactly(1L, 2L);
+    }
+
+    private List<Long> ids(List<ProductResponse> products) {
+        return products.stream().map(ProductResponse::getProductId).toList();
+    }
+
+    private ProductResponse product(Long id, String name, String category, String subcategory, String brand) {
+        return ProductResponse.builder()
+                .productId(id)
+                .productName(name)
+                .category(category)
+                .subcategory(subcategory)
+                .brand(brand)
+                .build();
+    }
+}
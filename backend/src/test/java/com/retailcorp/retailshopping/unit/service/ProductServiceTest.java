@@ -1,20 +1,34 @@
 package com.retailcorp.retailshopping.unit.service;
 
+import com.retailcorp.retailshopping.dto.FacetedSearchResponse;
+import com.retailcorp.retailshopping.dto.ProductPage;
 import com.retailcorp.retailshopping.dto.ProductResponse;
+import com.retailcorp.retailshopping.dto.ProductSearchFilter;
 import com.retailcorp.retailshopping.entity.Product;
+import com.retailcorp.retailshopping.exception.BadRequestException;
+import com.retailcorp.retailshopping.exception.InsufficientStockException;
+import com.retailcorp.retailshopping.repository.CatalogVersion;
 import com.retailcorp.retailshopping.repository.ProductRepository;
+import com.retailcorp.retailshopping.service.CatalogSnapshot;
 import com.retailcorp.retailshopping.service.ProductService;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 class ProductServiceTest {
@@ -22,12 +36,17 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private CatalogSnapshot catalogSnapshot;
+
     @InjectMocks
     private ProductService productService;
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(productService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(productService, "maxPageSize", 100);
     }
 
     @Test
@@ -110,4 +129,291 @@ class ProductServiceTest {
 
         verify(productRepository, times(1)).findById(999L);
     }
+
+    @Test
+    void getProductsByIds_returnsMapKeyedByProductId() {
+        Product p1 = new Product();
+        p1.setProductId(1L);
+        p1.setProductName("Laptop");
+
+        Product p2 = new Product();
+        p2.setProductId(2L);
+        p2.setProductName("Mouse");
+
+        when(productRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(List.of(p1, p2));
+
+        Map<Long, ProductResponse> result = productService.getProductsByIds(Set.of(1L, 2L, 3L));
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(1L).getProductName()).isEqualTo("Laptop");
+        assertThat(result.get(2L).getProductName()).isEqualTo("Mouse");
+        assertThat(result).doesNotContainKey(3L);
+
+        verify(productRepository, times(1)).findAllById(Set.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void getProductsByIds_emptyIds_skipsRepository() {
+        Map<Long, ProductResponse> result = productService.getProductsByIds(Set.of());
+
+        assertThat(result).isEmpty();
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getAllProducts_snapshotEnabled_readsFromSnapshot() {
+        ReflectionTestUtils.setField(productService, "snapshotEnabled", true);
+        ProductResponse laptop = ProductResponse.builder().productId(1L).productName("Laptop").build();
+        when(catalogSnapshot.getProducts()).thenReturn(List.of(laptop));
+
+        List<ProductResponse> result = productService.getAllProducts();
+
+        assertThat(result).containsExactly(laptop);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getProductById_snapshotMiss_fallsBackToRepository() {
+        ReflectionTestUtils.setField(productService, "snapshotEnabled", true);
+        Product p = new Product();
+        p.setProductId(5L);
+        p.setProductName("New Arrival");
+        when(catalogSnapshot.getProduct(5L)).thenReturn(Optional.empty());
+        when(productRepository.findById(5L)).thenReturn(Optional.of(p));
+
+        ProductResponse response = productService.getProductById(5L);
+
+        assertThat(response.getProductName()).isEqualTo("New Arrival");
+    }
+
+    @Test
+    void getProductsByIds_snapshotEnabled_queriesOnlyMissingIds() {
+        ReflectionTestUtils.setField(productService, "snapshotEnabled", true);
+        ProductResponse laptop = ProductResponse.builder().productId(1L).productName("Laptop").build();
+        Product p2 = new Product();
+        p2.setProductId(2L);
+        p2.setProductName("Mouse");
+        when(catalogSnapshot.getProduct(1L)).thenReturn(Optional.of(laptop));
+        when(catalogSnapshot.getProduct(2L)).thenReturn(Optional.empty());
+        when(productRepository.findAllById(List.of(2L))).thenReturn(List.of(p2));
+
+        Map<Long, ProductResponse> result = productService.getProductsByIds(List.of(1L, 2L));
+
+        assertThat(result).containsEntry(1L, laptop);
+        assertThat(result.get(2L).getProductName()).isEqualTo("Mouse");
+        verify(productRepository, times(1)).findAllById(List.of(2L));
+    }
+
+    @Test
+    void searchProducts_snapshotEnabled_usesInMemoryIndex() {
+        ReflectionTestUtils.setField(productService, "snapshotEnabled", true);
+        ProductResponse laptop = ProductResponse.builder().productId(1L).productName("Laptop").build();
+        when(catalogSnapshot.search("lap")).thenReturn(List.of(laptop));
+
+        List<ProductResponse> result = productService.searchProducts("lap");
+
+        assertThat(result).containsExactly(laptop);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getProducts_noPagingParams_returnsWholeCatalogWhenUnpagedAllowed() {
+        ReflectionTestUtils.setField(productService, "allowUnpaged", true);
+        Product p1 = new Product();
+        p1.setProductId(1L);
+        when(productRepository.findAll()).thenReturn(List.of(p1));
+
+        CatalogVersion version = mock(CatalogVersion.class);
+        when(version.getProductCount()).thenReturn(1L);
+        when(productRepository.findCatalogVersion()).thenReturn(version);
+
+        ProductPage page = productService.getProducts(null, null, null);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getEtag()).isEqualTo(CatalogSnapshot.versionTag(version));
+    }
+
+    @Test
+    void getProducts_keysetPage_setsCursorWhenMoreRowsExist() {
+        when(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(0L, Limit.of(3)))
+                .thenReturn(List.of(product(1L), product(2L), product(3L)));
+
+        ProductPage page = productService.getProducts(null, null, null);
+
+        assertThat(page.getItems()).extracting("productId").containsExactly(1L, 2L);
+        assertThat(page.getNextCursor()).isEqualTo(2L);
+    }
+
+    @Test
+    void getProducts_lastPage_hasNoCursor() {
+        when(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(2L, Limit.of(6)))
+                .thenReturn(List.of(product(3L)));
+
+        ProductPage page = productService.getProducts(2L, 5, null);
+
+        assertThat(page.getItems()).extracting("productId").containsExactly(3L);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getProducts_withFields_usesProjectedQuery() {
+        when(productRepository.findPageProjected(0L, 3, List.of("productName")))
+                .thenReturn(List.of(
+                        Map.of("productId", 1L, "productName", "Laptop"),
+                        Map.of("productId", 2L, "productName", "Mouse"),
+                        Map.of("productId", 3L, "productName", "Desk")));
+
+        ProductPage page = productService.getProducts(null, null, List.of(" productName "));
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getNextCursor()).isEqualTo(2L);
+        verify(productRepository, never()).findByProductIdGreaterThanOrderByProductIdAsc(any(), any());
+    }
+
+    @Test
+    void getProducts_page_isTaggedFromItsRowsNotTheSnapshot() {
+        ReflectionTestUtils.setField(productService, "snapshotEnabled", true);
+        when(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(0L, Limit.of(3)))
+                .thenReturn(List.of(product(1L), product(2L)));
+
+        String before = productService.getProducts(null, null, null).getEtag();
+        Product restocked = product(2L);
+        restocked.setStockQuantity(9);
+        when(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(0L, Limit.of(3)))
+                .thenReturn(List.of(product(1L), restocked));
+
+        String after = productService.getProducts(null, null, null).getEtag();
+
+        assertThat(after).isNotEqualTo(before);
+        assertThat(productService.getProducts(null, null, null).getEtag()).isEqualTo(after);
+        verifyNoInteractions(catalogSnapshot);
+    }
+
+    @Test
+    void getProducts_unknownField_throwsBadRequest() {
+        assertThatThrownBy(() -> productService.getProducts(null, 10, List.of("costPrice")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Unknown product field: costPrice");
+    }
+
+    @Test
+    void getProducts_limitOutOfRange_throwsBadRequest() {
+        assertThatThrownBy(() -> productService.getProducts(null, 0, null))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> productService.getProducts(null, 101, null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void getCatalogETag_snapshotEnabled_readsVersionFromMemory() {
+        ReflectionTestUtils.setField(productService, "snapshotEnabled", true);
+        when(catalogSnapshot.getVersionTag()).thenReturn("8-1a2b");
+
+        assertThat(productService.getCatalogETag()).isEqualTo("8-1a2b");
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void searchProductsFaceted_databaseMode_facetsTheQueryRows() {
+        Product p1 = product(1L);
+        p1.setBrand("BrandA");
+        p1.setStockQuantity(3);
+        Product p2 = product(2L);
+        p2.setBrand("BrandB");
+        p2.setStockQuantity(0);
+        when(productRepository.findByProductNameContainingIgnoreCaseOrCategoryContainingIgnoreCaseOrBrandContainingIgnoreCase("Product", "Product", "Product"))
+                .thenReturn(List.of(p1, p2));
+
+        FacetedSearchResponse result = productService.searchProducts("Product", ProductSearchFilter.builder().inStock(true).build());
+
+        assertThat(result.getItems()).extracting(ProductResponse::getProductId).containsExactly(1L);
+        assertThat(result.getFacets().get("brand")).containsOnlyKeys("BrandA");
+    }
+
+    @Test
+    void searchProductsFaceted_snapshotEnabled_delegatesToSnapshot() {
+        ReflectionTestUtils.setField(productService, "snapshotEnabled", true);
+        ProductSearchFilter filter = ProductSearchFilter.builder().brands(List.of("BrandA")).build();
+        FacetedSearchResponse expected = FacetedSearchResponse.builder().items(List.of()).facets(Map.of()).build();
+        when(catalogSnapshot.search("lap", filter)).thenReturn(expected);
+
+        assertThat(productService.searchProducts("lap", filter)).isSameAs(expected);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void searchProductsFaceted_invertedPriceRange_throwsBadRequest() {
+        ProductSearchFilter filter = ProductSearchFilter.builder().minPrice(50.0).maxPrice(10.0).build();
+
+        assertThatThrownBy(() -> productService.searchProducts("lap", filter))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void rankProducts_snapshotEnabled_usesDefaultTopK() {
+        ReflectionTestUtils.setField(productService, "snapshotEnabled", true);
+        ReflectionTestUtils.setField(productService, "defaultTopK", 20);
+        ProductSearchFilter filter = ProductSearchFilter.builder().build();
+        when(catalogSnapshot.rank("labtop", 20, filter)).thenReturn(List.of());
+
+        assertThat(productService.rankProducts("labtop", null, filter)).isEmpty();
+        verify(catalogSnapshot).rank("labtop", 20, filter);
+    }
+
+    @Test
+    void rankProducts_databaseMode_ranksQueryRows() {
+        Product sleeve = product(1L);
+        sleeve.setProductName("Laptop Sleeve");
+        Product laptop = product(2L);
+        laptop.setProductName("Laptop Pro 15 Inch");
+        when(productRepository.findByProductNameContainingIgnoreCaseOrCategoryContainingIgnoreCaseOrBrandContainingIgnoreCase("laptop", "laptop", "laptop"))
+                .thenReturn(List.of(laptop, sleeve));
+
+        List<ProductResponse> ranked = productService.rankProducts("laptop", 1, ProductSearchFilter.builder().build());
+
+        assertThat(ranked).extracting(ProductResponse::getProductId).containsExactly(1L);
+    }
+
+    @Test
+    void rankProducts_limitOutOfRange_throwsBadRequest() {
+        assertThatThrownBy(() -> productService.rankProducts("lap", 101, ProductSearchFilter.builder().build()))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reserveStock_passesLinesInProductIdOrder() {
+        when(productRepository.reserveStock(any())).thenReturn(List.of());
+
+        productService.reserveStock(Map.of(30L, 1, 10L, 2, 20L, 3));
+
+        ArgumentCaptor<SortedMap<Long, Integer>> lines = ArgumentCaptor.forClass(SortedMap.class);
+        verify(productRepository).reserveStock(lines.capture());
+        assertThat(lines.getValue().keySet()).containsExactly(10L, 20L, 30L);
+        assertThat(lines.getValue()).containsEntry(20L, 3);
+    }
+
+    @Test
+    void reserveStock_rejectedLine_throwsInsufficientStock() {
+        when(productRepository.reserveStock(any())).thenReturn(List.of(20L));
+
+        assertThatThrownBy(() -> productService.reserveStock(Map.of(10L, 1, 20L, 5)))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessage("Insufficient stock for product ID: 20");
+    }
+
+    @Test
+    void reserveStock_noLines_skipsRepository() {
+        productService.reserveStock(Map.of());
+
+        verifyNoInteractions(productRepository);
+    }
+
+    private Product product(Long id) {
+        Product p = new Product();
+        p.setProductId(id);
+        p.setProductName("Product " + id);
+        return p;
+    }
 }
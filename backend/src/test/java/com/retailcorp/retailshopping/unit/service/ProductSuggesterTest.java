@@ -0,0 +1,96 @@
+package com.retailcorp.retailshopping.unit.service;
+
+import com.retailcorp.retailshopping.dto.ProductResponse;
+import com.retailcorp.retailshopping.dto.ProductSuggestion;
+import com.retailcorp.retailshopping.repository.OrderRepository;
+import com.retailcorp.retailshopping.repository.ProductSales;
+import com.retailcorp.retailshopping.service.ProductService;
+import com.retailcorp.retailshopping.service.ProductSuggester;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSuggesterTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @InjectMocks
+    private ProductSuggester productSuggester;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productSuggester, "topK", 5);
+    }
+
+    @Test
+    void suggest_beforeFirstRebuild_returnsEmpty() {
+        assertThat(productSuggester.suggest("lap", 10)).isEmpty();
+        verifyNoInteractions(productService, orderRepository);
+    }
+
+    @Test
+    void rebuild_ranksByPopularityAndAddsBrandSuggestions() {
+        when(productService.getAllProducts()).thenReturn(List.of(
+                product(1L, "Laptop Pro 15", "TechBrand", 50),
+                product(2L, "Laptop Air", "TechBrand", 10),
+                product(3L, "Lamp", "BrightCo", 5)));
+        when(orderRepository.findUnitsSoldByProduct()).thenReturn(List.of(sales(2L, 30L)));
+
+        productSuggester.rebuild();
+
+        assertThat(productSuggester.suggest("lap", 10))
+                .extracting(ProductSuggestion::getProductId)
+                .containsExactly(2L, 1L);
+        assertThat(productSuggester.suggest("tech", 10))
+                .extracting(ProductSuggestion::getText, ProductSuggestion::getType)
+                .containsExactly(tuple("TechBrand", "brand"));
+        assertThat(productSuggester.suggest("  air", 10))
+                .extracting(ProductSuggestion::getText)
+                .containsExactly("Laptop Air");
+    }
+
+    @Test
+    void suggest_blankPrefixReturnsEmpty() {
+        assertThat(productSuggester.suggest(" ", 10)).isEmpty();
+        assertThat(productSuggester.suggest(null, 10)).isEmpty();
+    }
+
+    private ProductResponse product(Long id, String name, String brand, int stock) {
+        return ProductResponse.builder()
+                .productId(id)
+                .productName(name)
+                .brand(brand)
+                .stockQuantity(stock)
+                .build();
+    }
+
+    private ProductSales sales(Long productId, Long unitsSold) {
+        return new ProductSales() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Long getUnitsSold() {
+                return unitsSold;
+            }
+        };
+    }
+}
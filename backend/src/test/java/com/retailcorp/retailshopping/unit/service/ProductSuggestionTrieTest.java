@@ -0,0 +1,77 @@
+package com.retailcorp.retailshopping.unit.service;
+
+import com.retailcorp.retailshopping.dto.ProductSuggestion;
+import com.retailcorp.retailshopping.service.ProductSuggestionTrie;
+import com.retailcorp.retailshopping.service.ProductSuggestionTrie.Candidate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSuggestionTrieTest {
+
+    private ProductSuggestionTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = ProductSuggestionTrie.build(List.of(
+                candidate("Laptop Pro 15", 5, 50, "Laptop Pro 15", "Pro 15"),
+                candidate("Laptop Air", 20, 10, "Laptop Air", "Air"),
+                candidate("Laptop Stand", 100, 0, "Laptop Stand", "Stand"),
+                candidate("Lamp", 1, 5, "Lamp")), 2);
+    }
+
+    @Test
+    void suggest_ranksInStockThenUnitsSoldAndKeepsTopK() {
+        // "Laptop Stand" sells best but is out of stock
+        assertThat(texts(trie.suggest("lap", 10))).containsExactly("Laptop Air", "Laptop Pro 15");
+    }
+
+    @Test
+    void suggest_isCaseInsensitiveAndWalksCompressedEdges() {
+        assertThat(texts(trie.suggest("LAPTOP P", 10))).containsExactly("Laptop Pro 15");
+        assertThat(texts(trie.suggest("la", 10))).containsExactly("Laptop Air", "Laptop Pro 15");
+    }
+
+    @Test
+    void suggest_matchesFromLaterWords() {
+        assertThat(texts(trie.suggest("pro", 10))).containsExactly("Laptop Pro 15");
+    }
+
+    @Test
+    void suggest_unknownPrefixReturnsEmpty() {
+        assertThat(trie.suggest("lapx", 10)).isEmpty();
+        assertThat(trie.suggest("z", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_respectsLimit() {
+        assertThat(texts(trie.suggest("l", 1))).containsExactly("Laptop Air");
+    }
+
+    @Test
+    void suggest_deduplicatesCandidatesReachableThroughSeveralKeys() {
+        ProductSuggestionTrie repeated = ProductSuggestionTrie.build(List.of(
+                candidate("Pro Pro", 1, 1, "Pro Pro", "Pro")), 5);
+
+        assertThat(texts(repeated.suggest("p", 10))).containsExactly("Pro Pro");
+    }
+
+    @Test
+    void empty_returnsNothing() {
+        assertThat(ProductSuggestionTrie.EMPTY.suggest("a", 10)).isEmpty();
+    }
+
+    private List<String> texts(List<ProductSuggestion> suggestions) {
+        return suggestions.stream().map(ProductSuggestion::getText).toList();
+    }
+
+    private Candidate candidate(String text, long unitsSold, long stock, String... keys) {
+        return new Candidate(
+                ProductSuggestion.builder().text(text).type("product").build(),
+                List.of(keys), unitsSold, stock);
+    }
+}
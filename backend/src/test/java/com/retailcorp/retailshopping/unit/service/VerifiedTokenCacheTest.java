@@ -0,0 +1,157 @@
+package com.retailcorp.retailshopping.unit.service;
+
+import com.retailcorp.retailshopping.dto.AuthenticatedCustomer;
+import com.retailcorp.retailshopping.entity.Customer;
+import com.retailcorp.retailshopping.service.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+    private static final Date IN_AN_HOUR = Date.from(NOW.plusSeconds(3600));
+
+    private SimpleMeterRegistry registry;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = cache(true, 3);
+    }
+
+    private VerifiedTokenCache cache(boolean enabled, int maxSize) {
+        VerifiedTokenCache c = new VerifiedTokenCache(registry, enabled, maxSize);
+        ReflectionTestUtils.setField(c, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+        AtomicLong tick = new AtomicLong();
+        ReflectionTestUtils.setField(c, "ticker", (LongSupplier) tick::incrementAndGet);
+        return c;
+    }
+
+    private static Customer customer(long id) {
+        Customer customer = new Customer();
+        customer.setCustomerId(id);
+        customer.setEmail("c" + id + "@example.com");
+        customer.setPasswordHash("hash-" + id);
+        return customer;
+    }
+
+    private void put(String token, Customer customer, Date expiration) {
+        cache.put(token, customer, expiration, cache.generation());
+    }
+
+    private double count(String result) {
+        return registry.get("auth.token.cache").tag("result", result).counter().count();
+    }
+
+    @Test
+    void get_afterPut_returnsPrincipalSnapshotAndCountsHit() {
+        Customer customer = customer(1);
+        put("token-1", customer, IN_AN_HOUR);
+        customer.setEmail("changed@example.com");
+
+        assertThat(cache.get("token-1")).contains(new AuthenticatedCustomer(1L, "c1@example.com"));
+        assertThat(cache.get("token-2")).isEmpty();
+        assertThat(count("hit")).isEqualTo(1);
+        assertThat(count("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void get_pastTokenExpiry_missesAndDropsEntry() {
+        put("token-1", customer(1), IN_AN_HOUR);
+        ReflectionTestUtils.setField(cache, "clock", Clock.fixed(NOW.plusSeconds(3600), ZoneOffset.UTC));
+
+        assertThat(cache.get("token-1")).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_alreadyExpiredOrNoExpiry_isNotCached() {
+        put("token-1", customer(1), Date.from(NOW.minusSeconds(1)));
+        put("token-2", customer(2), null);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_beyondMaxSize_evictsLeastRecentlyUsedDownToNinetyPercent() {
+        put("a", customer(1), IN_AN_HOUR);
+        put("b", customer(2), IN_AN_HOUR);
+        put("c", customer(3), IN_AN_HOUR);
+        cache.get("a");
+
+        put("d", customer(4), IN_AN_HOUR);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a")).isPresent();
+        assertThat(cache.get("d")).isPresent();
+        assertThat(cache.get("b")).isEmpty();
+        assertThat(cache.get("c")).isEmpty();
+        assertThat(registry.get("auth.token.cache.evictions").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void evictCustomer_dropsEveryTokenOfThatCustomer() {
+        put("phone", customer(1), IN_AN_HOUR);
+        put("laptop", customer(1), IN_AN_HOUR);
+        put("other", customer(2), IN_AN_HOUR);
+
+        cache.evictCustomer(1L);
+
+        assertThat(cache.get("phone")).isEmpty();
+        assertThat(cache.get("laptop")).isEmpty();
+        assertThat(cache.get("other")).isPresent();
+    }
+
+    @Test
+    void evictChangedCredentials_keepsTokensWhenEmailAndHashAreUnchanged() {
+        put("phone", customer(1), IN_AN_HOUR);
+
+        cache.evictChangedCredentials(1L, "c1@example.com", "hash-1");
+
+        assertThat(cache.get("phone")).isPresent();
+    }
+
+    @Test
+    void evictChangedCredentials_dropsTokensCachedWithOtherCredentials() {
+        put("phone", customer(1), IN_AN_HOUR);
+        put("other", customer(2), IN_AN_HOUR);
+
+        cache.evictChangedCredentials(1L, "c1@example.com", "new-hash");
+
+        assertThat(cache.get("phone")).isEmpty();
+        assertThat(cache.get("other")).isPresent();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void put_afterAnEvictionDuringTheLookup_isDropped() {
+        long generation = cache.generation();
+        cache.evictChangedCredentials(1L, "c1@example.com", "new-hash");
+
+        cache.put("phone", customer(1), IN_AN_HOUR, generation);
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get("phone")).isEmpty();
+    }
+
+    @Test
+    void disabled_neverCaches() {
+        VerifiedTokenCache disabled = cache(false, 3);
+        disabled.put("token-1", customer(1), IN_AN_HOUR, disabled.generation());
+
+        assertThat(disabled.get("token-1")).isEmpty();
+        assertThat(disabled.size()).isZero();
+    }
+}
@@ -0,0 +1,55 @@
+package com.retailcorp.retailshopping.unit.util;
+
+import com.retailcorp.retailshopping.util.BoundedLineReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedLineReaderTest {
+
+    private static List<String> lines(InputStream in, int maxBytes) throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(in, maxBytes);
+        List<String> lines = new ArrayList<>();
+        while (reader.next()) {
+            lines.add(reader.oversized() ? "<oversized>" : reader.text());
+        }
+        return lines;
+    }
+
+    private static InputStream utf8(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void splitsOnNewlineAndStripsCarriageReturn() throws Exception {
+        assertThat(lines(utf8("a\r\nbé\n\nlast"), 16)).containsExactly("a", "bé", "", "last");
+        assertThat(lines(utf8("a\n"), 16)).containsExactly("a");
+        assertThat(lines(utf8(""), 16)).isEmpty();
+    }
+
+    @Test
+    void flagsLinesLongerThanTheCapAndCarriesOn() throws Exception {
+        assertThat(lines(utf8("12345\n123456\nok"), 5)).containsExactly("12345", "<oversized>", "ok");
+    }
+
+    @Test
+    void oversizedLineSpanningManyReadsIsSkippedWhole() throws Exception {
+        // 1 MiB without a newline, handed over a few bytes at a time
+        byte[] body = ("x".repeat(1 << 20) + "\nend").getBytes(StandardCharsets.US_ASCII);
+        InputStream trickle = new ByteArrayInputStream(body) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+
+        assertThat(lines(trickle, 1024)).containsExactly("<oversized>", "end");
+    }
+}
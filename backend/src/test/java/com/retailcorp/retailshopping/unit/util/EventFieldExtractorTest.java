@@ -0,0 +1,86 @@
+package com.retailcorp.retailshopping.unit.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailcorp.retailshopping.entity.CustomerEvent;
+import com.retailcorp.retailshopping.util.EventFieldExtractor;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventFieldExtractorTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void apply_map_copiesSnakeCaseFields() {
+        CustomerEvent event = new CustomerEvent();
+
+        EventFieldExtractor.apply(event, Map.of("event_type", "VIEW", "product_id", 42, "session_id", "s-1"));
+
+        assertThat(event.getEventType()).isEqualTo("VIEW");
+        assertThat(event.getProductId()).isEqualTo(42L);
+        assertThat(event.getSessionId()).isEqualTo("s-1");
+    }
+
+    @Test
+    void apply_map_acceptsCamelCaseAndNumericStrings() {
+        CustomerEvent event = new CustomerEvent();
+
+        EventFieldExtractor.apply(event, Map.of("eventType", "ADD_TO_CART", "productId", "1001", "sessionId", 77));
+
+        assertThat(event.getEventType()).isEqualTo("ADD_TO_CART");
+        assertThat(event.getProductId()).isEqualTo(1001L);
+        assertThat(event.getSessionId()).isEqualTo("77");
+    }
+
+    @Test
+    void apply_map_leavesUnusableValuesNull() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("event_type", Map.of("nested", true));
+        data.put("product_id", "abc");
+        data.put("session_id", "x".repeat(101));
+        CustomerEvent event = new CustomerEvent();
+
+        EventFieldExtractor.apply(event, data);
+
+        assertThat(event.getEventType()).isNull();
+        assertThat(event.getProductId()).isNull();
+        assertThat(event.getSessionId()).isNull();
+    }
+
+    @Test
+    void apply_map_handlesNull() {
+        CustomerEvent event = new CustomerEvent();
+
+        EventFieldExtractor.apply(event, (Map<String, ?>) null);
+
+        assertThat(event.getEventType()).isNull();
+    }
+
+    @Test
+    void apply_json_copiesFieldsFromEitherSpelling() throws Exception {
+        CustomerEvent event = new CustomerEvent();
+
+        EventFieldExtractor.apply(event,
+                mapper.readTree("{\"eventType\":\"VIEW\",\"product_id\":\"42\",\"session_id\":\"s-1\"}"));
+
+        assertThat(event.getEventType()).isEqualTo("VIEW");
+        assertThat(event.getProductId()).isEqualTo(42L);
+        assertThat(event.getSessionId()).isEqualTo("s-1");
+    }
+
+    @Test
+    void apply_json_ignoresNonScalarAndFractionalValues() throws Exception {
+        CustomerEvent event = new CustomerEvent();
+
+        EventFieldExtractor.apply(event,
+                mapper.readTree("{\"event_type\":[\"VIEW\"],\"product_id\":4.5,\"session_id\":null}"));
+
+        assertThat(event.getEventType()).isNull();
+        assertThat(event.getProductId()).isNull();
+        assertThat(event.getSessionId()).isNull();
+    }
+}